@@ -1,5 +1,7 @@
 package com.arz_x;
 
+import com.arz_x.common.result_statistics.ResultCodeStatistics;
+
 /**
  * Created by Rihter on 26.04.2015.
  * Base class for all result code exceptions
@@ -14,6 +16,7 @@ public class CheckedResultCodeException extends Exception implements IExceptionR
     public CheckedResultCodeException(int resultCode, String message) {
         super(message);
         this.resultCodeContainer = new ResultCodeContainer(resultCode);
+        ResultCodeStatistics.onResultCodeExceptionCreated(resultCode);
     }
 
     @Override
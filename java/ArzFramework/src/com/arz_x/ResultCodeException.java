@@ -1,5 +1,7 @@
 package com.arz_x;
 
+import com.arz_x.common.result_statistics.ResultCodeStatistics;
+
 /**
  * Created by Rihter on 22.11.2015.
  * General runtime exception
@@ -14,6 +16,7 @@ public class ResultCodeException extends RuntimeException implements IExceptionR
     public ResultCodeException(int resultCode, String message) {
         super(message);
         this.resultCodeContainer = new ResultCodeContainer(resultCode);
+        ResultCodeStatistics.onResultCodeExceptionCreated(resultCode);
     }
 
     @Override
@@ -15,6 +15,12 @@ public class Contract {
             throw new CommonException(CommonResultCode.UnExpected);
     }
 
+    /* Single argument checks are on hot paths, so they must not allocate varargs array */
+    public static void requireNotNull(Object object) {
+        if (object == null)
+            throw new CommonException(CommonResultCode.InvalidParameter);
+    }
+
     public static void requireNotNull(Object... objects) {
         for (Object obj : objects) {
             if (obj == null)
@@ -0,0 +1,33 @@
+package com.arz_x.common.result_statistics;
+
+import java.util.Map;
+
+/**
+ * Created by Rihter on 19.10.2026.
+ * JMX view of result code statistics
+ */
+public interface IResultCodeStatisticsMXBean {
+    long getTotalCount();
+
+    /**
+     * @return The most frequent result codes in "0xCODE=count" form
+     */
+    String[] getTopResultCodes();
+
+    /**
+     * @return Occurrences per second of each facility since the previous invocation
+     */
+    Map<String, Double> getFacilityRates();
+
+    long getResultCodeCount(int resultCode);
+
+    boolean isCountOnCreation();
+
+    void setCountOnCreation(boolean countOnCreation);
+
+    boolean isCountOnTrace();
+
+    void setCountOnTrace(boolean countOnTrace);
+
+    void reset();
+}
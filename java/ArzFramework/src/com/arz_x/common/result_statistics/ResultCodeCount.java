@@ -0,0 +1,32 @@
+package com.arz_x.common.result_statistics;
+
+/**
+ * Created by Rihter on 19.10.2026.
+ * Immutable pair of raw result code and amount of its occurrences
+ */
+public class ResultCodeCount {
+    private final int resultCode;
+    private final long count;
+
+    public ResultCodeCount(int resultCode, long count) {
+        this.resultCode = resultCode;
+        this.count = count;
+    }
+
+    public int getResultCode() {
+        return this.resultCode;
+    }
+
+    public int getFacility() {
+        return ResultCodeStatistics.getFacility(this.resultCode);
+    }
+
+    public long getCount() {
+        return this.count;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("0x%08X=%d", this.resultCode, this.count);
+    }
+}
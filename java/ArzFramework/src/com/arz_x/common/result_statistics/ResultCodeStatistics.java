@@ -0,0 +1,132 @@
+package com.arz_x.common.result_statistics;
+
+import com.arz_x.CommonException;
+import com.arz_x.CommonResultCode;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Created by Rihter on 19.10.2026.
+ * Process wide registry of result code occurrences.
+ *
+ * Each result code has its own striped counter, so concurrent increments do not contend.
+ * Counters are fed by:
+ * - ResultCodeException / CheckedResultCodeException construction (disabled by default)
+ * - TraceHelpers.traceException (enabled by default)
+ * Note: if both sources are enabled the same traced exception is counted twice
+ */
+public class ResultCodeStatistics {
+    public static final String MBEAN_NAME = "com.arz_x:type=ResultCodeStatistics";
+
+    private static final ResultCodeStatistics INSTANCE = new ResultCodeStatistics();
+
+    private final ConcurrentMap<Integer, LongAdder> counters;
+
+    private volatile boolean countOnCreation;
+    private volatile boolean countOnTrace;
+
+    public static ResultCodeStatistics getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Extracts facility from result code
+     * From c++ header arz/rtl/result_code.h: (1 << 31) + (facility << 16) + errorCode
+     */
+    public static int getFacility(int resultCode) {
+        return (resultCode >>> 16) & 0x7FFF;
+    }
+
+    public static void onResultCodeExceptionCreated(int resultCode) {
+        if (INSTANCE.countOnCreation)
+            INSTANCE.increment(resultCode);
+    }
+
+    public static void onResultCodeTraced(int resultCode) {
+        if (INSTANCE.countOnTrace)
+            INSTANCE.increment(resultCode);
+    }
+
+    /**
+     * Registers the statistics of the process in the platform MBean server
+     * Does nothing if it is registered already
+     */
+    public static synchronized void registerMBean() {
+        try {
+            final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            final ObjectName objectName = new ObjectName(MBEAN_NAME);
+            if (!mBeanServer.isRegistered(objectName))
+                mBeanServer.registerMBean(new ResultCodeStatisticsMXBean(INSTANCE), objectName);
+        } catch (JMException exp) {
+            throw new CommonException(CommonResultCode.InvalidState, "Unable to register MBean: " + exp.getMessage());
+        }
+    }
+
+    ResultCodeStatistics() {
+        this.counters = new ConcurrentHashMap<>();
+        this.countOnCreation = false;
+        this.countOnTrace = true;
+    }
+
+    public boolean isCountOnCreation() {
+        return this.countOnCreation;
+    }
+
+    public void setCountOnCreation(boolean countOnCreation) {
+        this.countOnCreation = countOnCreation;
+    }
+
+    public boolean isCountOnTrace() {
+        return this.countOnTrace;
+    }
+
+    public void setCountOnTrace(boolean countOnTrace) {
+        this.countOnTrace = countOnTrace;
+    }
+
+    public void increment(int resultCode) {
+        LongAdder counter = this.counters.get(resultCode);
+        if (counter == null) {
+            final LongAdder newCounter = new LongAdder();
+            counter = this.counters.putIfAbsent(resultCode, newCounter);
+            if (counter == null)
+                counter = newCounter;
+        }
+        counter.increment();
+    }
+
+    public long getCount(int resultCode) {
+        final LongAdder counter = this.counters.get(resultCode);
+        return (counter != null) ? counter.sum() : 0;
+    }
+
+    public ResultCodeStatisticsSnapshot getSnapshot() {
+        final long timestampNanos = System.nanoTime();
+
+        SortedMap<Integer, Long> sortedCounts = new TreeMap<>();
+        for (Map.Entry<Integer, LongAdder> counter : this.counters.entrySet())
+            sortedCounts.put(counter.getKey(), counter.getValue().sum());
+
+        int[] resultCodes = new int[sortedCounts.size()];
+        long[] counts = new long[sortedCounts.size()];
+        int index = 0;
+        for (Map.Entry<Integer, Long> count : sortedCounts.entrySet()) {
+            resultCodes[index] = count.getKey();
+            counts[index] = count.getValue();
+            ++index;
+        }
+        return new ResultCodeStatisticsSnapshot(timestampNanos, resultCodes, counts);
+    }
+
+    public void reset() {
+        for (LongAdder counter : this.counters.values())
+            counter.reset();
+    }
+}
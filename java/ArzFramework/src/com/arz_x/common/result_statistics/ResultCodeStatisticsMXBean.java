@@ -0,0 +1,80 @@
+package com.arz_x.common.result_statistics;
+
+import com.arz_x.common.helpers.Contract;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Created by Rihter on 19.10.2026.
+ * Exposes ResultCodeStatistics through JMX
+ */
+class ResultCodeStatisticsMXBean implements IResultCodeStatisticsMXBean {
+    private static final int TOP_RESULT_CODES_AMOUNT = 10;
+
+    private final ResultCodeStatistics statistics;
+    private ResultCodeStatisticsSnapshot previousSnapshot;
+
+    ResultCodeStatisticsMXBean(ResultCodeStatistics statistics) {
+        Contract.requireNotNull(statistics);
+        this.statistics = statistics;
+        this.previousSnapshot = statistics.getSnapshot();
+    }
+
+    @Override
+    public long getTotalCount() {
+        return this.statistics.getSnapshot().getTotalCount();
+    }
+
+    @Override
+    public String[] getTopResultCodes() {
+        final List<ResultCodeCount> topCodes = this.statistics.getSnapshot().getTopResultCodes(TOP_RESULT_CODES_AMOUNT);
+        String[] result = new String[topCodes.size()];
+        for (int index = 0; index < result.length; ++index)
+            result[index] = topCodes.get(index).toString();
+        return result;
+    }
+
+    @Override
+    public synchronized Map<String, Double> getFacilityRates() {
+        final ResultCodeStatisticsSnapshot currentSnapshot = this.statistics.getSnapshot();
+        final Map<Integer, Double> facilityRates = currentSnapshot.getFacilityRates(this.previousSnapshot);
+        this.previousSnapshot = currentSnapshot;
+
+        Map<String, Double> result = new TreeMap<>();
+        for (Map.Entry<Integer, Double> facilityRate : facilityRates.entrySet())
+            result.put(String.format("0x%X", facilityRate.getKey()), facilityRate.getValue());
+        return result;
+    }
+
+    @Override
+    public long getResultCodeCount(int resultCode) {
+        return this.statistics.getCount(resultCode);
+    }
+
+    @Override
+    public boolean isCountOnCreation() {
+        return this.statistics.isCountOnCreation();
+    }
+
+    @Override
+    public void setCountOnCreation(boolean countOnCreation) {
+        this.statistics.setCountOnCreation(countOnCreation);
+    }
+
+    @Override
+    public boolean isCountOnTrace() {
+        return this.statistics.isCountOnTrace();
+    }
+
+    @Override
+    public void setCountOnTrace(boolean countOnTrace) {
+        this.statistics.setCountOnTrace(countOnTrace);
+    }
+
+    @Override
+    public void reset() {
+        this.statistics.reset();
+    }
+}
@@ -0,0 +1,115 @@
+package com.arz_x.common.result_statistics;
+
+import com.arz_x.common.helpers.Contract;
+
+import java.util.*;
+
+/**
+ * Created by Rihter on 19.10.2026.
+ * Point in time copy of result code counters.
+ * Rates are calculated as a difference between two snapshots
+ */
+public class ResultCodeStatisticsSnapshot {
+    private static final double NANOSECONDS_IN_SECOND = 1000_000_000.0;
+
+    private final long timestampNanos;
+    /* sorted by result code to allow binary search */
+    private final int[] resultCodes;
+    private final long[] counts;
+    private final long totalCount;
+
+    ResultCodeStatisticsSnapshot(long timestampNanos, int[] resultCodes, long[] counts) {
+        this.timestampNanos = timestampNanos;
+        this.resultCodes = resultCodes;
+        this.counts = counts;
+
+        long sum = 0;
+        for (long count : counts)
+            sum += count;
+        this.totalCount = sum;
+    }
+
+    /**
+     * @return Value of System.nanoTime() when snapshot was taken
+     */
+    public long getTimestampNanos() {
+        return this.timestampNanos;
+    }
+
+    public long getTotalCount() {
+        return this.totalCount;
+    }
+
+    public long getCount(int resultCode) {
+        final int index = Arrays.binarySearch(this.resultCodes, resultCode);
+        return (index >= 0) ? this.counts[index] : 0;
+    }
+
+    public List<ResultCodeCount> getAllCounts() {
+        List<ResultCodeCount> result = new ArrayList<>(this.resultCodes.length);
+        for (int index = 0; index < this.resultCodes.length; ++index)
+            result.add(new ResultCodeCount(this.resultCodes[index], this.counts[index]));
+        return result;
+    }
+
+    /**
+     * Returns the most frequent result codes
+     * @param amount Maximum amount of returned codes
+     * @return Result codes sorted from the most frequent to the least frequent
+     */
+    public List<ResultCodeCount> getTopResultCodes(int amount) {
+        Contract.requireTrue(amount >= 0);
+
+        List<ResultCodeCount> result = getAllCounts();
+        Collections.sort(result, new Comparator<ResultCodeCount>() {
+            @Override
+            public int compare(ResultCodeCount count1, ResultCodeCount count2) {
+                return Long.compare(count2.getCount(), count1.getCount());
+            }
+        });
+        return (result.size() > amount) ? new ArrayList<>(result.subList(0, amount)) : result;
+    }
+
+    public Map<Integer, Long> getFacilityCounts() {
+        Map<Integer, Long> result = new TreeMap<>();
+        for (int index = 0; index < this.resultCodes.length; ++index) {
+            final int facility = ResultCodeStatistics.getFacility(this.resultCodes[index]);
+            final Long previousValue = result.get(facility);
+            result.put(facility, (previousValue != null ? previousValue : 0) + this.counts[index]);
+        }
+        return result;
+    }
+
+    /**
+     * Calculates occurrences per second of each facility since the previous snapshot
+     * @param previousSnapshot Older snapshot of the same statistics
+     * @return Map from facility to its rate per second
+     */
+    public Map<Integer, Double> getFacilityRates(ResultCodeStatisticsSnapshot previousSnapshot) {
+        final double elapsedSeconds = getElapsedSeconds(previousSnapshot);
+
+        Map<Integer, Long> previousCounts = previousSnapshot.getFacilityCounts();
+        Map<Integer, Double> result = new TreeMap<>();
+        for (Map.Entry<Integer, Long> facilityCount : getFacilityCounts().entrySet()) {
+            final Long previousCount = previousCounts.get(facilityCount.getKey());
+            final long difference = facilityCount.getValue() - (previousCount != null ? previousCount : 0);
+            result.put(facilityCount.getKey(), difference / elapsedSeconds);
+        }
+        return result;
+    }
+
+    /**
+     * Calculates occurrences per second of the result code since the previous snapshot
+     */
+    public double getResultCodeRate(ResultCodeStatisticsSnapshot previousSnapshot, int resultCode) {
+        return (getCount(resultCode) - previousSnapshot.getCount(resultCode)) / getElapsedSeconds(previousSnapshot);
+    }
+
+    private double getElapsedSeconds(ResultCodeStatisticsSnapshot previousSnapshot) {
+        Contract.requireNotNull(previousSnapshot);
+
+        final long elapsedNanos = this.timestampNanos - previousSnapshot.timestampNanos;
+        // two snapshots taken at once must not lead to division by zero
+        return Math.max(elapsedNanos, 1) / NANOSECONDS_IN_SECOND;
+    }
+}
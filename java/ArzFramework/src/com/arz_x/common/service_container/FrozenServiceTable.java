@@ -0,0 +1,52 @@
+package com.arz_x.common.service_container;
+
+import java.util.Map;
+
+/**
+ * Created by Rihter on 19.10.2026.
+ * Immutable lookup table of a frozen container: class or interface name to created singleton.
+ * Open addressing over two parallel arrays kept at most half full, so a lookup is
+ * one or two probes without locks or entry objects
+ */
+final class FrozenServiceTable {
+    private final String[] keys;
+    private final Object[] services;
+    private final int mask;
+
+    FrozenServiceTable(Map<String, Object> services) {
+        int capacity = 2;
+        while (capacity < services.size() * 2)
+            capacity <<= 1;
+
+        this.keys = new String[capacity];
+        this.services = new Object[capacity];
+        this.mask = capacity - 1;
+
+        for (Map.Entry<String, Object> entry : services.entrySet()) {
+            int index = indexOf(entry.getKey());
+            while (this.keys[index] != null)
+                index = (index + 1) & this.mask;
+            this.keys[index] = entry.getKey();
+            this.services[index] = entry.getValue();
+        }
+    }
+
+    /**
+     * @return Service registered for the class or interface name, or null
+     */
+    Object get(String name) {
+        int index = indexOf(name);
+        String key;
+        while ((key = this.keys[index]) != null) {
+            if ((key == name) || key.equals(name))
+                return this.services[index];
+            index = (index + 1) & this.mask;
+        }
+        return null;
+    }
+
+    private int indexOf(String name) {
+        final int hash = name.hashCode();
+        return (hash ^ (hash >>> 16)) & this.mask;
+    }
+}
@@ -0,0 +1,56 @@
+package com.arz_x.common.service_container;
+
+import java.lang.ref.SoftReference;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.WeakHashMap;
+
+/**
+ * Created by Rihter on 19.10.2026.
+ * Index of compile time generated service factories available to each class loader of service classes
+ */
+class GeneratedServiceFactories {
+    /* Factories refer to their class loader, so they are held softly to let unused loaders be collected */
+    private static final Map<ClassLoader, SoftReference<Map<String, IGeneratedServiceFactory>>> factories = new WeakHashMap<>();
+
+    /**
+     * @param classLoader Loader of service classes, its factories are loaded on the first call
+     * @return Generated factory for the class name or null if class has to be created through reflection.
+     * The factory may be found through a parent loader, so its service class may differ from the one of classLoader
+     */
+    public static IGeneratedServiceFactory getFactory(ClassLoader classLoader, String serviceClassName) {
+        return getFactories(classLoader).get(serviceClassName);
+    }
+
+    private static Map<String, IGeneratedServiceFactory> getFactories(ClassLoader classLoader) {
+        synchronized (factories) {
+            final SoftReference<Map<String, IGeneratedServiceFactory>> reference = factories.get(classLoader);
+            Map<String, IGeneratedServiceFactory> result = (reference != null) ? reference.get() : null;
+            if (result == null) {
+                result = loadFactories(classLoader);
+                factories.put(classLoader, new SoftReference<>(result));
+            }
+            return result;
+        }
+    }
+
+    private static Map<String, IGeneratedServiceFactory> loadFactories(ClassLoader classLoader) {
+        Map<String, IGeneratedServiceFactory> result = new HashMap<>();
+        final Iterator<IGeneratedServiceFactory> factoriesIterator = ServiceLoader.load(IGeneratedServiceFactory.class, classLoader).iterator();
+        while (true) {
+            try {
+                if (!factoriesIterator.hasNext())
+                    break;
+                final IGeneratedServiceFactory factory = factoriesIterator.next();
+                result.put(factory.getServiceClassName(), factory);
+            } catch (ServiceConfigurationError exp) {
+                // broken entry (e.g. factory of a class removed since the incremental build merged the index)
+                // is skipped alone: reflection is still able to create its service
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,36 @@
+package com.arz_x.common.service_container;
+
+/**
+ * Created by Rihter on 19.10.2026.
+ * Factory generated at compile time by ArzFrameworkProcessor for a class with InstantiateConstructor.
+ * Keeps everything the container needs to create the service without reflection.
+ * Implementations are registered in META-INF/services and found through ServiceLoader
+ */
+public interface IGeneratedServiceFactory extends IServiceFactory {
+    /**
+     * @return Binary name of the created class, the same as Class.getName()
+     */
+    String getServiceClassName();
+
+    /**
+     * @return Class created by the factory, the one loaded by the class loader of the factory
+     */
+    Class<?> getServiceClass();
+
+    /**
+     * @return Binary names of constructor parameter types. Must not be modified
+     */
+    String[] getDependencyTypeNames();
+
+    /**
+     * @return Which constructor parameters are marked with OptionalLogic. Must not be modified
+     */
+    boolean[] getOptionalDependencies();
+
+    /**
+     * @return Which constructor parameters are marked with LazyLogic or null if none. Must not be modified
+     */
+    default boolean[] getLazyDependencies() {
+        return null;
+    }
+}
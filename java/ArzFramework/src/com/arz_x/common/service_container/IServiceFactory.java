@@ -0,0 +1,16 @@
+package com.arz_x.common.service_container;
+
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Created by Rihter on 19.10.2026.
+ * Creates new instances of one service class
+ */
+public interface IServiceFactory {
+    /**
+     * @param arguments Resolved constructor arguments in the order of constructor parameters
+     * @return New service instance
+     * @throws InvocationTargetException If the service constructor has thrown an exception
+     */
+    Object newInstance(Object[] arguments) throws InstantiationException, IllegalAccessException, InvocationTargetException;
+}
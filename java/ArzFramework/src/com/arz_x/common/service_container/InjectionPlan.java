@@ -0,0 +1,202 @@
+package com.arz_x.common.service_container;
+
+import com.arz_x.common.helpers.Contract;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Parameter;
+import java.util.function.Function;
+
+/**
+ * Created by Rihter on 19.10.2026.
+ * Immutable result of constructor and dependencies lookup for one service class.
+ * Compiled once, so service resolution does not need reflection scanning any more
+ */
+class InjectionPlan {
+    private final Class<?> serviceClass;
+    private final String serviceClassName;
+    private final ServiceScope scope;
+
+    /* null if class has no constructor marked with InstantiateConstructor or the plan is generated */
+    private final Constructor<?> constructor;
+    /* null if class has no constructor marked with InstantiateConstructor */
+    private final IServiceFactory serviceFactory;
+
+    /* Implementation classes of constructor parameters. null if no implementation is registered */
+    private final Class<?>[] dependencyClasses;
+    private final String[] dependencyTypeNames;
+    private final boolean[] optionalDependencies;
+    /* Interface of proxy to inject instead of the dependency. null if dependency is created at once */
+    private final Class<?>[] lazyDependencyInterfaces;
+
+    private InjectionPlan(Class<?> serviceClass
+            , ServiceScope scope
+            , Constructor<?> constructor
+            , IServiceFactory serviceFactory
+            , Class<?>[] dependencyClasses
+            , String[] dependencyTypeNames
+            , boolean[] optionalDependencies
+            , Class<?>[] lazyDependencyInterfaces) {
+        this.serviceClass = serviceClass;
+        this.serviceClassName = serviceClass.getName();
+        this.scope = scope;
+        this.constructor = constructor;
+        this.serviceFactory = serviceFactory;
+        this.dependencyClasses = dependencyClasses;
+        this.dependencyTypeNames = dependencyTypeNames;
+        this.optionalDependencies = optionalDependencies;
+        this.lazyDependencyInterfaces = lazyDependencyInterfaces;
+    }
+
+    /**
+     * Finds InstantiateConstructor of the class and resolves its parameters
+     * @param serviceClass Class to compile plan for
+     * @param implementationResolver Returns registered implementation of class or interface name or null
+     * @param instantiationStrategy How to invoke the found constructor
+     * @param scope Lifetime of created services
+     */
+    public static InjectionPlan compile(Class<?> serviceClass
+            , Function<String, Class<?>> implementationResolver
+            , ServiceInstantiationStrategy instantiationStrategy
+            , ServiceScope scope) {
+        Contract.requireNotNull(serviceClass, implementationResolver, instantiationStrategy, scope);
+
+        Constructor<?> matchedConstructor = null;
+        for (Constructor<?> iteratorConstructor : serviceClass.getConstructors()) {
+            if (iteratorConstructor.getDeclaredAnnotation(InstantiateConstructor.class) != null) {
+                matchedConstructor = iteratorConstructor;
+                break;
+            }
+        }
+
+        if (matchedConstructor == null)
+            return new InjectionPlan(serviceClass, scope, null, null, new Class<?>[0], new String[0], new boolean[0], new Class<?>[0]);
+
+        final Parameter[] constructorParameters = matchedConstructor.getParameters();
+        Class<?>[] dependencyClasses = new Class<?>[constructorParameters.length];
+        String[] dependencyTypeNames = new String[constructorParameters.length];
+        boolean[] optionalDependencies = new boolean[constructorParameters.length];
+        Class<?>[] lazyDependencyInterfaces = new Class<?>[constructorParameters.length];
+        for (int parameterIndex = 0; parameterIndex < constructorParameters.length; ++parameterIndex) {
+            final Class<?> parameterType = constructorParameters[parameterIndex].getType();
+            final String parameterClassName = parameterType.getName();
+
+            dependencyTypeNames[parameterIndex] = parameterClassName;
+            dependencyClasses[parameterIndex] = implementationResolver.apply(parameterClassName);
+            optionalDependencies[parameterIndex] = constructorParameters[parameterIndex].getAnnotation(OptionalLogic.class) != null;
+
+            final boolean isLazyParameter = constructorParameters[parameterIndex].getAnnotation(LazyLogic.class) != null;
+            lazyDependencyInterfaces[parameterIndex] = getLazyDependencyInterface(parameterType
+                    , dependencyClasses[parameterIndex], isLazyParameter);
+        }
+
+        return new InjectionPlan(serviceClass
+                , scope
+                , matchedConstructor
+                , ServiceFactories.createFactory(matchedConstructor, instantiationStrategy)
+                , dependencyClasses, dependencyTypeNames, optionalDependencies, lazyDependencyInterfaces);
+    }
+
+    /**
+     * Resolves parameters described by compile time generated factory. No reflection is used
+     * @param serviceClass Class to compile plan for
+     * @param generatedFactory Factory generated for the class
+     * @param implementationResolver Returns registered implementation of class or interface name or null
+     * @param scope Lifetime of created services
+     */
+    public static InjectionPlan compile(Class<?> serviceClass
+            , IGeneratedServiceFactory generatedFactory
+            , Function<String, Class<?>> implementationResolver
+            , ServiceScope scope) {
+        Contract.requireNotNull(serviceClass, generatedFactory, implementationResolver, scope);
+
+        final String[] dependencyTypeNames = generatedFactory.getDependencyTypeNames().clone();
+        final boolean[] optionalDependencies = generatedFactory.getOptionalDependencies().clone();
+        final boolean[] lazyParameters = generatedFactory.getLazyDependencies();
+        Contract.requireTrue(dependencyTypeNames.length == optionalDependencies.length);
+        Contract.requireTrue((lazyParameters == null) || (lazyParameters.length == dependencyTypeNames.length));
+
+        Class<?>[] dependencyClasses = new Class<?>[dependencyTypeNames.length];
+        Class<?>[] lazyDependencyInterfaces = new Class<?>[dependencyTypeNames.length];
+        for (int parameterIndex = 0; parameterIndex < dependencyTypeNames.length; ++parameterIndex) {
+            final String parameterClassName = dependencyTypeNames[parameterIndex];
+            dependencyClasses[parameterIndex] = implementationResolver.apply(parameterClassName);
+
+            final boolean isLazyParameter = (lazyParameters != null) && lazyParameters[parameterIndex];
+            final Class<?> dependencyClass = dependencyClasses[parameterIndex];
+            if ((dependencyClass == null) || (!(isLazyParameter || dependencyClass.isAnnotationPresent(LazyLogic.class))))
+                continue;
+
+            // parameter type is needed only for the proxy, so it is loaded only for lazy dependencies
+            try {
+                final Class<?> parameterType = Class.forName(parameterClassName, false, serviceClass.getClassLoader());
+                lazyDependencyInterfaces[parameterIndex] = getLazyDependencyInterface(parameterType, dependencyClass, isLazyParameter);
+            } catch (ClassNotFoundException exp) {
+                // the dependency is created at once then
+            }
+        }
+
+        return new InjectionPlan(serviceClass, scope, null, generatedFactory
+                , dependencyClasses, dependencyTypeNames, optionalDependencies, lazyDependencyInterfaces);
+    }
+
+    private static Class<?> getLazyDependencyInterface(Class<?> parameterType, Class<?> dependencyClass, boolean isLazyParameter) {
+        if ((dependencyClass == null) || (!parameterType.isInterface()))
+            return null;
+        return (isLazyParameter || dependencyClass.isAnnotationPresent(LazyLogic.class)) ? parameterType : null;
+    }
+
+    public Class<?> getServiceClass() {
+        return this.serviceClass;
+    }
+
+    public String getServiceClassName() {
+        return this.serviceClassName;
+    }
+
+    public ServiceScope getScope() {
+        return this.scope;
+    }
+
+    public boolean isTransient() {
+        return this.scope == ServiceScope.Transient;
+    }
+
+    public boolean isScoped() {
+        return this.scope == ServiceScope.Scoped;
+    }
+
+    public boolean hasConstructor() {
+        return this.serviceFactory != null;
+    }
+
+    public Constructor<?> getConstructor() {
+        return this.constructor;
+    }
+
+    public IServiceFactory getServiceFactory() {
+        return this.serviceFactory;
+    }
+
+    public int getDependencyCount() {
+        return this.dependencyClasses.length;
+    }
+
+    public Class<?> getDependencyClass(int index) {
+        return this.dependencyClasses[index];
+    }
+
+    public String getDependencyTypeName(int index) {
+        return this.dependencyTypeNames[index];
+    }
+
+    public boolean isOptionalDependency(int index) {
+        return this.optionalDependencies[index];
+    }
+
+    /**
+     * @return Interface of the proxy to inject or null if the dependency must be created at once
+     */
+    public Class<?> getLazyDependencyInterface(int index) {
+        return this.lazyDependencyInterfaces[index];
+    }
+}
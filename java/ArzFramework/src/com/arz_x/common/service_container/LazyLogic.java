@@ -0,0 +1,18 @@
+package com.arz_x.common.service_container;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Created by Rihter on 19.10.2026.
+ * Specifies that the logic is created only on the first call of its method.
+ * Until then a lightweight proxy implementing the parameter interface is injected.
+ * May mark a constructor parameter or a service class (then all its injections are lazy).
+ * Has no effect if the parameter type is not an interface
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.PARAMETER, ElementType.TYPE})
+public @interface LazyLogic {
+}
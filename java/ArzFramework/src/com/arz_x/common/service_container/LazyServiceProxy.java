@@ -0,0 +1,59 @@
+package com.arz_x.common.service_container;
+
+import com.arz_x.common.helpers.Contract;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * Created by Rihter on 19.10.2026.
+ * Proxy handler that gets the real service from the container on the first method call
+ */
+class LazyServiceProxy implements InvocationHandler {
+    private final ServiceContainer serviceContainer;
+    private final Class<?> implementationClass;
+    private volatile Object service;
+
+    private LazyServiceProxy(ServiceContainer serviceContainer, Class<?> implementationClass) {
+        this.serviceContainer = serviceContainer;
+        this.implementationClass = implementationClass;
+    }
+
+    public static Object create(ServiceContainer serviceContainer, Class<?> serviceInterface, Class<?> implementationClass) {
+        Contract.requireNotNull(serviceContainer, serviceInterface, implementationClass);
+        Contract.requireTrue(serviceInterface.isInterface());
+
+        return Proxy.newProxyInstance(serviceInterface.getClassLoader()
+                , new Class<?>[] { serviceInterface }
+                , new LazyServiceProxy(serviceContainer, implementationClass));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] arguments) throws Throwable {
+        // identity of not created service must not require its creation
+        if (method.getDeclaringClass() == Object.class) {
+            if (method.getName().equals("equals"))
+                return proxy == arguments[0];
+            if (method.getName().equals("hashCode"))
+                return System.identityHashCode(proxy);
+        }
+
+        try {
+            return method.invoke(getService(), arguments);
+        } catch (InvocationTargetException exp) {
+            throw exp.getCause();
+        }
+    }
+
+    private Object getService() {
+        Object result = this.service;
+        if (result == null) {
+            // container creates the service only once, so racing threads get the same instance
+            result = this.serviceContainer.getService(this.implementationClass);
+            this.service = result;
+        }
+        return result;
+    }
+}
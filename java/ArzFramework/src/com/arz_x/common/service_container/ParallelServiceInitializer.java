@@ -0,0 +1,243 @@
+package com.arz_x.common.service_container;
+
+import com.arz_x.CommonException;
+import com.arz_x.CommonResultCode;
+import com.arz_x.ResultCodeException;
+import com.arz_x.common.helpers.Contract;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Created by Rihter on 19.10.2026.
+ * Creates services of the container concurrently in dependency order.
+ * A service is scheduled as soon as all its dependencies are created, so the whole
+ * creation takes about as long as the longest dependency chain
+ */
+class ParallelServiceInitializer {
+    private static class ServiceNode {
+        final Class<?> serviceClass;
+        final List<ServiceNode> dependencies = new ArrayList<>();
+        final List<ServiceNode> dependents = new ArrayList<>();
+        final AtomicInteger notCreatedDependencies = new AtomicInteger();
+
+        volatile long creationTimeNanos;
+        volatile boolean isScheduled;
+
+        ServiceNode(Class<?> serviceClass) {
+            this.serviceClass = serviceClass;
+        }
+    }
+
+    private final ServiceContainer serviceContainer;
+    private final Executor executor;
+
+    private final Map<Class<?>, ServiceNode> serviceNodes;
+    private final AtomicReference<RuntimeException> firstException;
+    private AtomicInteger notCreatedServices;
+    private CompletableFuture<Void> scheduledServicesCreated;
+
+    ParallelServiceInitializer(ServiceContainer serviceContainer, Executor executor) {
+        Contract.requireNotNull(serviceContainer, executor);
+
+        this.serviceContainer = serviceContainer;
+        this.executor = executor;
+        this.serviceNodes = new LinkedHashMap<>();
+        this.firstException = new AtomicReference<>();
+    }
+
+    /**
+     * Creates all specified services and waits for the end of creation
+     * @param serviceClasses Implementation classes of services
+     * @return Timings of creation
+     */
+    public ServiceInitializationReport createAll(Collection<Class<?>> serviceClasses) {
+        try {
+            return createAllAsync(serviceClasses).get();
+        } catch (InterruptedException exp) {
+            Thread.currentThread().interrupt();
+            throw new CommonException(CommonResultCode.InvalidState, "Interrupted while creating services");
+        } catch (ExecutionException exp) {
+            if (exp.getCause() instanceof RuntimeException)
+                throw (RuntimeException) exp.getCause();
+            throw new CommonException(CommonResultCode.UnExpected);
+        }
+    }
+
+    /**
+     * Starts creation of all specified services without waiting for it
+     * @param serviceClasses Implementation classes of services
+     * @return Future completed with timings of creation or with the first creation exception
+     */
+    public CompletableFuture<ServiceInitializationReport> createAllAsync(Collection<Class<?>> serviceClasses) {
+        final long startTime = System.nanoTime();
+
+        buildDependencyGraph(serviceClasses);
+        final List<ServiceNode> topologicalOrder = getTopologicalOrder();
+
+        // nodes depending on circular references never become ready and are not counted
+        this.notCreatedServices = new AtomicInteger(topologicalOrder.size());
+        this.scheduledServicesCreated = new CompletableFuture<>();
+        if (topologicalOrder.isEmpty())
+            this.scheduledServicesCreated.complete(null);
+
+        for (ServiceNode node : this.serviceNodes.values())
+            node.notCreatedDependencies.set(node.dependencies.size());
+        for (ServiceNode node : this.serviceNodes.values()) {
+            if (node.dependencies.isEmpty())
+                schedule(node);
+        }
+
+        return this.scheduledServicesCreated.thenApplyAsync(new Function<Void, ServiceInitializationReport>() {
+            @Override
+            public ServiceInitializationReport apply(Void ignored) {
+                // circular references are resolved in the common way
+                for (ServiceNode node : serviceNodes.values()) {
+                    if (!node.isScheduled)
+                        createService(node);
+                }
+
+                final RuntimeException exception = firstException.get();
+                if (exception != null)
+                    throw exception;
+
+                return createReport(System.nanoTime() - startTime, topologicalOrder);
+            }
+        }, this.executor);
+    }
+
+    private void buildDependencyGraph(Collection<Class<?>> serviceClasses) {
+        for (Class<?> serviceClass : serviceClasses) {
+            if (!this.serviceNodes.containsKey(serviceClass))
+                this.serviceNodes.put(serviceClass, new ServiceNode(serviceClass));
+        }
+
+        for (ServiceNode node : this.serviceNodes.values()) {
+            final InjectionPlan injectionPlan = this.serviceContainer.getInjectionPlan(node.serviceClass);
+            Set<ServiceNode> dependencies = new LinkedHashSet<>();
+            for (int index = 0; index < injectionPlan.getDependencyCount(); ++index) {
+                // lazy dependencies are not created by their dependents
+                if (injectionPlan.getLazyDependencyInterface(index) != null)
+                    continue;
+
+                // unknown and already instantiated dependencies are not a part of the graph
+                final ServiceNode dependencyNode = this.serviceNodes.get(injectionPlan.getDependencyClass(index));
+                if ((dependencyNode != null) && (dependencyNode != node))
+                    dependencies.add(dependencyNode);
+            }
+
+            node.dependencies.addAll(dependencies);
+            for (ServiceNode dependency : dependencies)
+                dependency.dependents.add(node);
+        }
+    }
+
+    private void schedule(final ServiceNode node) {
+        node.isScheduled = true;
+        try {
+            this.executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        createService(node);
+                    } finally {
+                        onServiceCreated(node);
+                    }
+                }
+            });
+        } catch (RuntimeException exp) {
+            this.firstException.compareAndSet(null, exp);
+            onServiceCreated(node);
+        }
+    }
+
+    private void onServiceCreated(ServiceNode node) {
+        for (ServiceNode dependent : node.dependents) {
+            if (dependent.notCreatedDependencies.decrementAndGet() == 0)
+                schedule(dependent);
+        }
+        if (this.notCreatedServices.decrementAndGet() == 0)
+            this.scheduledServicesCreated.complete(null);
+    }
+
+    private void createService(ServiceNode node) {
+        final long startTime = System.nanoTime();
+        try {
+            this.serviceContainer.getService(node.serviceClass);
+        } catch (ResultCodeException exp) {
+            this.firstException.compareAndSet(null, exp);
+        } catch (RuntimeException exp) {
+            this.firstException.compareAndSet(null, new CommonException(CommonResultCode.UnExpected));
+        } finally {
+            node.creationTimeNanos = System.nanoTime() - startTime;
+        }
+    }
+
+    /**
+     * Kahn's algorithm over the dependency graph
+     * @return Nodes that do not depend on circular references, dependencies go first
+     */
+    private List<ServiceNode> getTopologicalOrder() {
+        Map<ServiceNode, Integer> notResolvedDependencies = new HashMap<>();
+        Deque<ServiceNode> readyNodes = new ArrayDeque<>();
+        for (ServiceNode node : this.serviceNodes.values()) {
+            notResolvedDependencies.put(node, node.dependencies.size());
+            if (node.dependencies.isEmpty())
+                readyNodes.add(node);
+        }
+
+        List<ServiceNode> result = new ArrayList<>();
+        while (!readyNodes.isEmpty()) {
+            final ServiceNode node = readyNodes.poll();
+            result.add(node);
+            for (ServiceNode dependent : node.dependents) {
+                final int dependencies = notResolvedDependencies.get(dependent) - 1;
+                notResolvedDependencies.put(dependent, dependencies);
+                if (dependencies == 0)
+                    readyNodes.add(dependent);
+            }
+        }
+        return result;
+    }
+
+    private ServiceInitializationReport createReport(long totalTimeNanos, List<ServiceNode> topologicalOrder) {
+        // the longest path ending in each node, computed in topological order
+        Map<ServiceNode, Long> pathTimes = new HashMap<>();
+        Map<ServiceNode, ServiceNode> pathPredecessors = new HashMap<>();
+        ServiceNode lastCriticalNode = null;
+
+        for (ServiceNode node : topologicalOrder) {
+            long longestDependencyTime = 0;
+            for (ServiceNode dependency : node.dependencies) {
+                final Long dependencyTime = pathTimes.get(dependency);
+                if ((dependencyTime != null) && (dependencyTime > longestDependencyTime)) {
+                    longestDependencyTime = dependencyTime;
+                    pathPredecessors.put(node, dependency);
+                }
+            }
+
+            final long pathTime = longestDependencyTime + node.creationTimeNanos;
+            pathTimes.put(node, pathTime);
+            if ((lastCriticalNode == null) || (pathTime > pathTimes.get(lastCriticalNode)))
+                lastCriticalNode = node;
+        }
+
+        LinkedList<String> criticalPath = new LinkedList<>();
+        for (ServiceNode node = lastCriticalNode; node != null; node = pathPredecessors.get(node))
+            criticalPath.addFirst(node.serviceClass.getName());
+
+        Map<String, Long> serviceCreationTimes = new LinkedHashMap<>();
+        for (ServiceNode node : this.serviceNodes.values())
+            serviceCreationTimes.put(node.serviceClass.getName(), node.creationTimeNanos);
+
+        return new ServiceInitializationReport(totalTimeNanos
+                , (lastCriticalNode != null) ? pathTimes.get(lastCriticalNode) : 0
+                , criticalPath
+                , serviceCreationTimes);
+    }
+}
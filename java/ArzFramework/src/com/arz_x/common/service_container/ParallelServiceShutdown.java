@@ -0,0 +1,233 @@
+package com.arz_x.common.service_container;
+
+import com.arz_x.CommonException;
+import com.arz_x.CommonResultCode;
+import com.arz_x.ResultCodeException;
+import com.arz_x.common.helpers.Contract;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Created by Rihter on 19.10.2026.
+ * Closes AutoCloseable services of the container concurrently in reverse dependency order.
+ * A service is closed as soon as all services depending on it are closed, so the whole
+ * shutdown takes about as long as the slowest branch of the graph
+ */
+class ParallelServiceShutdown {
+    /**
+     * Service created by the container and the plan it was created by
+     */
+    static class CreatedService {
+        final Object service;
+        final InjectionPlan injectionPlan;
+
+        CreatedService(Object service, InjectionPlan injectionPlan) {
+            this.service = service;
+            this.injectionPlan = injectionPlan;
+        }
+    }
+
+    private static class ServiceNode {
+        final Object service;
+        final List<ServiceNode> dependencies = new ArrayList<>();
+        final AtomicInteger notClosedDependents = new AtomicInteger();
+
+        volatile boolean isScheduled;
+
+        ServiceNode(Object service) {
+            this.service = service;
+        }
+    }
+
+    private final Executor executor;
+    private final Function<Class<?>, InjectionPlan> injectionPlanResolver;
+    private final List<ServiceNode> serviceNodes;
+    private final AtomicReference<RuntimeException> firstException;
+    private final AtomicInteger notClosedServices;
+    private final CompletableFuture<Void> scheduledServicesClosed;
+
+    /**
+     * @param injectionPlanResolver Returns plan of a dependency class, used to find dependencies of transient services
+     */
+    ParallelServiceShutdown(Executor executor, Function<Class<?>, InjectionPlan> injectionPlanResolver) {
+        Contract.requireNotNull(executor, injectionPlanResolver);
+
+        this.executor = executor;
+        this.injectionPlanResolver = injectionPlanResolver;
+        this.serviceNodes = new ArrayList<>();
+        this.firstException = new AtomicReference<>();
+        this.notClosedServices = new AtomicInteger();
+        this.scheduledServicesClosed = new CompletableFuture<>();
+    }
+
+    /**
+     * Closes services and waits for the end of closing, but not longer than timeout
+     * @param createdServices Services in creation order
+     * @return true if all services are closed in time
+     */
+    public boolean closeAll(Collection<CreatedService> createdServices, long timeout, TimeUnit unit) {
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+
+        buildDependencyGraph(createdServices);
+
+        // nodes in circular references never become ready and are not counted
+        final int readyServicesCount = countNotCircularServices();
+        this.notClosedServices.set(readyServicesCount);
+        if (readyServicesCount == 0)
+            this.scheduledServicesClosed.complete(null);
+
+        // closed services make their dependencies ready concurrently, so the first ready nodes are taken beforehand
+        List<ServiceNode> readyNodes = new ArrayList<>();
+        for (ServiceNode node : this.serviceNodes) {
+            if (node.notClosedDependents.get() == 0)
+                readyNodes.add(node);
+        }
+        for (ServiceNode node : readyNodes)
+            schedule(node);
+
+        try {
+            this.scheduledServicesClosed.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException exp) {
+            return false;
+        } catch (InterruptedException exp) {
+            Thread.currentThread().interrupt();
+            throw new CommonException(CommonResultCode.InvalidState, "Interrupted while closing services");
+        } catch (ExecutionException exp) {
+            throw new CommonException(CommonResultCode.UnExpected);
+        }
+
+        // circular references are closed in reverse creation order
+        for (int index = this.serviceNodes.size() - 1; index >= 0; --index) {
+            final ServiceNode node = this.serviceNodes.get(index);
+            if (node.isScheduled)
+                continue;
+            if (System.nanoTime() - deadline > 0)
+                return false;
+            closeService(node);
+        }
+
+        final RuntimeException exception = this.firstException.get();
+        if (exception != null)
+            throw exception;
+        return true;
+    }
+
+    /**
+     * Edges are taken from dependency classes of injection plans, so dependencies behind lazy proxies
+     * and dependencies of transient services are closed after the services that may use them
+     */
+    private void buildDependencyGraph(Collection<CreatedService> createdServices) {
+        Map<Class<?>, ServiceNode> serviceNodesMap = new HashMap<>();
+        for (CreatedService createdService : createdServices) {
+            final ServiceNode node = new ServiceNode(createdService.service);
+            serviceNodesMap.put(createdService.injectionPlan.getServiceClass(), node);
+            this.serviceNodes.add(node);
+        }
+
+        int nodeIndex = 0;
+        for (CreatedService createdService : createdServices) {
+            final ServiceNode node = this.serviceNodes.get(nodeIndex++);
+            Set<ServiceNode> dependencies = Collections.newSetFromMap(new IdentityHashMap<ServiceNode, Boolean>());
+            collectDependencyNodes(createdService.injectionPlan, serviceNodesMap, new HashSet<Class<?>>(), dependencies);
+            dependencies.remove(node);
+
+            node.dependencies.addAll(dependencies);
+            for (ServiceNode dependency : dependencies)
+                dependency.notClosedDependents.incrementAndGet();
+        }
+    }
+
+    /**
+     * Instantiated objects and services of other containers have no node and are not a part of the graph.
+     * Transient services are not owned by the container, but their dependencies are
+     */
+    private void collectDependencyNodes(InjectionPlan injectionPlan, Map<Class<?>, ServiceNode> serviceNodesMap
+            , Set<Class<?>> visitedTransientClasses, Set<ServiceNode> dependencies) {
+        for (int parameterIndex = 0; parameterIndex < injectionPlan.getDependencyCount(); ++parameterIndex) {
+            final Class<?> dependencyClass = injectionPlan.getDependencyClass(parameterIndex);
+            if (dependencyClass == null)
+                continue;
+
+            final ServiceNode dependencyNode = serviceNodesMap.get(dependencyClass);
+            if (dependencyNode != null) {
+                dependencies.add(dependencyNode);
+                continue;
+            }
+
+            final InjectionPlan dependencyPlan = this.injectionPlanResolver.apply(dependencyClass);
+            if ((dependencyPlan.isTransient()) && (visitedTransientClasses.add(dependencyClass)))
+                collectDependencyNodes(dependencyPlan, serviceNodesMap, visitedTransientClasses, dependencies);
+        }
+    }
+
+    /**
+     * Kahn's algorithm from dependents to dependencies
+     */
+    private int countNotCircularServices() {
+        Map<ServiceNode, Integer> notResolvedDependents = new IdentityHashMap<>();
+        Deque<ServiceNode> readyNodes = new ArrayDeque<>();
+        for (ServiceNode node : this.serviceNodes) {
+            notResolvedDependents.put(node, node.notClosedDependents.get());
+            if (node.notClosedDependents.get() == 0)
+                readyNodes.add(node);
+        }
+
+        int result = 0;
+        while (!readyNodes.isEmpty()) {
+            final ServiceNode node = readyNodes.poll();
+            ++result;
+            for (ServiceNode dependency : node.dependencies) {
+                final int dependents = notResolvedDependents.get(dependency) - 1;
+                notResolvedDependents.put(dependency, dependents);
+                if (dependents == 0)
+                    readyNodes.add(dependency);
+            }
+        }
+        return result;
+    }
+
+    private void schedule(final ServiceNode node) {
+        node.isScheduled = true;
+        try {
+            this.executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        closeService(node);
+                    } finally {
+                        onServiceClosed(node);
+                    }
+                }
+            });
+        } catch (RuntimeException exp) {
+            this.firstException.compareAndSet(null, exp);
+            onServiceClosed(node);
+        }
+    }
+
+    private void onServiceClosed(ServiceNode node) {
+        for (ServiceNode dependency : node.dependencies) {
+            if (dependency.notClosedDependents.decrementAndGet() == 0)
+                schedule(dependency);
+        }
+        if (this.notClosedServices.decrementAndGet() == 0)
+            this.scheduledServicesClosed.complete(null);
+    }
+
+    private void closeService(ServiceNode node) {
+        if (!(node.service instanceof AutoCloseable))
+            return;
+
+        try {
+            ((AutoCloseable) node.service).close();
+        } catch (ResultCodeException exp) {
+            this.firstException.compareAndSet(null, exp);
+        } catch (Exception exp) {
+            this.firstException.compareAndSet(null, new CommonException(CommonResultCode.UnExpected));
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.arz_x.common.service_container;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Created by Rihter on 19.10.2026.
+ * Marks service class that is created once per container:
+ * each child container (e.g. created per request) has its own instance
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface ScopedLogic {
+}
@@ -0,0 +1,67 @@
+package com.arz_x.common.service_container;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Created by Rihter on 19.10.2026.
+ * Build time index of service classes and interfaces they implement, written by the annotation processor.
+ * Lets the container map interfaces to services without loading service classes.
+ * Indexes are read from each class loader of service classes separately
+ */
+class ServiceClassIndex {
+    static final String SERVICE_INDEX_PATH = "META-INF/arz-x/service-index.properties";
+
+    private static final Map<ClassLoader, Map<String, List<String>>> serviceInterfaces = new WeakHashMap<>();
+
+    /**
+     * @param classLoader Loader of service classes, its indexes are read on the first call
+     * @return Names of interfaces the class implements, or null if the class is not indexed
+     */
+    public static List<String> getInterfaceNames(ClassLoader classLoader, String serviceClassName) {
+        return getServiceInterfaces(classLoader).get(serviceClassName);
+    }
+
+    private static Map<String, List<String>> getServiceInterfaces(ClassLoader classLoader) {
+        synchronized (serviceInterfaces) {
+            Map<String, List<String>> result = serviceInterfaces.get(classLoader);
+            if (result == null) {
+                result = loadServiceInterfaces(classLoader);
+                serviceInterfaces.put(classLoader, result);
+            }
+            return result;
+        }
+    }
+
+    private static Map<String, List<String>> loadServiceInterfaces(ClassLoader classLoader) {
+        Map<String, List<String>> result = new HashMap<>();
+        try {
+            final Enumeration<URL> indexes = (classLoader != null)
+                    ? classLoader.getResources(SERVICE_INDEX_PATH)
+                    : ClassLoader.getSystemResources(SERVICE_INDEX_PATH);
+            while (indexes.hasMoreElements()) {
+                Properties index = new Properties();
+                try (InputStream stream = indexes.nextElement().openStream();
+                     Reader reader = new InputStreamReader(stream, StandardCharsets.UTF_8)) {
+                    index.load(reader);
+                }
+
+                for (String serviceClassName : index.stringPropertyNames()) {
+                    final String interfaceNames = index.getProperty(serviceClassName).trim();
+                    result.put(serviceClassName, interfaceNames.isEmpty()
+                            ? Collections.<String>emptyList()
+                            : Arrays.asList(interfaceNames.split(",")));
+                }
+            }
+        } catch (IOException exp) {
+            // broken index must not break the container: classes are still able to be scanned at construction
+            return Collections.emptyMap();
+        }
+        return result;
+    }
+}
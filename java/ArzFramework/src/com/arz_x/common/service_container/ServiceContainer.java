@@ -8,6 +8,15 @@ import com.arz_x.common.helpers.Contract;
 import java.lang.reflect.*;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 /**
  * Created by Rihter on 22.11.2015.
@@ -18,6 +27,34 @@ public class ServiceContainer {
     public static class Settings {
         public ServiceInitializationType initializationType;
 
+        /* How service constructors are invoked */
+        public ServiceInstantiationStrategy instantiationStrategy;
+
+        /* Executor (e.g. ForkJoinPool) for concurrent creation of independent services with CreateAllAtStart.
+         * If null services are created one by one in the constructing thread */
+        public Executor initializationExecutor;
+
+        /* If true factories generated by ArzFrameworkProcessor are used instead of reflection when present */
+        public boolean useGeneratedFactories;
+
+        /* If true interfaces of services indexed by ArzFrameworkProcessor are taken from the index
+         * and service classes are loaded only when they are requested */
+        public boolean useServiceIndex;
+
+        /* Class loader of service classes, generated factories and the service index. If null the loader of the framework is used */
+        public ClassLoader classLoader;
+
+        /* If not null collects resolution timings and dependency graph */
+        public ServiceContainerProfiler profiler;
+
+        /* Services from serviceClasses that are created anew on each request (as if marked with TransientLogic).
+         * Each string must be a full class name */
+        public String[] transientServiceClasses;
+
+        /* Services from serviceClasses that are created once per container (as if marked with ScopedLogic).
+         * Each string must be a full class name */
+        public String[] scopedServiceClasses;
+
         /* Target amount of operated services.
          * Each string must be a full class name  */
         public String[] serviceClasses;
@@ -27,6 +64,9 @@ public class ServiceContainer {
 
         public Settings() {
             this.initializationType = ServiceInitializationType.Lazy;
+            this.instantiationStrategy = ServiceInstantiationStrategy.MethodHandles;
+            this.useGeneratedFactories = true;
+            this.useServiceIndex = true;
         }
     }
 
@@ -43,19 +83,88 @@ public class ServiceContainer {
         private final Object service;
     }
 
-    private static int MAX_CLASS_CREATION_DEPTH = 100;
+    /* Arguments of a transient service that are the same for each its creation */
+    private static class TransientSharedArguments {
+        public TransientSharedArguments(Object[] arguments, boolean[] isShared) {
+            this.arguments = arguments;
+            this.isShared = isShared;
+        }
 
-    private Set<String> allowedServiceClasses;
-    private Map<String, Class<?>> interfaceClassMap;
-    private Map<String, ObjectContainer> cacheServiceMap;
+        public final Object[] arguments;
+        public final boolean[] isShared;
+    }
+
+    private static int MAX_CLASS_CREATION_DEPTH = 100;
+    /* Lifecycle interfaces are implemented by many services, so they can't identify a service */
+    private static final Set<String> NOT_MAPPED_INTERFACES = new HashSet<>(Arrays.asList(
+            AutoCloseable.class.getName(), java.io.Closeable.class.getName()));
+
+    /* Not modified after construction, so can be read without locks */
+    private final Set<String> allowedServiceClasses;
+    private final Map<String, ServiceScope> serviceScopeMap;
+    /* Class or interface name to the name of its registered implementation */
+    private final Map<String, String> implementationNameMap;
+    private final Map<String, Integer> serviceSlotIndexes;
+    /* Implementations are loaded on the first request */
+    private final ConcurrentMap<String, Class<?>> implementationClassMap;
+
+    /* Created services by slot index, see ServiceKey */
+    private final AtomicReferenceArray<Object> serviceSlots;
+
+    /* Singletons, shared with all child containers */
+    private final ConcurrentMap<String, ObjectContainer> cacheServiceMap;
+    /* Scoped services of this container only */
+    private final ConcurrentMap<String, ObjectContainer> scopedServiceMap;
+    private final ConcurrentMap<Class<?>, InjectionPlan> injectionPlanMap;
+    private final ConcurrentMap<Class<?>, TransientSharedArguments> transientSharedArgumentsMap;
+    private final ServiceCreationLocks serviceCreationLocks;
+    /* Scoped locks of this container, their waits are checked together with singleton ones */
+    private final ServiceCreationLocks scopedCreationLocks;
+    /* Singletons created by this root container or its children, or scoped services of this child, in creation order */
+    private final Queue<ParallelServiceShutdown.CreatedService> createdServices;
+    /* Singletons being created by getServiceAsync */
+    private final ConcurrentMap<Class<?>, CompletableFuture<Object>> asyncCreationMap;
+    /* Container that creates singletons: this one or the container the child is created from */
+    private final ServiceContainer rootContainer;
+    private final ServiceInstantiationStrategy instantiationStrategy;
+    private final boolean useGeneratedFactories;
+    private final ClassLoader classLoader;
+    private final ServiceContainerProfiler profiler;
+    private ServiceInitializationReport initializationReport;
+    /* Set once by freeze() of the root container */
+    private volatile FrozenServiceTable frozenServices;
 
     public ServiceContainer(Settings settings) {
         Contract.requireNotNull(settings);
-        Contract.requireNotNull(settings.initializationType);
+        Contract.requireNotNull(settings.initializationType, settings.instantiationStrategy);
 
-        this.cacheServiceMap = new HashMap<>();
+        this.cacheServiceMap = new ConcurrentHashMap<>();
+        this.scopedServiceMap = new ConcurrentHashMap<>();
         this.allowedServiceClasses = new HashSet<>();
-        this.interfaceClassMap = new HashMap<>();
+        this.serviceScopeMap = new HashMap<>();
+        this.transientSharedArgumentsMap = new ConcurrentHashMap<>();
+        this.implementationNameMap = new HashMap<>();
+        this.serviceSlotIndexes = new HashMap<>();
+        this.implementationClassMap = new ConcurrentHashMap<>();
+        this.injectionPlanMap = new ConcurrentHashMap<>();
+        this.serviceCreationLocks = new ServiceCreationLocks();
+        this.scopedCreationLocks = new ServiceCreationLocks(this.serviceCreationLocks);
+        this.asyncCreationMap = new ConcurrentHashMap<>();
+        this.createdServices = new ConcurrentLinkedQueue<>();
+        this.rootContainer = this;
+        this.instantiationStrategy = settings.instantiationStrategy;
+        this.useGeneratedFactories = settings.useGeneratedFactories;
+        this.classLoader = (settings.classLoader != null) ? settings.classLoader : ServiceContainer.class.getClassLoader();
+        this.profiler = settings.profiler;
+
+        if (settings.transientServiceClasses != null) {
+            for (String serviceClassName : settings.transientServiceClasses)
+                this.serviceScopeMap.put(serviceClassName, ServiceScope.Transient);
+        }
+        if (settings.scopedServiceClasses != null) {
+            for (String serviceClassName : settings.scopedServiceClasses)
+                this.serviceScopeMap.put(serviceClassName, ServiceScope.Scoped);
+        }
 
         if (settings.serviceClasses != null) {
             this.allowedServiceClasses.addAll(Arrays.asList(settings.serviceClasses));
@@ -63,45 +172,173 @@ public class ServiceContainer {
 
             for (String serviceClassName : settings.serviceClasses) {
                 try {
-                    if (this.interfaceClassMap.containsKey(serviceClassName))
+                    if (this.implementationNameMap.containsKey(serviceClassName))
                         continue;
-                    saveAllClassInterfaceMappings(Class.forName(serviceClassName));
+
+                    final List<String> indexedInterfaceNames = settings.useServiceIndex
+                            ? ServiceClassIndex.getInterfaceNames(this.classLoader, serviceClassName)
+                            : null;
+                    if (indexedInterfaceNames != null)
+                        saveAllClassInterfaceMappings(serviceClassName, indexedInterfaceNames);
+                    else
+                        saveAllClassInterfaceMappings(Class.forName(serviceClassName, true, this.classLoader));
                 } catch (ClassNotFoundException exp) {
                     throw new CommonException(CommonResultCode.NotFound
                             , String.format("Class '%s' is not found", serviceClassName));
                 }
             }
-
-            if (settings.initializationType == ServiceInitializationType.CreateAllAtStart) {
-                for (String serviceClassName : settings.serviceClasses) {
-                    if (getService(serviceClassName) == null)
-                        throw new CommonException(CommonResultCode.NotFound
-                                , String.format("Class '%s\' is not found", serviceClassName));
-                }
-            }
         }
 
+        // injection plans are compiled on the first use, so all mappings must be known before any creation
         if (settings.instantiatedObjects != null) {
-            for (Object obj : settings.instantiatedObjects) {
+            for (Object obj : settings.instantiatedObjects)
                 saveAllClassInterfaceMappings(obj.getClass());
-                cacheServiceMap.put(obj.getClass().getName(), new ObjectContainer(obj));
+        }
+
+        for (String serviceClassName : this.implementationNameMap.values()) {
+            if (!this.serviceSlotIndexes.containsKey(serviceClassName))
+                this.serviceSlotIndexes.put(serviceClassName, this.serviceSlotIndexes.size());
+        }
+        this.serviceSlots = new AtomicReferenceArray<>(this.serviceSlotIndexes.size());
+
+        if (settings.instantiatedObjects != null) {
+            for (Object obj : settings.instantiatedObjects)
+                cacheService(obj.getClass(), ServiceScope.Singleton, new ObjectContainer(obj));
+        }
+
+        if ((settings.serviceClasses != null)
+                && (settings.initializationType == ServiceInitializationType.CreateAllAtStart)
+                && (settings.initializationExecutor != null)) {
+            Set<Class<?>> serviceClasses = new LinkedHashSet<>();
+            for (String serviceClassName : settings.serviceClasses)
+                serviceClasses.add(findImplementationClass(serviceClassName));
+
+            this.initializationReport = new ParallelServiceInitializer(this, settings.initializationExecutor)
+                    .createAll(serviceClasses);
+        }
+        else if ((settings.serviceClasses != null)
+                && (settings.initializationType == ServiceInitializationType.CreateAllAtStart)) {
+            for (String serviceClassName : settings.serviceClasses) {
+                if (getService(serviceClassName) == null)
+                    throw new CommonException(CommonResultCode.NotFound
+                            , String.format("Class '%s\' is not found", serviceClassName));
             }
         }
     }
 
-    public synchronized  <TargetObject> TargetObject getService(Class<TargetObject> objectClass){
+    /**
+     * Constructs child container sharing everything with the parent except scoped services
+     */
+    private ServiceContainer(ServiceContainer parent) {
+        this.allowedServiceClasses = parent.allowedServiceClasses;
+        this.serviceScopeMap = parent.serviceScopeMap;
+        this.implementationNameMap = parent.implementationNameMap;
+        this.serviceSlotIndexes = parent.serviceSlotIndexes;
+        this.implementationClassMap = parent.implementationClassMap;
+        this.serviceSlots = parent.serviceSlots;
+        this.cacheServiceMap = parent.cacheServiceMap;
+        this.injectionPlanMap = parent.injectionPlanMap;
+        this.transientSharedArgumentsMap = parent.transientSharedArgumentsMap;
+        this.serviceCreationLocks = parent.serviceCreationLocks;
+        this.asyncCreationMap = parent.asyncCreationMap;
+        this.instantiationStrategy = parent.instantiationStrategy;
+        this.useGeneratedFactories = parent.useGeneratedFactories;
+        this.classLoader = parent.classLoader;
+        this.profiler = parent.profiler;
+        this.rootContainer = parent.rootContainer;
+
+        this.scopedServiceMap = new ConcurrentHashMap<>(4);
+        this.scopedCreationLocks = new ServiceCreationLocks(parent.serviceCreationLocks);
+        this.createdServices = new ConcurrentLinkedQueue<>();
+    }
+
+    /**
+     * Creates container for a short living scope (e.g. request or task).
+     * The child shares registered classes and singletons with this container
+     * and has its own instances of scoped services. Creation does not load or scan any class
+     */
+    public ServiceContainer createChildContainer() {
+        return new ServiceContainer(this);
+    }
+
+    /**
+     * Creates all registered singletons and switches lookups by class or name to an immutable table.
+     * After that no singleton can be created anymore, transient and scoped services are still created on request
+     */
+    public synchronized void freeze() {
+        if (this.rootContainer != this)
+            throw new CommonException(CommonResultCode.InvalidState, "Only root container can be frozen");
+        if (this.frozenServices != null)
+            throw new CommonException(CommonResultCode.AlreadyDone, "Container is already frozen");
+
+        for (String serviceClassName : new LinkedHashSet<>(this.implementationNameMap.values())) {
+            if (this.cacheServiceMap.containsKey(serviceClassName))
+                continue;
+            final Class<?> serviceClass = findImplementationClass(serviceClassName);
+            if (getInjectionPlan(serviceClass).getScope() == ServiceScope.Singleton)
+                getService(serviceClass);
+        }
+
+        final Map<String, Object> services = new HashMap<>();
+        for (Map.Entry<String, String> entry : this.implementationNameMap.entrySet()) {
+            final ObjectContainer objectContainer = this.cacheServiceMap.get(entry.getValue());
+            if (objectContainer != null)
+                services.put(entry.getKey(), objectContainer.getService());
+        }
+        this.frozenServices = new FrozenServiceTable(services);
+    }
+
+    public boolean isFrozen() {
+        return this.rootContainer.frozenServices != null;
+    }
+
+    /**
+     * Closes AutoCloseable services created by this container: a service is closed only after all services
+     * depending on it, directly, through a lazy proxy or through a transient service.
+     * Independent services are closed concurrently on the executor.
+     * Child container closes only its scoped services. Instantiated objects and transient services
+     * are owned by their creators and are not closed
+     * @param executor Executor to close services on
+     * @param timeout Time to wait for closing of all services
+     * @return true if all services are closed in time
+     */
+    public boolean shutdown(Executor executor, long timeout, TimeUnit unit) {
+        Contract.requireNotNull(executor, unit);
+
+        List<ParallelServiceShutdown.CreatedService> closedServices = new ArrayList<>();
+        ParallelServiceShutdown.CreatedService createdService;
+        while ((createdService = this.createdServices.poll()) != null)
+            closedServices.add(createdService);
+
+        final Function<Class<?>, InjectionPlan> injectionPlanResolver = new Function<Class<?>, InjectionPlan>() {
+            @Override
+            public InjectionPlan apply(Class<?> serviceClass) {
+                return getInjectionPlan(serviceClass);
+            }
+        };
+        return new ParallelServiceShutdown(executor, injectionPlanResolver).closeAll(closedServices, timeout, unit);
+    }
+
+    public <TargetObject> TargetObject getService(Class<TargetObject> objectClass){
         try {
             Objects.requireNonNull(objectClass);
 
+            final FrozenServiceTable frozenServices = this.rootContainer.frozenServices;
+            if (frozenServices != null) {
+                final Object service = frozenServices.get(objectClass.getName());
+                if (service != null)
+                    return castService(service);
+            }
+
             Class<?> searchedClass = objectClass;
             if (objectClass.isInterface()) {
-                final Class<?> implementationClassObject = this.interfaceClassMap.get(objectClass.getName());
+                final Class<?> implementationClassObject = findImplementationClass(objectClass.getName());
                 if (implementationClassObject == null)
                     throw new CommonException(CommonResultCode.NotFound
                             , String.format("No class implementation for interface '%s' is registered", objectClass.getName()));
                 searchedClass = implementationClassObject;
             }
-            return (TargetObject)getInternalService(searchedClass, false, true, null, 0);
+            return castService(getInternalService(searchedClass, false, true, null, 0));
         } catch (ResultCodeException exp) {
             throw exp;
         } catch (Exception exp) {
@@ -109,10 +346,109 @@ public class ServiceContainer {
         }
     }
 
-    public synchronized Object getService(String fullClassName) {
+    /**
+     * Creates service on the executor without blocking the caller.
+     * Not created dependencies are created concurrently in dependency order,
+     * concurrent requests of the same singleton share one creation
+     * @param objectClass Registered class or interface
+     * @param executor Executor to create services on
+     * @return Future completed with the service or with the creation exception
+     */
+    public <TargetObject> CompletableFuture<TargetObject> getServiceAsync(Class<TargetObject> objectClass, final Executor executor) {
+        Contract.requireNotNull(objectClass, executor);
+
+        final Class<?> searchedClass;
+        final Object createdService;
+        try {
+            searchedClass = objectClass.isInterface()
+                    ? findImplementationClass(objectClass.getName())
+                    : objectClass;
+            if (searchedClass == null)
+                throw new CommonException(CommonResultCode.NotFound
+                        , String.format("No class implementation for interface '%s' is registered", objectClass.getName()));
+            createdService = searchInCacheAndCheckForCreation(searchedClass.getName());
+        } catch (ResultCodeException exp) {
+            return failedFuture(exp);
+        }
+        if (createdService != null)
+            return CompletableFuture.completedFuture(ServiceContainer.<TargetObject>castService(createdService));
+
+        if (getInjectionPlan(searchedClass).getScope() != ServiceScope.Singleton)
+            return castService(createServiceAsync(searchedClass, executor));
+
+        CompletableFuture<Object> creation = this.asyncCreationMap.get(searchedClass);
+        if (creation == null) {
+            final CompletableFuture<Object> newCreation = new CompletableFuture<>();
+            creation = this.asyncCreationMap.putIfAbsent(searchedClass, newCreation);
+            if (creation == null) {
+                creation = newCreation;
+                createServiceAsync(searchedClass, executor).whenComplete(new BiConsumer<Object, Throwable>() {
+                    @Override
+                    public void accept(Object service, Throwable exp) {
+                        // the service is already cached, so later requests do not need the future
+                        asyncCreationMap.remove(searchedClass, newCreation);
+                        if (exp != null)
+                            newCreation.completeExceptionally(exp);
+                        else
+                            newCreation.complete(service);
+                    }
+                });
+            }
+        }
+
+        // callers must not be able to complete the shared future
+        return creation.thenApply(new Function<Object, TargetObject>() {
+            @Override
+            public TargetObject apply(Object service) {
+                return castService(service);
+            }
+        });
+    }
+
+    /**
+     * Returns handle for fast lookup of the service in this container
+     * @param objectClass Registered class or interface
+     */
+    public <TargetObject> ServiceKey<TargetObject> getServiceKey(Class<TargetObject> objectClass) {
+        Contract.requireNotNull(objectClass);
+
+        final Class<?> implementationClass = findImplementationClass(objectClass.getName());
+        if (implementationClass == null)
+            throw new CommonException(CommonResultCode.NotFound
+                    , String.format("No class implementation for '%s' is registered", objectClass.getName()));
+
+        return new ServiceKey<>(this, objectClass, implementationClass, this.serviceSlotIndexes.get(implementationClass.getName()));
+    }
+
+    public <TargetObject> TargetObject getService(ServiceKey<TargetObject> serviceKey) {
+        Contract.requireNotNull(serviceKey);
+        if (serviceKey.getServiceContainer().rootContainer != this.rootContainer)
+            throw new CommonException(CommonResultCode.InvalidParameter, "Service key belongs to another container");
+
+        final Object service = this.serviceSlots.get(serviceKey.getSlot());
+        if (service != null)
+            return castService(service);
+        return castService(getService(serviceKey.getImplementationClass()));
+    }
+
+    /**
+     * @return Timings of services creation if they were created concurrently at start, otherwise null
+     */
+    public ServiceInitializationReport getInitializationReport() {
+        return this.initializationReport;
+    }
+
+    public Object getService(String fullClassName) {
         Contract.requireNotNull(fullClassName);
 
-        final Class<?> implementationClass = this.interfaceClassMap.get(fullClassName);
+        final FrozenServiceTable frozenServices = this.rootContainer.frozenServices;
+        if (frozenServices != null) {
+            final Object service = frozenServices.get(fullClassName);
+            if (service != null)
+                return service;
+        }
+
+        final Class<?> implementationClass = findImplementationClass(fullClassName);
         if (implementationClass == null) {
             throw new CommonException(CommonResultCode.NotFound
                     , String.format("No class implementation for '%s' is registered", fullClassName));
@@ -120,6 +456,47 @@ public class ServiceContainer {
         return getService(implementationClass);
     }
 
+    private CompletableFuture<Object> createServiceAsync(final Class<?> serviceClass, Executor executor) {
+        return new ParallelServiceInitializer(this, executor)
+                .createAllAsync(getNotCreatedDependencies(serviceClass))
+                .thenApplyAsync(new Function<ServiceInitializationReport, Object>() {
+                    @Override
+                    public Object apply(ServiceInitializationReport report) {
+                        return getService(serviceClass);
+                    }
+                }, executor);
+    }
+
+    /**
+     * @return Not created singleton and scoped services the service depends on, including itself
+     */
+    private Set<Class<?>> getNotCreatedDependencies(Class<?> serviceClass) {
+        Set<Class<?>> visitedClasses = new HashSet<>();
+        Set<Class<?>> result = new LinkedHashSet<>();
+        Deque<Class<?>> notVisitedClasses = new ArrayDeque<>();
+        notVisitedClasses.add(serviceClass);
+
+        while (!notVisitedClasses.isEmpty()) {
+            final Class<?> dependencyClass = notVisitedClasses.poll();
+            if ((!visitedClasses.add(dependencyClass))
+                    || (!isAllowedServiceCreation(dependencyClass.getName()))
+                    || this.cacheServiceMap.containsKey(dependencyClass.getName())
+                    || this.scopedServiceMap.containsKey(dependencyClass.getName()))
+                continue;
+
+            final InjectionPlan injectionPlan = getInjectionPlan(dependencyClass);
+            // transient services are created by their dependents anyway
+            if (!injectionPlan.isTransient())
+                result.add(dependencyClass);
+            for (int index = 0; index < injectionPlan.getDependencyCount(); ++index) {
+                final Class<?> argumentClass = injectionPlan.getDependencyClass(index);
+                if ((argumentClass != null) && (injectionPlan.getLazyDependencyInterface(index) == null))
+                    notVisitedClasses.add(argumentClass);
+            }
+        }
+        return result;
+    }
+
     private Object getInternalService(Class<?> searchedClassArg, boolean isOptional
             , boolean cacheResult, Set<String> creatingObjects, int searchDepth)
             throws ClassNotFoundException, InstantiationException, IllegalAccessException, InvocationTargetException {
@@ -133,8 +510,11 @@ public class ServiceContainer {
 
         {
             Object resultObject = searchInCacheAndCheckForCreation(searchedClassFullName);
-            if (resultObject != null)
+            if (resultObject != null) {
+                if (this.profiler != null)
+                    this.profiler.onCacheHit(searchedClassFullName);
                 return resultObject;
+            }
         }
 
         // after a while we may not even get here! Make all allocations as lazy as possible
@@ -145,53 +525,192 @@ public class ServiceContainer {
             return throwIfNeeded(isOptional, new CommonException(CommonResultCode.InvalidState
                     , String.format("Circular reference found with class \"%s\"", searchedClassFullName)));
 
-        Constructor<?> matchedConstructor = null;
-        {
-            Constructor<?>[] classConstructors = searchedClassArg.getConstructors();
-            for (Constructor<?> iteratorConstructor : classConstructors) {
-                if (iteratorConstructor.getDeclaredAnnotation(InstantiateConstructor.class) != null) {
-                    matchedConstructor = iteratorConstructor;
-                    break;
-                }
+        final InjectionPlan injectionPlan = getInjectionPlan(searchedClassArg);
+        if (!injectionPlan.hasConstructor())
+            return throwIfNeeded(isOptional, new CommonException(CommonResultCode.NotFound
+                    , String.format("Unable to find InstanceConstructor for \"%s\"", searchedClassFullName)));
+
+        if ((!cacheResult) || (injectionPlan.isTransient()))
+            return createService(injectionPlan, false, creatingObjects, searchDepth);
+
+        // singletons must not capture scoped services of a child
+        if ((!injectionPlan.isScoped()) && (this.rootContainer != this))
+            return this.rootContainer.getInternalService(searchedClassArg, isOptional, cacheResult, creatingObjects, searchDepth);
+
+        final ServiceCreationLocks creationLocks = injectionPlan.isScoped() ? this.scopedCreationLocks : this.serviceCreationLocks;
+        final ConcurrentMap<String, ObjectContainer> serviceMap = injectionPlan.isScoped() ? this.scopedServiceMap : this.cacheServiceMap;
+
+        final ServiceCreationLocks.CreationLock creationLock = creationLocks.getLock(searchedClassFullName);
+        if (!creationLocks.acquire(creationLock))
+            return throwIfNeeded(isOptional, new CommonException(CommonResultCode.InvalidState
+                    , String.format("Circular reference found with class \"%s\" between threads", searchedClassFullName)));
+
+        boolean isCreated = false;
+        try {
+            // another thread may have created the service while we were waiting
+            final ObjectContainer createdObject = serviceMap.get(searchedClassFullName);
+            if (createdObject != null) {
+                if (this.profiler != null)
+                    this.profiler.onCacheHit(searchedClassFullName);
+                return createdObject.getService();
             }
 
-            if (matchedConstructor == null)
-                return throwIfNeeded(isOptional, new CommonException(CommonResultCode.NotFound
-                        , String.format("Unable to find InstanceConstructor for \"%s\"", searchedClassFullName)));
+            final Object resultObject = createService(injectionPlan, cacheResult, creatingObjects, searchDepth);
+            isCreated = true;
+            return resultObject;
+        } finally {
+            if (isCreated)
+                creationLocks.releaseCreated(searchedClassFullName, creationLock);
+            else
+                creationLocks.release(creationLock);
         }
+    }
+
+    private Object createService(InjectionPlan injectionPlan, boolean cacheResult
+            , Set<String> creatingObjects, int searchDepth)
+            throws ClassNotFoundException, InstantiationException, IllegalAccessException, InvocationTargetException {
+        final String searchedClassFullName = injectionPlan.getServiceClassName();
+        final long startTime = (this.profiler != null) ? System.nanoTime() : 0;
         creatingObjects.add(searchedClassFullName);
 
-        final Parameter[] constructorParameters = matchedConstructor.getParameters();
-        final Object[] inputArguments = new Object[constructorParameters.length];
-        for (int parameterIndex = 0; parameterIndex < constructorParameters.length; ++parameterIndex) {
-            final String parameterClassName = constructorParameters[parameterIndex].getType().getName();
-            final boolean isOptionalArgument = constructorParameters[parameterIndex].getAnnotation(OptionalLogic.class) != null;
+        final TransientSharedArguments sharedArguments = injectionPlan.isTransient()
+                ? this.transientSharedArgumentsMap.get(injectionPlan.getServiceClass())
+                : null;
 
-            Class<?> argumentClassObject = this.interfaceClassMap.get(parameterClassName);
+        final Object[] inputArguments = new Object[injectionPlan.getDependencyCount()];
+        for (int parameterIndex = 0; parameterIndex < inputArguments.length; ++parameterIndex) {
+            if ((sharedArguments != null) && (sharedArguments.isShared[parameterIndex])) {
+                inputArguments[parameterIndex] = sharedArguments.arguments[parameterIndex];
+                continue;
+            }
+
+            final boolean isOptionalArgument = injectionPlan.isOptionalDependency(parameterIndex);
+
+            final Class<?> argumentClassObject = injectionPlan.getDependencyClass(parameterIndex);
             if (argumentClassObject == null) {
                 inputArguments[parameterIndex] = throwIfNeeded(isOptionalArgument
                         , new CommonException(CommonResultCode.NotFound
-                                , String.format("Unable to get class implementation for '%s' interface", parameterClassName)));
+                                , String.format("Unable to get class implementation for '%s' interface"
+                                        , injectionPlan.getDependencyTypeName(parameterIndex))));
+            }
+            else if (injectionPlan.getLazyDependencyInterface(parameterIndex) != null) {
+                if (this.profiler != null)
+                    this.profiler.onDependency(searchedClassFullName, argumentClassObject.getName());
+                // proxies of singletons are bound to the root container, so they do not keep a child alive
+                final boolean isSingletonDependency = getInjectionPlan(argumentClassObject).getScope() == ServiceScope.Singleton;
+                inputArguments[parameterIndex] = LazyServiceProxy.create(isSingletonDependency ? this.rootContainer : this
+                        , injectionPlan.getLazyDependencyInterface(parameterIndex)
+                        , argumentClassObject);
             }
             else {
+                if (this.profiler != null)
+                    this.profiler.onDependency(searchedClassFullName, argumentClassObject.getName());
+                // each dependency is cached or not according to its own scope
                 inputArguments[parameterIndex] = getInternalService(argumentClassObject
                         , isOptionalArgument
-                        , cacheResult
+                        , true
                         , creatingObjects
                         , searchDepth + 1);
             }
         }
 
-        final ObjectContainer objectContainer = new ObjectContainer(matchedConstructor.newInstance(inputArguments));
-        if (cacheResult)
-            this.cacheServiceMap.put(searchedClassFullName, objectContainer);
+        final long constructionStartTime = (this.profiler != null) ? System.nanoTime() : 0;
+        final ObjectContainer objectContainer = new ObjectContainer(injectionPlan.getServiceFactory().newInstance(inputArguments));
+        if (this.profiler != null) {
+            final long endTime = System.nanoTime();
+            this.profiler.onCreated(searchedClassFullName, searchDepth, endTime - startTime, endTime - constructionStartTime);
+        }
+        if (cacheResult) {
+            cacheService(injectionPlan.getServiceClass(), injectionPlan.getScope(), objectContainer);
+            // singletons created through a child container or its lazy proxies are owned by the root one
+            final ServiceContainer owner = injectionPlan.isScoped() ? this : this.rootContainer;
+            owner.createdServices.add(new ParallelServiceShutdown.CreatedService(objectContainer.getService(), injectionPlan));
+        }
+        else if ((injectionPlan.isTransient()) && (sharedArguments == null))
+            saveTransientSharedArguments(injectionPlan, inputArguments);
 
         creatingObjects.remove(searchedClassFullName);
         return objectContainer.getService();
     }
 
+    /**
+     * Remembers arguments that do not have to be resolved again for the next creation of transient service:
+     * singletons, lazy proxies of singletons and not registered dependencies.
+     * Arguments are shared with all child containers, so nothing bound to a child is remembered
+     */
+    private void saveTransientSharedArguments(InjectionPlan injectionPlan, Object[] inputArguments) {
+        boolean[] isShared = new boolean[inputArguments.length];
+        for (int parameterIndex = 0; parameterIndex < inputArguments.length; ++parameterIndex) {
+            final Class<?> argumentClassObject = injectionPlan.getDependencyClass(parameterIndex);
+            if (argumentClassObject == null)
+                isShared[parameterIndex] = true;
+            else if (inputArguments[parameterIndex] == null)
+                isShared[parameterIndex] = false; // optional dependency might be resolved next time
+            else
+                isShared[parameterIndex] = getInjectionPlan(argumentClassObject).getScope() == ServiceScope.Singleton;
+        }
+        this.transientSharedArgumentsMap.putIfAbsent(injectionPlan.getServiceClass()
+                , new TransientSharedArguments(inputArguments.clone(), isShared));
+    }
+
+    private void cacheService(Class<?> serviceClass, ServiceScope scope, ObjectContainer objectContainer) {
+        if (scope == ServiceScope.Scoped) {
+            this.scopedServiceMap.put(serviceClass.getName(), objectContainer);
+            return;
+        }
+        if (this.rootContainer.frozenServices != null)
+            throw new CommonException(CommonResultCode.InvalidState
+                    , String.format("Container is frozen, service '%s' can't be registered", serviceClass.getName()));
+
+        this.cacheServiceMap.put(serviceClass.getName(), objectContainer);
+
+        final Integer slotIndex = this.serviceSlotIndexes.get(serviceClass.getName());
+        if (slotIndex != null)
+            this.serviceSlots.set(slotIndex, objectContainer.getService());
+    }
+
+    InjectionPlan getInjectionPlan(Class<?> serviceClass) {
+        InjectionPlan injectionPlan = this.injectionPlanMap.get(serviceClass);
+        if (injectionPlan == null) {
+            // plans are immutable, so compiling the same plan twice by racing threads is harmless
+            IGeneratedServiceFactory generatedFactory = this.useGeneratedFactories
+                    ? GeneratedServiceFactories.getFactory(this.classLoader, serviceClass.getName())
+                    : null;
+            // a class of the same name from another loader (e.g. instantiatedObjects) is created through reflection
+            if ((generatedFactory != null) && (generatedFactory.getServiceClass() != serviceClass))
+                generatedFactory = null;
+            final ServiceScope scope = getServiceScope(serviceClass);
+            final Function<String, Class<?>> implementationResolver = new Function<String, Class<?>>() {
+                @Override
+                public Class<?> apply(String className) {
+                    return findImplementationClass(className);
+                }
+            };
+            injectionPlan = (generatedFactory != null)
+                    ? InjectionPlan.compile(serviceClass, generatedFactory, implementationResolver, scope)
+                    : InjectionPlan.compile(serviceClass, implementationResolver, this.instantiationStrategy, scope);
+            final InjectionPlan previousPlan = this.injectionPlanMap.putIfAbsent(serviceClass, injectionPlan);
+            if (previousPlan != null)
+                injectionPlan = previousPlan;
+        }
+        return injectionPlan;
+    }
+
+    private ServiceScope getServiceScope(Class<?> serviceClass) {
+        final ServiceScope scope = this.serviceScopeMap.get(serviceClass.getName());
+        if (scope != null)
+            return scope;
+        if (serviceClass.isAnnotationPresent(TransientLogic.class))
+            return ServiceScope.Transient;
+        if (serviceClass.isAnnotationPresent(ScopedLogic.class))
+            return ServiceScope.Scoped;
+        return ServiceScope.Singleton;
+    }
+
     private Object searchInCacheAndCheckForCreation(String fullClassName) {
-        final ObjectContainer objectIterator = this.cacheServiceMap.get(fullClassName);
+        ObjectContainer objectIterator = this.cacheServiceMap.get(fullClassName);
+        if (objectIterator == null)
+            objectIterator = this.scopedServiceMap.get(fullClassName);
         if (objectIterator != null) {
             final Object resultService = objectIterator.getService();
             if (!resultService.getClass().getName().equals(fullClassName))
@@ -205,28 +724,58 @@ public class ServiceContainer {
     }
 
     private void saveAllClassInterfaceMappings(Class<?> serviceClass) {
-        final String serviceClassName = serviceClass.getName();
-        this.interfaceClassMap.put(serviceClassName, serviceClass);
+        this.implementationClassMap.put(serviceClass.getName(), serviceClass);
 
         List<Class<?>> classInterfaces = new ArrayList<>();
         getAllClassInterfaces(serviceClass, classInterfaces);
 
-        // Starting from java 1.8 interfaces can inherit each other, so there may be repeats
-        Set<String> classInterfacesNames = new HashSet<>();
+        List<String> classInterfacesNames = new ArrayList<>();
         for (Class<?> classInterface : classInterfaces)
             classInterfacesNames.add(classInterface.getName());
 
+        saveAllClassInterfaceMappings(serviceClass.getName(), classInterfacesNames);
+    }
+
+    private void saveAllClassInterfaceMappings(String serviceClassName, Collection<String> interfaceNames) {
+        this.implementationNameMap.put(serviceClassName, serviceClassName);
+
+        // Starting from java 1.8 interfaces can inherit each other, so there may be repeats
+        Set<String> classInterfacesNames = new HashSet<>(interfaceNames);
+        classInterfacesNames.removeAll(NOT_MAPPED_INTERFACES);
         for (String interfaceName : classInterfacesNames) {
-            final Class<?> previousClassRealization = this.interfaceClassMap.put(interfaceName, serviceClass);
+            final String previousClassRealization = this.implementationNameMap.put(interfaceName, serviceClassName);
             if (previousClassRealization != null)
                 throw new CommonException(CommonResultCode.InvalidState
                         , String.format("Classes '%s' and '%s' both realize same interface '%s'"
-                        , previousClassRealization.getName()
+                        , previousClassRealization
                         , serviceClassName
                         , interfaceName));
         }
     }
 
+    /**
+     * Loads registered implementation on the first request
+     * @param className Class or interface name
+     * @return Registered implementation or null if there is no one
+     */
+    private Class<?> findImplementationClass(String className) {
+        final String implementationName = this.implementationNameMap.get(className);
+        if (implementationName == null)
+            return null;
+
+        Class<?> implementationClass = this.implementationClassMap.get(implementationName);
+        if (implementationClass == null) {
+            try {
+                implementationClass = Class.forName(implementationName, true, this.classLoader);
+            } catch (ClassNotFoundException exp) {
+                throw new CommonException(CommonResultCode.NotFound
+                        , String.format("Class '%s' is not found", implementationName));
+            }
+            this.implementationClassMap.putIfAbsent(implementationName, implementationClass);
+        }
+        return implementationClass;
+    }
+
     private boolean isAllowedServiceCreation(String serviceName) {
         return (this.allowedServiceClasses == null) || this.allowedServiceClasses.contains(serviceName);
     }
@@ -239,6 +788,20 @@ public class ServiceContainer {
         }
     }
 
+    /**
+     * The only unchecked cast of returned services to the requested type
+     */
+    @SuppressWarnings("unchecked")
+    private static <TargetObject> TargetObject castService(Object service) {
+        return (TargetObject) service;
+    }
+
+    private static <TargetObject> CompletableFuture<TargetObject> failedFuture(RuntimeException exp) {
+        final CompletableFuture<TargetObject> result = new CompletableFuture<>();
+        result.completeExceptionally(exp);
+        return result;
+    }
+
     private static Object throwIfNeeded(boolean isOptional, RuntimeException exp) {
         if (!isOptional)
             throw exp;
@@ -0,0 +1,180 @@
+package com.arz_x.common.service_container;
+
+import com.arz_x.common.helpers.Contract;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Created by Rihter on 19.10.2026.
+ * Collects services resolution statistics of a ServiceContainer
+ * and exports dependency graph annotated with timings.
+ * Pass it in ServiceContainer.Settings.profiler. Thread safe
+ */
+public class ServiceContainerProfiler {
+    public static class ServiceProfile {
+        private final String serviceClassName;
+        private final AtomicLong cacheHits = new AtomicLong();
+        private final AtomicLong creations = new AtomicLong();
+        private final Set<String> dependencies = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+        private volatile long totalTimeNanos;
+        private volatile long constructionTimeNanos;
+        private volatile int creationDepth = -1;
+
+        ServiceProfile(String serviceClassName) {
+            this.serviceClassName = serviceClassName;
+        }
+
+        public String getServiceClassName() {
+            return this.serviceClassName;
+        }
+
+        /**
+         * @return Amount of requests served from the cache
+         */
+        public long getCacheHits() {
+            return this.cacheHits.get();
+        }
+
+        public long getCreations() {
+            return this.creations.get();
+        }
+
+        /**
+         * @return Wall time of the last creation including creation of not cached dependencies
+         */
+        public long getTotalTimeNanos() {
+            return this.totalTimeNanos;
+        }
+
+        /**
+         * @return Wall time of the last constructor invocation only
+         */
+        public long getConstructionTimeNanos() {
+            return this.constructionTimeNanos;
+        }
+
+        /**
+         * @return Resolution depth of the last creation, 0 for requested directly. -1 if never created
+         */
+        public int getCreationDepth() {
+            return this.creationDepth;
+        }
+
+        public Set<String> getDependencies() {
+            return Collections.unmodifiableSet(new TreeSet<>(this.dependencies));
+        }
+    }
+
+    private final ConcurrentMap<String, ServiceProfile> profiles = new ConcurrentHashMap<>();
+
+    public Collection<ServiceProfile> getProfiles() {
+        return Collections.unmodifiableCollection(new ArrayList<>(this.profiles.values()));
+    }
+
+    public ServiceProfile getProfile(String serviceClassName) {
+        return this.profiles.get(serviceClassName);
+    }
+
+    public void clear() {
+        this.profiles.clear();
+    }
+
+    void onCacheHit(String serviceClassName) {
+        getOrCreateProfile(serviceClassName).cacheHits.incrementAndGet();
+    }
+
+    void onDependency(String serviceClassName, String dependencyClassName) {
+        getOrCreateProfile(serviceClassName).dependencies.add(dependencyClassName);
+    }
+
+    void onCreated(String serviceClassName, int depth, long totalTimeNanos, long constructionTimeNanos) {
+        final ServiceProfile profile = getOrCreateProfile(serviceClassName);
+        profile.creations.incrementAndGet();
+        profile.creationDepth = depth;
+        profile.totalTimeNanos = totalTimeNanos;
+        profile.constructionTimeNanos = constructionTimeNanos;
+    }
+
+    /**
+     * Exports dependency graph in Graphviz format. Edges go from a service to its dependencies
+     */
+    public String exportDot() {
+        StringBuilder result = new StringBuilder("digraph services {\n");
+        for (ServiceProfile profile : getSortedProfiles()) {
+            result.append(String.format(Locale.ROOT, "    \"%s\" [label=\"%s\\ntotal: %.3f ms\\nconstructor: %.3f ms\\ncache hits: %d\"];\n"
+                    , escape(profile.getServiceClassName())
+                    , escape(profile.getServiceClassName())
+                    , toMilliseconds(profile.getTotalTimeNanos())
+                    , toMilliseconds(profile.getConstructionTimeNanos())
+                    , profile.getCacheHits()));
+            for (String dependency : profile.getDependencies())
+                result.append(String.format("    \"%s\" -> \"%s\";\n", escape(profile.getServiceClassName()), escape(dependency)));
+        }
+        return result.append("}\n").toString();
+    }
+
+    /**
+     * Exports dependency graph as JSON array of services with their timings and dependencies
+     */
+    public String exportJson() {
+        StringBuilder result = new StringBuilder("[");
+        boolean isFirstProfile = true;
+        for (ServiceProfile profile : getSortedProfiles()) {
+            result.append(isFirstProfile ? "\n" : ",\n");
+            isFirstProfile = false;
+
+            result.append(String.format("  {\"service\": \"%s\", \"totalTimeNanos\": %d, \"constructionTimeNanos\": %d"
+                            + ", \"creationDepth\": %d, \"creations\": %d, \"cacheHits\": %d, \"dependencies\": ["
+                    , escape(profile.getServiceClassName())
+                    , profile.getTotalTimeNanos()
+                    , profile.getConstructionTimeNanos()
+                    , profile.getCreationDepth()
+                    , profile.getCreations()
+                    , profile.getCacheHits()));
+
+            boolean isFirstDependency = true;
+            for (String dependency : profile.getDependencies()) {
+                result.append(isFirstDependency ? "" : ", ").append('"').append(escape(dependency)).append('"');
+                isFirstDependency = false;
+            }
+            result.append("]}");
+        }
+        return result.append("\n]\n").toString();
+    }
+
+    private ServiceProfile getOrCreateProfile(String serviceClassName) {
+        ServiceProfile profile = this.profiles.get(serviceClassName);
+        if (profile == null) {
+            final ServiceProfile newProfile = new ServiceProfile(serviceClassName);
+            profile = this.profiles.putIfAbsent(serviceClassName, newProfile);
+            if (profile == null)
+                profile = newProfile;
+        }
+        return profile;
+    }
+
+    private List<ServiceProfile> getSortedProfiles() {
+        List<ServiceProfile> result = new ArrayList<>(this.profiles.values());
+        Collections.sort(result, new Comparator<ServiceProfile>() {
+            @Override
+            public int compare(ServiceProfile profile1, ServiceProfile profile2) {
+                return profile1.getServiceClassName().compareTo(profile2.getServiceClassName());
+            }
+        });
+        return result;
+    }
+
+    private static double toMilliseconds(long nanoseconds) {
+        return nanoseconds / 1000_000.0;
+    }
+
+    /* Both DOT and JSON strings use the same escaping of quotes and backslashes */
+    private static String escape(String value) {
+        Contract.requireNotNull(value);
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
@@ -0,0 +1,112 @@
+package com.arz_x.common.service_container;
+
+import com.arz_x.CommonException;
+import com.arz_x.CommonResultCode;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Created by Rihter on 19.10.2026.
+ * Per service locks used only while a service is created for the first time.
+ *
+ * Services are created along dependency edges, so two threads may wait for each other
+ * if the services have (optional) circular references. Such waits are detected
+ * through the graph "thread -> awaited lock -> lock owner" and reported as failed acquisition.
+ * Locks of scoped services are kept per container, but all containers of one root register
+ * waiting threads in the same graph, so cycles between singleton and scoped creation are detected too
+ */
+class ServiceCreationLocks {
+    static class CreationLock extends ReentrantLock {
+        private static final long serialVersionUID = 1L;
+
+        Thread getOwnerThread() {
+            return getOwner();
+        }
+    }
+
+    private static final long WAIT_CYCLE_CHECK_INTERVAL_MS = 10;
+
+    private final ConcurrentMap<String, CreationLock> locks;
+    /* Shared by all locks of one root container */
+    private final ConcurrentMap<Thread, CreationLock> waitingThreads;
+
+    ServiceCreationLocks() {
+        this.locks = new ConcurrentHashMap<>();
+        this.waitingThreads = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Creates locks of another scope, which waits are checked together with waits of sharedWaitsLocks
+     */
+    ServiceCreationLocks(ServiceCreationLocks sharedWaitsLocks) {
+        this.locks = new ConcurrentHashMap<>(4);
+        this.waitingThreads = sharedWaitsLocks.waitingThreads;
+    }
+
+    public CreationLock getLock(String serviceName) {
+        CreationLock lock = this.locks.get(serviceName);
+        if (lock == null) {
+            final CreationLock newLock = new CreationLock();
+            lock = this.locks.putIfAbsent(serviceName, newLock);
+            if (lock == null)
+                lock = newLock;
+        }
+        return lock;
+    }
+
+    /**
+     * Acquires lock of the service
+     * @return False if waiting for the lock would never end due to circular waiting between threads
+     */
+    public boolean acquire(CreationLock lock) {
+        if (lock.tryLock())
+            return true;
+
+        final Thread currentThread = Thread.currentThread();
+        this.waitingThreads.put(currentThread, lock);
+        try {
+            while (!lock.tryLock(WAIT_CYCLE_CHECK_INTERVAL_MS, TimeUnit.MILLISECONDS)) {
+                if (isWaitCycle(currentThread, lock))
+                    return false;
+            }
+            return true;
+        } catch (InterruptedException exp) {
+            currentThread.interrupt();
+            throw new CommonException(CommonResultCode.InvalidState, "Interrupted while waiting for service creation");
+        } finally {
+            this.waitingThreads.remove(currentThread);
+        }
+    }
+
+    /**
+     * Releases lock and forgets it as the service is created and cached already
+     */
+    public void releaseCreated(String serviceName, CreationLock lock) {
+        this.locks.remove(serviceName, lock);
+        lock.unlock();
+    }
+
+    public void release(CreationLock lock) {
+        lock.unlock();
+    }
+
+    private boolean isWaitCycle(Thread currentThread, CreationLock awaitedLock) {
+        CreationLock lock = awaitedLock;
+        // each thread waits for at most one lock, so the walk is bounded by amount of waiting threads
+        for (int step = 0; step <= this.waitingThreads.size(); ++step) {
+            final Thread owner = lock.getOwnerThread();
+            if (owner == null)
+                return false;
+            if (owner == currentThread)
+                return true;
+
+            lock = this.waitingThreads.get(owner);
+            if (lock == null)
+                return false;
+        }
+        return false;
+    }
+}
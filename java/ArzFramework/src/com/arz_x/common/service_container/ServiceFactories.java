@@ -0,0 +1,132 @@
+package com.arz_x.common.service_container;
+
+import com.arz_x.CommonException;
+import com.arz_x.CommonResultCode;
+import com.arz_x.common.helpers.Contract;
+
+import java.lang.invoke.*;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.function.Supplier;
+
+/**
+ * Created by Rihter on 19.10.2026.
+ * Creates IServiceFactory for constructors according to ServiceInstantiationStrategy
+ */
+public class ServiceFactories {
+    private static class ReflectionServiceFactory implements IServiceFactory {
+        private final Constructor<?> constructor;
+
+        public ReflectionServiceFactory(Constructor<?> constructor) {
+            this.constructor = constructor;
+        }
+
+        @Override
+        public Object newInstance(Object[] arguments) throws InstantiationException, IllegalAccessException, InvocationTargetException {
+            return this.constructor.newInstance(arguments);
+        }
+    }
+
+    private static class MethodHandleServiceFactory implements IServiceFactory {
+        /* (Object[])Object */
+        private final MethodHandle constructorHandle;
+
+        public MethodHandleServiceFactory(MethodHandle constructorHandle) {
+            this.constructorHandle = constructorHandle;
+        }
+
+        @Override
+        public Object newInstance(Object[] arguments) throws InvocationTargetException {
+            try {
+                return this.constructorHandle.invokeExact(arguments);
+            } catch (Throwable exp) {
+                // keep the same contract as Constructor.newInstance
+                throw new InvocationTargetException(exp);
+            }
+        }
+    }
+
+    private static class SupplierServiceFactory implements IServiceFactory {
+        private final Supplier<?> supplier;
+
+        public SupplierServiceFactory(Supplier<?> supplier) {
+            this.supplier = supplier;
+        }
+
+        @Override
+        public Object newInstance(Object[] arguments) throws InvocationTargetException {
+            try {
+                return this.supplier.get();
+            } catch (Throwable exp) {
+                throw new InvocationTargetException(exp);
+            }
+        }
+    }
+
+    private static final MethodType SUPPLIER_FACTORY_TYPE = MethodType.methodType(Supplier.class);
+    private static final MethodType SUPPLIER_GET_TYPE = MethodType.methodType(Object.class);
+    private static final MethodType SPREAD_CONSTRUCTOR_TYPE = MethodType.methodType(Object.class, Object[].class);
+
+    public static IServiceFactory createFactory(Constructor<?> constructor, ServiceInstantiationStrategy strategy) {
+        Contract.requireNotNull(constructor, strategy);
+
+        switch (strategy) {
+            case Reflection:
+                return new ReflectionServiceFactory(constructor);
+            case MethodHandles:
+                return createMethodHandleFactory(constructor);
+            default:
+                throw new CommonException(CommonResultCode.InvalidParameter);
+        }
+    }
+
+    private static IServiceFactory createMethodHandleFactory(Constructor<?> constructor) {
+        final MethodHandle constructorHandle;
+        try {
+            constructorHandle = MethodHandles.publicLookup().unreflectConstructor(constructor);
+        } catch (IllegalAccessException exp) {
+            // no access through the public lookup: reflection is still able to do the work
+            return new ReflectionServiceFactory(constructor);
+        }
+
+        if (constructor.getParameterCount() == 0) {
+            final IServiceFactory supplierFactory = tryCreateSupplierFactory(constructor.getDeclaringClass(), constructorHandle);
+            if (supplierFactory != null)
+                return supplierFactory;
+        }
+
+        return new MethodHandleServiceFactory(constructorHandle
+                .asSpreader(Object[].class, constructor.getParameterCount())
+                .asType(SPREAD_CONSTRUCTOR_TYPE));
+    }
+
+    /**
+     * Generates Supplier lambda calling default constructor directly, so JIT may inline it as plain 'new'
+     * @return null if lambda can not be generated for this class
+     */
+    private static IServiceFactory tryCreateSupplierFactory(Class<?> serviceClass, MethodHandle constructorHandle) {
+        // generated lambda refers to the class by name, so it fails on the first call if the class is loaded by another loader
+        if (!isVisibleFromFramework(serviceClass))
+            return null;
+
+        try {
+            final CallSite callSite = LambdaMetafactory.metafactory(MethodHandles.lookup()
+                    , "get"
+                    , SUPPLIER_FACTORY_TYPE
+                    , SUPPLIER_GET_TYPE
+                    , constructorHandle
+                    , MethodType.methodType(serviceClass));
+            return new SupplierServiceFactory((Supplier<?>) callSite.getTarget().invoke());
+        } catch (Throwable exp) {
+            return null;
+        }
+    }
+
+    private static boolean isVisibleFromFramework(Class<?> serviceClass) {
+        try {
+            return Class.forName(serviceClass.getName(), false, ServiceFactories.class.getClassLoader()) == serviceClass;
+        } catch (ClassNotFoundException | LinkageError exp) {
+            return false;
+        }
+    }
+}
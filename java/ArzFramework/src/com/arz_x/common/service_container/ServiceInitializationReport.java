@@ -0,0 +1,54 @@
+package com.arz_x.common.service_container;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Created by Rihter on 19.10.2026.
+ * Timings of parallel services creation at container start
+ */
+public class ServiceInitializationReport {
+    private final long totalTimeNanos;
+    private final long criticalPathTimeNanos;
+    private final List<String> criticalPath;
+    private final Map<String, Long> serviceCreationTimeNanos;
+
+    ServiceInitializationReport(long totalTimeNanos
+            , long criticalPathTimeNanos
+            , List<String> criticalPath
+            , Map<String, Long> serviceCreationTimeNanos) {
+        this.totalTimeNanos = totalTimeNanos;
+        this.criticalPathTimeNanos = criticalPathTimeNanos;
+        this.criticalPath = Collections.unmodifiableList(criticalPath);
+        this.serviceCreationTimeNanos = Collections.unmodifiableMap(serviceCreationTimeNanos);
+    }
+
+    /**
+     * @return Wall time of all services creation
+     */
+    public long getTotalTimeNanos() {
+        return this.totalTimeNanos;
+    }
+
+    /**
+     * @return Sum of creation times of the services in the critical path
+     */
+    public long getCriticalPathTimeNanos() {
+        return this.criticalPathTimeNanos;
+    }
+
+    /**
+     * @return The longest by time dependency chain, from the first created service to the last one
+     */
+    public List<String> getCriticalPath() {
+        return this.criticalPath;
+    }
+
+    /**
+     * @return Creation time of each service excluding its dependencies
+     */
+    public Map<String, Long> getServiceCreationTimeNanos() {
+        return this.serviceCreationTimeNanos;
+    }
+}
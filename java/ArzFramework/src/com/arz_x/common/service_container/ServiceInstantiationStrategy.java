@@ -0,0 +1,12 @@
+package com.arz_x.common.service_container;
+
+/**
+ * Created by Rihter on 19.10.2026.
+ * Specifies how to invoke service constructors
+ */
+public enum ServiceInstantiationStrategy {
+    /* Constructor.newInstance on each creation */
+    Reflection,
+    /* Constructor is turned once into a MethodHandle or a generated lambda */
+    MethodHandles,
+}
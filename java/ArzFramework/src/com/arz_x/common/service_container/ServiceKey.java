@@ -0,0 +1,41 @@
+package com.arz_x.common.service_container;
+
+/**
+ * Created by Rihter on 19.10.2026.
+ * Typed handle of a service inside one ServiceContainer.
+ * Get it once with ServiceContainer.getServiceKey and keep it: lookup by key is a single array read
+ */
+public final class ServiceKey<TargetObject> {
+    private final ServiceContainer serviceContainer;
+    private final Class<TargetObject> serviceType;
+    private final Class<?> implementationClass;
+    private final int slot;
+
+    ServiceKey(ServiceContainer serviceContainer, Class<TargetObject> serviceType, Class<?> implementationClass, int slot) {
+        this.serviceContainer = serviceContainer;
+        this.serviceType = serviceType;
+        this.implementationClass = implementationClass;
+        this.slot = slot;
+    }
+
+    public Class<TargetObject> getServiceType() {
+        return this.serviceType;
+    }
+
+    ServiceContainer getServiceContainer() {
+        return this.serviceContainer;
+    }
+
+    Class<?> getImplementationClass() {
+        return this.implementationClass;
+    }
+
+    int getSlot() {
+        return this.slot;
+    }
+
+    @Override
+    public String toString() {
+        return "ServiceKey[" + this.serviceType.getName() + "]";
+    }
+}
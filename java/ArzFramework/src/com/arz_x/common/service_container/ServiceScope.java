@@ -0,0 +1,14 @@
+package com.arz_x.common.service_container;
+
+/**
+ * Created by Rihter on 19.10.2026.
+ * Specifies how long created service lives
+ */
+public enum ServiceScope {
+    /* Created once and shared by the container and all its child containers */
+    Singleton,
+    /* Created anew on each request */
+    Transient,
+    /* Created once per container: each child container has its own instance */
+    Scoped,
+}
@@ -0,0 +1,15 @@
+package com.arz_x.common.service_container;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Created by Rihter on 19.10.2026.
+ * Marks service class that is created anew on each request instead of being cached
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface TransientLogic {
+}
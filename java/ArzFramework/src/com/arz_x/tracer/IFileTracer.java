@@ -2,7 +2,8 @@ package com.arz_x.tracer;
 
 /**
  * Created by Rihter on 07.01.2016.
- * Additional interface for file tracers
+ * Additional interface for file tracers.
+ * ProductTracer calls a file tracer from one thread at a time unless it implements IThreadSafeFileTracer
  */
 public interface IFileTracer extends ITracer {
     void openNewFile(String filepath);
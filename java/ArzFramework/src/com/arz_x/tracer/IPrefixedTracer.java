@@ -0,0 +1,10 @@
+package com.arz_x.tracer;
+
+/**
+ * Created by Rihter on 19.10.2026.
+ * Tracer which writes component prefix by its own layout,
+ * so PrefixTracer passes the prefix instead of building a prefixed message
+ */
+public interface IPrefixedTracer extends ITracer {
+    void traceMessage(TraceLevel traceLevel, String prefix, String message);
+}
@@ -0,0 +1,9 @@
+package com.arz_x.tracer;
+
+/**
+ * Created by Rihter on 19.10.2026.
+ * Marks file tracer whose traceMessage and getFileSize may be called from several threads at once.
+ * ProductTracer calls other file tracers from one thread at a time
+ */
+public interface IThreadSafeFileTracer extends IFileTracer {
+}
@@ -0,0 +1,15 @@
+package com.arz_x.tracer;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Created by Rihter on 19.10.2026.
+ * Sequential reader of trace records
+ */
+public interface ITraceRecordReader extends Closeable {
+    /**
+     * @return Next record, null at the end
+     */
+    TraceRecord readRecord() throws IOException;
+}
@@ -0,0 +1,107 @@
+package com.arz_x.tracer;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Created by Rihter on 19.10.2026.
+ * K-way merge of readers which are ordered by time each, into a single stream ordered by time.
+ * Records with the same time keep the order of the readers
+ */
+public class MergingTraceReader implements ITraceRecordReader {
+
+    private static class ReaderHead {
+        final ITraceRecordReader reader;
+        final int readerIndex;
+        TraceRecord record;
+
+        ReaderHead(ITraceRecordReader reader, int readerIndex) {
+            this.reader = reader;
+            this.readerIndex = readerIndex;
+        }
+    }
+
+    private final List<ITraceRecordReader> readers;
+    private final PriorityQueue<ReaderHead> readerHeads;
+    private boolean isStarted;
+
+    public MergingTraceReader(List<? extends ITraceRecordReader> readers) {
+        this.readers = new ArrayList<>(readers);
+        this.readerHeads = new PriorityQueue<>(Math.max(1, readers.size()), new Comparator<ReaderHead>() {
+            @Override
+            public int compare(ReaderHead first, ReaderHead second) {
+                final int timeComparison = Long.compare(first.record.getTimeMillis(), second.record.getTimeMillis());
+                return (timeComparison != 0) ? timeComparison : Integer.compare(first.readerIndex, second.readerIndex);
+            }
+        });
+    }
+
+    /**
+     * Reads all shards of a logical trace file written by ShardedFileTracer, or a single trace file
+     */
+    public static MergingTraceReader openTraceFile(File logicalFile, Charset charset) throws IOException {
+        return openTraceFile(logicalFile, charset, Long.MIN_VALUE);
+    }
+
+    /**
+     * Reads shards from the given time if they have TraceFileIndex, some earlier records may be read as well
+     */
+    public static MergingTraceReader openTraceFile(File logicalFile, Charset charset, long fromTimeMillis) throws IOException {
+        List<ITraceRecordReader> readers = new ArrayList<>();
+        try {
+            for (File shardFile : TraceFileSet.getExistingFiles(logicalFile))
+                readers.add(new TraceFileReader(shardFile, charset, fromTimeMillis));
+        } catch (IOException exp) {
+            closeAll(readers);
+            throw exp;
+        }
+        return new MergingTraceReader(readers);
+    }
+
+    @Override
+    public TraceRecord readRecord() throws IOException {
+        if (!this.isStarted) {
+            this.isStarted = true;
+            for (int readerIndex = 0; readerIndex < this.readers.size(); ++readerIndex)
+                advance(new ReaderHead(this.readers.get(readerIndex), readerIndex));
+        }
+
+        final ReaderHead readerHead = this.readerHeads.poll();
+        if (readerHead == null)
+            return null;
+
+        final TraceRecord record = readerHead.record;
+        advance(readerHead);
+        return record;
+    }
+
+    @Override
+    public void close() throws IOException {
+        closeAll(this.readers);
+    }
+
+    private void advance(ReaderHead readerHead) throws IOException {
+        readerHead.record = readerHead.reader.readRecord();
+        if (readerHead.record != null)
+            this.readerHeads.add(readerHead);
+    }
+
+    private static void closeAll(List<? extends ITraceRecordReader> readers) throws IOException {
+        IOException closeException = null;
+        for (ITraceRecordReader reader : readers) {
+            try {
+                reader.close();
+            } catch (IOException exp) {
+                if (closeException == null)
+                    closeException = exp;
+            }
+        }
+        if (closeException != null)
+            throw closeException;
+    }
+}
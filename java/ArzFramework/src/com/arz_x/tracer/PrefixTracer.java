@@ -4,7 +4,8 @@ import com.arz_x.common.helpers.Contract;
 
 /**
  * Created by Rihter on 07.01.2016.
- * Adds "[prefix]\t" to each trace message
+ * Adds "[prefix]\t" to each trace message.
+ * Tracers with own layout (IPrefixedTracer) get the prefix apart and write it as their layout says
  */
 public class PrefixTracer implements ITracer {
 
@@ -13,17 +14,24 @@ public class PrefixTracer implements ITracer {
     }
 
     private ITracer wrappedTracer;
+    private IPrefixedTracer wrappedPrefixedTracer;
     private String componentPrefix;
+    private String messagePrefix;
 
     private PrefixTracer(ITracer tracer, String componentPrefix) {
         Contract.requireNotNull(tracer);
         Contract.requireStringNotNullOrEmpty(componentPrefix);
 
         this.wrappedTracer = tracer;
+        this.wrappedPrefixedTracer = (tracer instanceof IPrefixedTracer) ? (IPrefixedTracer) tracer : null;
         this.componentPrefix = componentPrefix;
+        this.messagePrefix = "[" + componentPrefix + "]\t";
     }
 
     public void traceMessage(TraceLevel traceLevel, String message) {
-        this.wrappedTracer.traceMessage(traceLevel, String.format("[%s]\t%s", this.componentPrefix, message));
+        if (this.wrappedPrefixedTracer != null)
+            this.wrappedPrefixedTracer.traceMessage(traceLevel, this.componentPrefix, message);
+        else
+            this.wrappedTracer.traceMessage(traceLevel, this.messagePrefix + message);
     }
 }
@@ -9,6 +9,9 @@ import java.io.File;
 import java.io.FilenameFilter;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * Created by Rihter on 27.04.2015.
@@ -20,7 +23,7 @@ import java.util.*;
  * - delete old trace files
  * - reopen the same trace file
  */
-public class ProductTracer implements ITracer, Closeable {
+public class ProductTracer implements IPrefixedTracer, Closeable {
 
     public static class Settings {
         public static final long DEFAULT_SIZE = 64 * 1024L;
@@ -44,8 +47,8 @@ public class ProductTracer implements ITracer, Closeable {
         public long maxTraceFilesSumSize;
     }
 
-    private static final String PROCESSING_FILE_TRACE_PREFIX = "_progress_";
-    private static final String TRACE_FILE_PREFIX = "trace_";
+    static final String PROCESSING_FILE_TRACE_PREFIX = "_progress_";
+    static final String TRACE_FILE_PREFIX = "trace_";
     private static final String TRACE_FILE_EXTENSION = ".log";
     private static final String TRACE_FILE_NAME_PATTERN = PROCESSING_FILE_TRACE_PREFIX + "%d.%d.%d_%d:%d:%d:%d" + TRACE_FILE_EXTENSION;
 
@@ -58,6 +61,14 @@ public class ProductTracer implements ITracer, Closeable {
 
     private SortedSet<File> finishedTraceFiles;
 
+    /* Traces of IThreadSafeFileTracer are written under the read lock, so threads do not wait for each other;
+     * traces of other tracers, quota checks and file changes take the write lock */
+    private final ReadWriteLock fileTracerLock = new ReentrantReadWriteLock();
+    private final Lock traceLock;
+
+    /**
+     * @return Paths of all trace files including additional shards of ShardedFileTracer
+     */
     public static String[] getAllTraceFiles(String tracesDirectory) {
         return getTraceFiles(tracesDirectory, new FilenameFilter() {
             @Override
@@ -90,6 +101,7 @@ public class ProductTracer implements ITracer, Closeable {
 
         this.tracesDirectory = tracesDirectory;
         this.fileTracer = tracer;
+        this.traceLock = (tracer instanceof IThreadSafeFileTracer) ? this.fileTracerLock.readLock() : this.fileTracerLock.writeLock();
         this.maxTraceFilesSumSize = settings.maxTraceFilesSumSize;
         this.productTracerEvents = productTracerEvents;
         this.finishedTraceFiles = new TreeSet<>(fromOlderToNewerDateOrderComparator);
@@ -107,6 +119,10 @@ public class ProductTracer implements ITracer, Closeable {
                     if (!filename.endsWith(TRACE_FILE_EXTENSION))
                         continue;
 
+                    // additional shards are accounted together with their logical file
+                    if (TraceFileSet.isAdditionalShardFile(filename))
+                        continue;
+
                     if ((filename.startsWith(TRACE_FILE_PREFIX)) || (filename.startsWith(PROCESSING_FILE_TRACE_PREFIX)))
                         allTraceFiles.add(file);
                 }
@@ -130,19 +146,63 @@ public class ProductTracer implements ITracer, Closeable {
                 file = finishTraceFile(traceFile);
 
             this.finishedTraceFiles.add(file);
-            this.finishedTraceFilesSumSize += file.length();
+            this.finishedTraceFilesSumSize += TraceFileSet.getSize(file);
         }
 
         checkDiskSpaceQuota();
     }
 
-    public synchronized void traceMessage(TraceLevel traceLevel, String message) {
-        if (this.fileTracer == null)
-            return;
+    public void traceMessage(TraceLevel traceLevel, String message) {
+        final boolean isQuotaExceeded;
+        this.traceLock.lock();
+        try {
+            if (this.fileTracer == null)
+                return;
+
+            this.fileTracer.traceMessage(traceLevel, message);
+            isQuotaExceeded = isDiskSpaceQuotaExceeded();
+        } finally {
+            this.traceLock.unlock();
+        }
+
+        if (isQuotaExceeded)
+            checkExceededDiskSpaceQuota();
+    }
 
-        this.fileTracer.traceMessage(traceLevel, message);
-        if (this.finishedTraceFilesSumSize + this.fileTracer.getFileSize() > this.maxTraceFilesSumSize)
-            checkDiskSpaceQuota();
+    public void traceMessage(TraceLevel traceLevel, String prefix, String message) {
+        final boolean isQuotaExceeded;
+        this.traceLock.lock();
+        try {
+            if (this.fileTracer == null)
+                return;
+
+            if (this.fileTracer instanceof IPrefixedTracer)
+                ((IPrefixedTracer) this.fileTracer).traceMessage(traceLevel, prefix, message);
+            else
+                this.fileTracer.traceMessage(traceLevel, "[" + prefix + "]\t" + message);
+            isQuotaExceeded = isDiskSpaceQuotaExceeded();
+        } finally {
+            this.traceLock.unlock();
+        }
+
+        if (isQuotaExceeded)
+            checkExceededDiskSpaceQuota();
+    }
+
+    private boolean isDiskSpaceQuotaExceeded() {
+        return (this.maxTraceFilesSumSize != Settings.UNLIMITED_SIZE)
+                && (this.finishedTraceFilesSumSize + this.fileTracer.getFileSize() > this.maxTraceFilesSumSize);
+    }
+
+    private void checkExceededDiskSpaceQuota() {
+        this.fileTracerLock.writeLock().lock();
+        try {
+            // another thread might have checked the quota or closed the tracer already
+            if ((this.fileTracer != null) && (isDiskSpaceQuotaExceeded()))
+                checkDiskSpaceQuota();
+        } finally {
+            this.fileTracerLock.writeLock().unlock();
+        }
     }
 
     private void internalClose() {
@@ -157,38 +217,61 @@ public class ProductTracer implements ITracer, Closeable {
         this.fileTracer = null;
     }
 
-    public synchronized void close() throws IOException {
-        internalClose();
+    public void close() throws IOException {
+        this.fileTracerLock.writeLock().lock();
+        try {
+            internalClose();
+        } finally {
+            this.fileTracerLock.writeLock().unlock();
+        }
     }
 
     /**
      * Pauses tracing
      * Further tracing will start in the last trace file
      */
-    public synchronized void pause() {
-        internalClose();
+    public void pause() {
+        this.fileTracerLock.writeLock().lock();
+        try {
+            internalClose();
+        } finally {
+            this.fileTracerLock.writeLock().unlock();
+        }
     }
 
     /**
      * Finishes tracing
      * Further tracing will start in the new trace file
      */
-    public synchronized void finish() {
-        if (this.fileTracer != null) {
-            finishTraceFile(new File(this.fileTracer.getCurrentFilePath()));
-            internalClose();
+    public void finish() {
+        this.fileTracerLock.writeLock().lock();
+        try {
+            if (this.fileTracer != null) {
+                finishTraceFile(new File(this.fileTracer.getCurrentFilePath()));
+                internalClose();
+            }
+        } finally {
+            this.fileTracerLock.writeLock().unlock();
         }
     }
 
     private void openNewTraceFile() {
-        this.fileTracer.openNewFile(new File(this.tracesDirectory, createTraceFileName()).getAbsolutePath());
+        // the file may be started again within the same millisecond, then the name of the removed file must not be reused
+        long creationTimeMillis = System.currentTimeMillis();
+        File newTraceFile = new File(this.tracesDirectory, createTraceFileName(creationTimeMillis));
+        while (newTraceFile.exists())
+            newTraceFile = new File(this.tracesDirectory, createTraceFileName(++creationTimeMillis));
+
+        this.fileTracer.openNewFile(newTraceFile.getAbsolutePath());
     }
 
     private void checkDiskSpaceQuota() {
         if (this.maxTraceFilesSumSize == Settings.UNLIMITED_SIZE)
             return;
 
-        long currentTraceFilesSize = this.finishedTraceFilesSumSize + this.fileTracer.getFileSize();
+        // buffering file tracers may change the size meanwhile, so it is read once
+        final long currentFileSize = this.fileTracer.getFileSize();
+        long currentTraceFilesSize = this.finishedTraceFilesSumSize + currentFileSize;
 
         List<File> removedFiles = new ArrayList<>();
 
@@ -196,12 +279,13 @@ public class ProductTracer implements ITracer, Closeable {
         while ((existingFilesIterator.hasNext()) && (currentTraceFilesSize > this.maxTraceFilesSumSize)) {
             final File currentFile = existingFilesIterator.next();
             removedFiles.add(currentFile);
-            currentTraceFilesSize -= currentFile.length();
+            currentTraceFilesSize -= TraceFileSet.getSize(currentFile);
         }
 
         // our current trace file is still larger than the limit
         if (currentTraceFilesSize > this.maxTraceFilesSumSize) {
             removedFiles.add(new File(this.fileTracer.getCurrentFilePath()));
+            currentTraceFilesSize -= currentFileSize;
             openNewTraceFile();
         }
 
@@ -214,7 +298,7 @@ public class ProductTracer implements ITracer, Closeable {
         }
 
         for (File f : removedFiles)
-            f.delete(); // we should just ignore the result
+            TraceFileSet.delete(f); // we should just ignore the result
 
         this.finishedTraceFiles.removeAll(removedFiles);
     }
@@ -234,7 +318,7 @@ public class ProductTracer implements ITracer, Closeable {
         {
             long currentDiskQuota = 0;
             for (File processingFile : files) {
-                currentDiskQuota += processingFile.length();
+                currentDiskQuota += TraceFileSet.getSize(processingFile);
 
                 // Note: even if equal delete -> the first trace should delete this file anyway
                 if (currentDiskQuota >= this.maxTraceFilesSumSize) {
@@ -250,7 +334,7 @@ public class ProductTracer implements ITracer, Closeable {
         }
 
         for (File fileToRemove : removedFiles)
-            fileToRemove.delete(); // we just can't do anything. Fail silently
+            TraceFileSet.delete(fileToRemove); // we just can't do anything. Fail silently
 
         return removedFiles;
     }
@@ -276,7 +360,7 @@ public class ProductTracer implements ITracer, Closeable {
         final String newTraceFileName = TRACE_FILE_PREFIX + traceFile.getName().substring(PROCESSING_FILE_TRACE_PREFIX.length());
         final File finishedTraceFile = new File(traceFile.getParent(), newTraceFileName);
 
-        if (!traceFile.renameTo(finishedTraceFile))
+        if (!TraceFileSet.rename(traceFile, finishedTraceFile))
             throw new CommonException(CommonResultCode.AccessIsDenied);
 
         return finishedTraceFile;
@@ -293,8 +377,9 @@ public class ProductTracer implements ITracer, Closeable {
         throw new CommonException(CommonResultCode.UnExpected);
     }
 
-    private static String createTraceFileName() {
+    private static String createTraceFileName(long creationTimeMillis) {
         final Calendar currentTime = new GregorianCalendar();
+        currentTime.setTimeInMillis(creationTimeMillis);
         return String.format(TRACE_FILE_NAME_PATTERN,
                 currentTime.get(Calendar.YEAR),
                 currentTime.get(Calendar.MONTH),
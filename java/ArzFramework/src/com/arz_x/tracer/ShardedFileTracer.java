@@ -0,0 +1,110 @@
+package com.arz_x.tracer;
+
+import com.arz_x.common.helpers.Contract;
+
+import java.io.Closeable;
+import java.io.File;
+
+/**
+ * Created by Rihter on 19.10.2026.
+ * File tracer which spreads lines over several shard files of one logical file, by thread id,
+ * so that threads of different shards write to different streams. The logical file is the first shard,
+ * others are named "name.shardN.log". MergingTraceReader reads the shards back as one stream ordered by time
+ */
+public class ShardedFileTracer implements IThreadSafeFileTracer, IPrefixedTracer, Closeable {
+
+    private final SynchronizedFileTracer[] shardTracers;
+    private volatile String pathToFile;
+
+    /**
+     * @param indexInterval Interval of TraceFileIndex entries of each shard in bytes or TraceFileIndex.NO_INDEX
+     */
+    public ShardedFileTracer(String pathToFile
+            , TraceLevel minTraceLevel
+            , boolean appendIfExist
+            , TraceLayout layout
+            , int shardsCount
+            , int indexInterval) {
+        Contract.requireNotNull(pathToFile, minTraceLevel, layout);
+        Contract.requireTrue(shardsCount > 0);
+
+        this.shardTracers = new SynchronizedFileTracer[shardsCount];
+        for (int shardIndex = 0; shardIndex < shardsCount; ++shardIndex) {
+            this.shardTracers[shardIndex] = new SynchronizedFileTracer(getShardPath(pathToFile, shardIndex)
+                    , minTraceLevel, appendIfExist, layout, indexInterval);
+        }
+        this.pathToFile = pathToFile;
+    }
+
+    public ShardedFileTracer(String pathToFile
+            , TraceLevel minTraceLevel
+            , boolean appendIfExist
+            , TraceLayout layout
+            , int shardsCount) {
+        this(pathToFile, minTraceLevel, appendIfExist, layout, shardsCount, TraceFileIndex.NO_INDEX);
+    }
+
+    /**
+     * Creates a shard for each processor
+     */
+    public ShardedFileTracer(String pathToFile
+            , TraceLevel minTraceLevel
+            , boolean appendIfExist) {
+        this(pathToFile, minTraceLevel, appendIfExist, TraceLayout.compile(TraceLayout.DEFAULT_PATTERN)
+                , Runtime.getRuntime().availableProcessors());
+    }
+
+    @Override
+    public synchronized void openNewFile(String filepath) {
+        for (int shardIndex = 0; shardIndex < this.shardTracers.length; ++shardIndex)
+            this.shardTracers[shardIndex].openNewFile(getShardPath(filepath, shardIndex));
+        this.pathToFile = filepath;
+    }
+
+    @Override
+    public synchronized void openExistingFile(String filepath) {
+        for (int shardIndex = 0; shardIndex < this.shardTracers.length; ++shardIndex)
+            this.shardTracers[shardIndex].openExistingFile(getShardPath(filepath, shardIndex));
+        this.pathToFile = filepath;
+    }
+
+    @Override
+    public String getCurrentFilePath() {
+        return this.pathToFile;
+    }
+
+    /**
+     * @return Size of all shards with their indexes
+     */
+    @Override
+    public long getFileSize() {
+        long fileSize = 0;
+        for (SynchronizedFileTracer shardTracer : this.shardTracers)
+            fileSize += shardTracer.getFileSize();
+        return fileSize;
+    }
+
+    @Override
+    public void traceMessage(TraceLevel traceLevel, String message) {
+        getCurrentThreadShard().traceMessage(traceLevel, message);
+    }
+
+    @Override
+    public void traceMessage(TraceLevel traceLevel, String prefix, String message) {
+        getCurrentThreadShard().traceMessage(traceLevel, prefix, message);
+    }
+
+    @Override
+    public synchronized void close() {
+        for (SynchronizedFileTracer shardTracer : this.shardTracers)
+            shardTracer.close();
+    }
+
+    private SynchronizedFileTracer getCurrentThreadShard() {
+        return this.shardTracers[(int) (Thread.currentThread().getId() % this.shardTracers.length)];
+    }
+
+    private static String getShardPath(String pathToFile, int shardIndex) {
+        return TraceFileSet.getShardFile(new File(pathToFile), shardIndex).getPath();
+    }
+}
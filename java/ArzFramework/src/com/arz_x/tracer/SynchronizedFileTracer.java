@@ -6,28 +6,54 @@ import com.arz_x.common.helpers.Contract;
 
 import java.io.*;
 import java.nio.charset.Charset;
-import java.util.Calendar;
+import java.util.Collections;
 
-public class SynchronizedFileTracer implements IFileTracer, Closeable {
+public class SynchronizedFileTracer implements IThreadSafeFileTracer, IPrefixedTracer, Closeable {
 
     private String pathToFile;
-    private Charset charset;
+    private TraceLayout layout;
+    private TraceLineBuffer lineBuffer;
     private OutputStream traceFile;
+    private final int indexInterval;
+    private TraceFileIndex traceFileIndex;
 
     private volatile long currentFileSize;
+    private volatile long currentIndexSize;
     private volatile int minTraceLevel;
 
+    /**
+     * @param indexInterval Interval of TraceFileIndex entries in bytes or TraceFileIndex.NO_INDEX
+     */
     public SynchronizedFileTracer(String pathToFile
             , TraceLevel minTraceLevel
             , boolean appendIfExist
-            , Charset charset) {
-        Contract.requireNotNull(pathToFile, minTraceLevel, charset);
+            , TraceLayout layout
+            , int indexInterval) {
+        Contract.requireNotNull(pathToFile, minTraceLevel, layout);
+        Contract.requireTrue(indexInterval >= 0);
 
+        this.indexInterval = indexInterval;
         openFile(pathToFile, appendIfExist);
-        this.charset = (this.charset != null) ? charset : Charset.forName("UTF-8");
+        this.layout = layout;
+        this.lineBuffer = layout.createLineBuffer();
         this.minTraceLevel = minTraceLevel.getValue();
     }
 
+    public SynchronizedFileTracer(String pathToFile
+            , TraceLevel minTraceLevel
+            , boolean appendIfExist
+            , TraceLayout layout) {
+        this(pathToFile, minTraceLevel, appendIfExist, layout, TraceFileIndex.NO_INDEX);
+    }
+
+    public SynchronizedFileTracer(String pathToFile
+            , TraceLevel minTraceLevel
+            , boolean appendIfExist
+            , Charset charset) {
+        this(pathToFile, minTraceLevel, appendIfExist
+                , TraceLayout.compile(TraceLayout.DEFAULT_PATTERN, Collections.<String, String>emptyMap(), charset));
+    }
+
     public SynchronizedFileTracer(String pathToFile
             , TraceLevel minTraceLevel
             , boolean appendIfExist) {
@@ -49,15 +75,24 @@ public class SynchronizedFileTracer implements IFileTracer, Closeable {
         return this.pathToFile;
     }
 
+    /**
+     * @return Size of the file with its index
+     */
     @Override
     public long getFileSize() {
-        return this.currentFileSize;
+        return this.currentFileSize + this.currentIndexSize;
     }
 
     @Override
     public void traceMessage(TraceLevel traceLevel, String message) {
         if (traceLevel.getValue() >= this.minTraceLevel)
-            internalTraceMessage(message);
+            internalTraceMessage(traceLevel, null, message);
+    }
+
+    @Override
+    public void traceMessage(TraceLevel traceLevel, String prefix, String message) {
+        if (traceLevel.getValue() >= this.minTraceLevel)
+            internalTraceMessage(traceLevel, prefix, message);
     }
 
     @Override
@@ -68,6 +103,10 @@ public class SynchronizedFileTracer implements IFileTracer, Closeable {
             this.traceFile.flush();
             this.traceFile.close();
             this.traceFile = null;
+            if (this.traceFileIndex != null) {
+                this.traceFileIndex.close();
+                this.traceFileIndex = null;
+            }
         } catch (IOException exp) {
             /* it is impossible */
             throw new CommonException(CommonResultCode.UnExpected);
@@ -81,32 +120,35 @@ public class SynchronizedFileTracer implements IFileTracer, Closeable {
 
             this.traceFile = new FileOutputStream(this.pathToFile, appendIfExists);
             this.currentFileSize = new File(this.pathToFile).length();
+            this.currentIndexSize = 0;
+            if (this.indexInterval != TraceFileIndex.NO_INDEX) {
+                this.traceFileIndex = new TraceFileIndex(new File(this.pathToFile), this.currentFileSize, appendIfExists, this.indexInterval);
+                this.currentIndexSize = this.traceFileIndex.getSize();
+            }
         } catch (FileNotFoundException exp) {
             throw new CommonException(CommonResultCode.NotFound);
+        } catch (IOException exp) {
+            throw new CommonException(CommonResultCode.UnExpected);
         }
     }
 
-    private synchronized void internalTraceMessage(String message) {
+    private synchronized void internalTraceMessage(TraceLevel traceLevel, String prefix, String message) {
         // check if the file is closed already
         if (this.traceFile == null)
             return;
 
-        final Calendar currentDateTime = Calendar.getInstance();
-        final int milliseconds = currentDateTime.get(Calendar.MILLISECOND);
-        final int seconds = currentDateTime.get(Calendar.SECOND);
-        final int minutes = currentDateTime.get(Calendar.MINUTE);
-        final int hours = currentDateTime.get(Calendar.HOUR_OF_DAY);
-
-        final long currentThreadId = Thread.currentThread().getId();
-
-        final String traceMessage = String.format("%d:%d:%d:%d\t%d\t%s\n"
-                , hours, minutes, seconds, milliseconds, currentThreadId, message);
-        final byte[] messageBytes = traceMessage.getBytes(this.charset);
+        final long currentTimeMillis = System.currentTimeMillis();
+        this.lineBuffer.reset();
+        this.layout.write(this.lineBuffer, currentTimeMillis, traceLevel, prefix, message);
 
         try {
-            this.traceFile.write(messageBytes);
+            this.lineBuffer.writeTo(this.traceFile);
             this.traceFile.flush();
-            this.currentFileSize += messageBytes.length;
+            this.currentFileSize += this.lineBuffer.getSize();
+            if (this.traceFileIndex != null) {
+                this.traceFileIndex.onLinesWritten(currentTimeMillis, this.currentFileSize);
+                this.currentIndexSize = this.traceFileIndex.getSize();
+            }
         } catch (IOException exp) {
             throw new CommonException(CommonResultCode.UnExpected);
         }
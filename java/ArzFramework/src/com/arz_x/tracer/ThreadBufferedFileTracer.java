@@ -0,0 +1,459 @@
+package com.arz_x.tracer;
+
+import com.arz_x.CommonException;
+import com.arz_x.CommonResultCode;
+import com.arz_x.common.helpers.Contract;
+
+import java.io.*;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Created by Rihter on 19.10.2026.
+ * File tracer where each thread appends lines to its own preallocated ring buffer without locking.
+ * Flusher thread periodically drains all buffers to the file, merging lines of the drained window by time.
+ * Buffers of finished threads are dropped once they are drained.
+ *
+ * Thread whose buffer is full waits for the flusher.
+ * Lines traced concurrently with close are either written before the file is closed or skipped as a whole
+ */
+public class ThreadBufferedFileTracer implements IThreadSafeFileTracer, IPrefixedTracer, Closeable {
+
+    public static class Settings {
+        public static final int DEFAULT_THREAD_BUFFER_SIZE = 64 * 1024;
+        public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 50;
+
+        public Settings() {
+            this.threadBufferSize = DEFAULT_THREAD_BUFFER_SIZE;
+            this.flushIntervalMillis = DEFAULT_FLUSH_INTERVAL_MILLIS;
+            this.indexInterval = TraceFileIndex.NO_INDEX;
+        }
+
+        public Settings(int threadBufferSize, long flushIntervalMillis) {
+            this.threadBufferSize = threadBufferSize;
+            this.flushIntervalMillis = flushIntervalMillis;
+            this.indexInterval = TraceFileIndex.NO_INDEX;
+        }
+
+        public Settings(int threadBufferSize, long flushIntervalMillis, int indexInterval) {
+            this.threadBufferSize = threadBufferSize;
+            this.flushIntervalMillis = flushIntervalMillis;
+            this.indexInterval = indexInterval;
+        }
+
+        /*Size of ring buffer of each thread*/
+        public int threadBufferSize;
+
+        /*Period of writing buffered lines to the file*/
+        public long flushIntervalMillis;
+
+        /*Interval of TraceFileIndex entries in bytes or TraceFileIndex.NO_INDEX*/
+        public int indexInterval;
+    }
+
+    /* Time and length of each line stored in a ring buffer before its bytes */
+    private static final int RECORD_HEADER_SIZE = 8 + 4;
+    private static final int MAX_FLUSH_CHUNK_SIZE = 64 * 1024;
+    private static final long FULL_BUFFER_WAIT_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    /**
+     * Single producer (the owner thread) single consumer (the flusher) ring of records
+     */
+    private static class ThreadBuffer {
+        final Thread ownerThread;
+        final byte[] ring;
+        final TraceLineBuffer lineBuffer;
+
+        /* Written by the owner thread only */
+        volatile long writePosition;
+        volatile long bufferedLineBytes;
+        /* Set by the owner thread while it writes a line, close waits for it */
+        volatile boolean isWriting;
+        /* Written by the flusher only */
+        volatile long readPosition;
+        volatile long flushedLineBytes;
+
+        ThreadBuffer(Thread ownerThread, int size, TraceLineBuffer lineBuffer) {
+            this.ownerThread = ownerThread;
+            this.ring = new byte[size];
+            this.lineBuffer = lineBuffer;
+        }
+
+        int getFreeSize() {
+            return this.ring.length - (int) (this.writePosition - this.readPosition);
+        }
+
+        void put(long position, byte[] source, int offset, int length) {
+            final int ringOffset = (int) (position % this.ring.length);
+            final int firstPartLength = Math.min(length, this.ring.length - ringOffset);
+            System.arraycopy(source, offset, this.ring, ringOffset, firstPartLength);
+            System.arraycopy(source, offset + firstPartLength, this.ring, 0, length - firstPartLength);
+        }
+
+        void putLong(long position, long value, int size) {
+            for (int index = 0; index < size; ++index)
+                this.ring[(int) ((position + index) % this.ring.length)] = (byte) (value >>> (8 * (size - index - 1)));
+        }
+
+        long getLong(long position, int size) {
+            long value = 0;
+            for (int index = 0; index < size; ++index)
+                value = (value << 8) | (this.ring[(int) ((position + index) % this.ring.length)] & 0xff);
+            return value;
+        }
+
+        void copyTo(long position, int length, TraceLineBuffer target) {
+            final int ringOffset = (int) (position % this.ring.length);
+            final int firstPartLength = Math.min(length, this.ring.length - ringOffset);
+            target.appendBytes(this.ring, ringOffset, firstPartLength);
+            target.appendBytes(this.ring, 0, length - firstPartLength);
+        }
+    }
+
+    private final TraceLayout layout;
+    private final int threadBufferSize;
+    private final long flushIntervalNanos;
+    private final int indexInterval;
+    private final List<ThreadBuffer> threadBuffers;
+    private final ThreadLocal<ThreadBuffer> currentThreadBuffer;
+    private final Thread flusherThread;
+
+    /* Guarded by this */
+    private String pathToFile;
+    private OutputStream traceFile;
+    private TraceFileIndex traceFileIndex;
+    private final TraceLineBuffer flushBuffer;
+    private long flushBufferMaxTimeMillis;
+    /* Size of lines drained to the flush buffer which are not written yet */
+    private volatile long flushBufferSize;
+
+    private volatile long currentFileSize;
+    private volatile long currentIndexSize;
+    private volatile int minTraceLevel;
+    private volatile boolean isClosed;
+
+    public ThreadBufferedFileTracer(String pathToFile
+            , TraceLevel minTraceLevel
+            , boolean appendIfExist
+            , TraceLayout layout
+            , Settings settings) {
+        Contract.requireNotNull(pathToFile, minTraceLevel, layout, settings);
+        Contract.requireTrue((settings.threadBufferSize > RECORD_HEADER_SIZE) && (settings.flushIntervalMillis > 0));
+        Contract.requireTrue(settings.indexInterval >= 0);
+
+        this.layout = layout;
+        this.threadBufferSize = settings.threadBufferSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(settings.flushIntervalMillis);
+        this.indexInterval = settings.indexInterval;
+        this.threadBuffers = new CopyOnWriteArrayList<>();
+        this.currentThreadBuffer = new ThreadLocal<ThreadBuffer>() {
+            @Override
+            protected ThreadBuffer initialValue() {
+                final ThreadBuffer threadBuffer = new ThreadBuffer(Thread.currentThread()
+                        , ThreadBufferedFileTracer.this.threadBufferSize
+                        , ThreadBufferedFileTracer.this.layout.createLineBuffer());
+                ThreadBufferedFileTracer.this.threadBuffers.add(threadBuffer);
+                return threadBuffer;
+            }
+        };
+        this.flushBuffer = layout.createLineBuffer();
+        this.flushBufferMaxTimeMillis = Long.MIN_VALUE;
+        this.minTraceLevel = minTraceLevel.getValue();
+
+        openFile(pathToFile, appendIfExist);
+
+        this.flusherThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                runFlusher();
+            }
+        }, "arz-trace-flusher");
+        this.flusherThread.setDaemon(true);
+        this.flusherThread.start();
+    }
+
+    public ThreadBufferedFileTracer(String pathToFile
+            , TraceLevel minTraceLevel
+            , boolean appendIfExist) {
+        this(pathToFile, minTraceLevel, appendIfExist, TraceLayout.compile(TraceLayout.DEFAULT_PATTERN), new Settings());
+    }
+
+    @Override
+    public void openNewFile(String filepath) {
+        openFile(filepath, false);
+    }
+
+    @Override
+    public void openExistingFile(String filepath) {
+        openFile(filepath, true);
+    }
+
+    @Override
+    public synchronized String getCurrentFilePath() {
+        return this.pathToFile;
+    }
+
+    /**
+     * @return Size of the file and its index with lines which are buffered yet, so that quota checks do not lag behind the flusher
+     */
+    @Override
+    public long getFileSize() {
+        // lines move from thread buffers to the flush buffer and then to the file, each counter is increased
+        // before the previous one is decreased, so reading them in this order may only count a line twice
+        long fileSize = 0;
+        for (ThreadBuffer threadBuffer : this.threadBuffers)
+            fileSize += threadBuffer.bufferedLineBytes - threadBuffer.flushedLineBytes;
+        fileSize += this.flushBufferSize;
+        return fileSize + this.currentFileSize + this.currentIndexSize;
+    }
+
+    @Override
+    public void traceMessage(TraceLevel traceLevel, String message) {
+        if (traceLevel.getValue() >= this.minTraceLevel)
+            bufferTraceMessage(traceLevel, null, message);
+    }
+
+    @Override
+    public void traceMessage(TraceLevel traceLevel, String prefix, String message) {
+        if (traceLevel.getValue() >= this.minTraceLevel)
+            bufferTraceMessage(traceLevel, prefix, message);
+    }
+
+    /**
+     * Writes all buffered lines to the file
+     */
+    public synchronized void flush() {
+        flushThreadBuffers();
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (this.isClosed)
+                return;
+            this.isClosed = true;
+        }
+
+        LockSupport.unpark(this.flusherThread);
+        try {
+            this.flusherThread.join();
+        } catch (InterruptedException exp) {
+            Thread.currentThread().interrupt();
+        }
+
+        // threads which have passed the closed check may still wait for free space, so buffers are drained for them
+        for (ThreadBuffer threadBuffer : this.threadBuffers) {
+            while (threadBuffer.isWriting) {
+                synchronized (this) {
+                    flushThreadBuffers();
+                }
+                LockSupport.parkNanos(FULL_BUFFER_WAIT_NANOS);
+            }
+        }
+
+        synchronized (this) {
+            flushThreadBuffers();
+            closeFile();
+        }
+    }
+
+    private void bufferTraceMessage(TraceLevel traceLevel, String prefix, String message) {
+        if (this.isClosed)
+            return;
+
+        final ThreadBuffer threadBuffer = this.currentThreadBuffer.get();
+        // close sets its flag before it checks this one, so either the line is skipped here or close waits for it
+        threadBuffer.isWriting = true;
+        try {
+            if (this.isClosed)
+                return;
+
+            final long currentTimeMillis = System.currentTimeMillis();
+            final TraceLineBuffer lineBuffer = threadBuffer.lineBuffer;
+            lineBuffer.reset();
+            this.layout.write(lineBuffer, currentTimeMillis, traceLevel, prefix, message);
+
+            final int recordSize = RECORD_HEADER_SIZE + lineBuffer.getSize();
+            if (recordSize > threadBuffer.ring.length) {
+                writeLargeLine(threadBuffer, currentTimeMillis, lineBuffer);
+                return;
+            }
+
+            waitForFreeSize(threadBuffer, recordSize);
+
+            final long position = threadBuffer.writePosition;
+            threadBuffer.putLong(position, currentTimeMillis, 8);
+            threadBuffer.putLong(position + 8, lineBuffer.getSize(), 4);
+            threadBuffer.put(position + RECORD_HEADER_SIZE, lineBuffer.getBytes(), 0, lineBuffer.getSize());
+            // counted before the flusher can see the line
+            threadBuffer.bufferedLineBytes += lineBuffer.getSize();
+            threadBuffer.writePosition = position + recordSize;
+        } finally {
+            threadBuffer.isWriting = false;
+        }
+    }
+
+    /**
+     * Line which does not fit the ring is written directly, after the lines buffered before it
+     */
+    private void writeLargeLine(ThreadBuffer threadBuffer, long currentTimeMillis, TraceLineBuffer lineBuffer) {
+        waitForFreeSize(threadBuffer, threadBuffer.ring.length);
+
+        synchronized (this) {
+            if (this.traceFile == null)
+                return;
+            try {
+                lineBuffer.writeTo(this.traceFile);
+                this.traceFile.flush();
+                this.currentFileSize += lineBuffer.getSize();
+                updateIndex(currentTimeMillis);
+            } catch (IOException exp) {
+                throw new CommonException(CommonResultCode.UnExpected);
+            }
+        }
+    }
+
+    /**
+     * The buffer is drained by the flusher, or by close once the flusher is stopped
+     */
+    private void waitForFreeSize(ThreadBuffer threadBuffer, int size) {
+        while (threadBuffer.getFreeSize() < size) {
+            LockSupport.unpark(this.flusherThread);
+            LockSupport.parkNanos(FULL_BUFFER_WAIT_NANOS);
+        }
+    }
+
+    private void runFlusher() {
+        while (!this.isClosed) {
+            LockSupport.parkNanos(this.flushIntervalNanos);
+            synchronized (this) {
+                try {
+                    flushThreadBuffers();
+                } catch (CommonException exp) {
+                    // there is nobody to report to, lines of this window are lost
+                }
+            }
+        }
+    }
+
+    /**
+     * Drains records written before the call, merging them by time: lines of each thread are already ordered
+     */
+    private void flushThreadBuffers() {
+        final ThreadBuffer[] buffers = this.threadBuffers.toArray(new ThreadBuffer[0]);
+        final long[] readPositions = new long[buffers.length];
+        final long[] writePositions = new long[buffers.length];
+        for (int index = 0; index < buffers.length; ++index) {
+            readPositions[index] = buffers[index].readPosition;
+            writePositions[index] = buffers[index].writePosition;
+        }
+
+        // lines left by a failed write are lost
+        this.flushBuffer.reset();
+        this.flushBufferSize = 0;
+        while (true) {
+            int earliestBufferIndex = -1;
+            long earliestTime = Long.MAX_VALUE;
+            for (int index = 0; index < buffers.length; ++index) {
+                if (readPositions[index] == writePositions[index])
+                    continue;
+                final long recordTime = buffers[index].getLong(readPositions[index], 8);
+                if (recordTime < earliestTime) {
+                    earliestTime = recordTime;
+                    earliestBufferIndex = index;
+                }
+            }
+            if (earliestBufferIndex < 0)
+                break;
+
+            final ThreadBuffer threadBuffer = buffers[earliestBufferIndex];
+            final long position = readPositions[earliestBufferIndex];
+            final int lineSize = (int) threadBuffer.getLong(position + 8, 4);
+            threadBuffer.copyTo(position + RECORD_HEADER_SIZE, lineSize, this.flushBuffer);
+            this.flushBufferMaxTimeMillis = Math.max(this.flushBufferMaxTimeMillis, earliestTime);
+            readPositions[earliestBufferIndex] = position + RECORD_HEADER_SIZE + lineSize;
+            this.flushBufferSize = this.flushBuffer.getSize();
+            threadBuffer.flushedLineBytes += lineSize;
+            threadBuffer.readPosition = readPositions[earliestBufferIndex];
+
+            if (this.flushBuffer.getSize() >= MAX_FLUSH_CHUNK_SIZE)
+                writeFlushBuffer();
+        }
+        writeFlushBuffer();
+
+        for (ThreadBuffer threadBuffer : buffers) {
+            if ((!threadBuffer.ownerThread.isAlive()) && (threadBuffer.readPosition == threadBuffer.writePosition))
+                this.threadBuffers.remove(threadBuffer);
+        }
+    }
+
+    private void writeFlushBuffer() {
+        if (this.flushBuffer.getSize() == 0)
+            return;
+
+        try {
+            // lines of a closed file are dropped, the same as SynchronizedFileTracer does
+            if (this.traceFile != null) {
+                this.flushBuffer.writeTo(this.traceFile);
+                this.traceFile.flush();
+                this.currentFileSize += this.flushBuffer.getSize();
+                updateIndex(this.flushBufferMaxTimeMillis);
+            }
+        } catch (IOException exp) {
+            throw new CommonException(CommonResultCode.UnExpected);
+        }
+        this.flushBuffer.reset();
+        this.flushBufferSize = 0;
+        this.flushBufferMaxTimeMillis = Long.MIN_VALUE;
+    }
+
+    /**
+     * Index entries are written between flushed chunks, which end with whole lines
+     */
+    private void updateIndex(long lastLineTimeMillis) throws IOException {
+        if (this.traceFileIndex == null)
+            return;
+
+        this.traceFileIndex.onLinesWritten(lastLineTimeMillis, this.currentFileSize);
+        this.currentIndexSize = this.traceFileIndex.getSize();
+    }
+
+    private synchronized void openFile(String pathToFile, boolean appendIfExists) {
+        // lines traced before go to the previous file
+        flushThreadBuffers();
+        closeFile();
+        try {
+            this.pathToFile = pathToFile;
+            this.traceFile = new FileOutputStream(this.pathToFile, appendIfExists);
+            this.currentFileSize = new File(this.pathToFile).length();
+            this.currentIndexSize = 0;
+            if (this.indexInterval != TraceFileIndex.NO_INDEX) {
+                this.traceFileIndex = new TraceFileIndex(new File(this.pathToFile), this.currentFileSize, appendIfExists, this.indexInterval);
+                this.currentIndexSize = this.traceFileIndex.getSize();
+            }
+        } catch (FileNotFoundException exp) {
+            throw new CommonException(CommonResultCode.NotFound);
+        } catch (IOException exp) {
+            throw new CommonException(CommonResultCode.UnExpected);
+        }
+    }
+
+    private void closeFile() {
+        if (this.traceFile == null)
+            return;
+        try {
+            this.traceFile.flush();
+            this.traceFile.close();
+            this.traceFile = null;
+            if (this.traceFileIndex != null) {
+                this.traceFileIndex.close();
+                this.traceFileIndex = null;
+            }
+        } catch (IOException exp) {
+            /* it is impossible */
+            throw new CommonException(CommonResultCode.UnExpected);
+        }
+    }
+}
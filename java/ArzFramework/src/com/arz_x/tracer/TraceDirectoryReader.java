@@ -0,0 +1,143 @@
+package com.arz_x.tracer;
+
+import com.arz_x.CommonException;
+import com.arz_x.CommonResultCode;
+import com.arz_x.common.helpers.Contract;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TimeZone;
+
+/**
+ * Created by Rihter on 19.10.2026.
+ * Streams records matching a query from all trace files of a ProductTracer directory, from older to newer files.
+ * Shards of each file are merged by time.
+ *
+ * Only one trace file is open at a time, so memory does not depend on the directory size.
+ * A file contains records traced before the next file was started, so files ending before the query time range
+ * and files started after it are not read at all. Files with TraceFileIndex are read from the start of the time range
+ */
+public class TraceDirectoryReader implements ITraceRecordReader {
+
+    private static class TraceFile {
+        final File file;
+        final long startTimeMillis;
+
+        TraceFile(File file, long startTimeMillis) {
+            this.file = file;
+            this.startTimeMillis = startTimeMillis;
+        }
+    }
+
+    private final List<File> traceFiles;
+    private final TraceQuery query;
+    private final Charset charset;
+
+    private int nextTraceFileIndex;
+    private ITraceRecordReader currentReader;
+
+    public TraceDirectoryReader(String tracesDirectory, TraceQuery query, Charset charset) {
+        Contract.requireNotNull(tracesDirectory, query, charset);
+
+        this.traceFiles = getTraceFiles(tracesDirectory, query.fromTimeMillis, query.toTimeMillis);
+        this.query = query;
+        this.charset = charset;
+    }
+
+    public TraceDirectoryReader(String tracesDirectory, TraceQuery query) {
+        this(tracesDirectory, query, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return Logical trace files which may contain records of the time range, from older to newer
+     */
+    static List<File> getTraceFiles(String tracesDirectory, long fromTimeMillis, long toTimeMillis) {
+        final File[] allDirectoryFiles = new File(tracesDirectory).listFiles();
+        if (allDirectoryFiles == null)
+            throw new CommonException(CommonResultCode.NotFound, "Traces directory does not exist");
+
+        final TimeZone timeZone = TimeZone.getDefault();
+        List<TraceFile> allTraceFiles = new ArrayList<>();
+        for (File file : allDirectoryFiles) {
+            if (!TraceFileSet.isLogicalTraceFile(file.getName()))
+                continue;
+
+            final long localStartMillis = TraceFileReader.getTraceFileLocalStartMillis(file.getName());
+            if (localStartMillis >= 0)
+                allTraceFiles.add(new TraceFile(file, TraceFileReader.toEpochMillis(timeZone, localStartMillis)));
+        }
+        Collections.sort(allTraceFiles, new Comparator<TraceFile>() {
+            @Override
+            public int compare(TraceFile first, TraceFile second) {
+                final int timeComparison = Long.compare(first.startTimeMillis, second.startTimeMillis);
+                return (timeComparison != 0) ? timeComparison : first.file.getName().compareTo(second.file.getName());
+            }
+        });
+
+        List<File> traceFiles = new ArrayList<>();
+        for (int traceFileIndex = 0; traceFileIndex < allTraceFiles.size(); ++traceFileIndex) {
+            final TraceFile traceFile = allTraceFiles.get(traceFileIndex);
+            if (traceFile.startTimeMillis >= toTimeMillis)
+                break;
+
+            final boolean isEndedBeforeTimeRange = (traceFileIndex + 1 < allTraceFiles.size())
+                    && (allTraceFiles.get(traceFileIndex + 1).startTimeMillis < fromTimeMillis);
+            if (!isEndedBeforeTimeRange)
+                traceFiles.add(traceFile.file);
+        }
+        return traceFiles;
+    }
+
+    @Override
+    public TraceRecord readRecord() throws IOException {
+        while (true) {
+            if ((this.currentReader == null) && (!openNextTraceFile()))
+                return null;
+
+            final TraceRecord record = this.currentReader.readRecord();
+            if (record == null) {
+                closeCurrentReader();
+                continue;
+            }
+            if (this.query.isMatched(record))
+                return record;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        closeCurrentReader();
+        this.nextTraceFileIndex = this.traceFiles.size();
+    }
+
+    /**
+     * @return False if there are no more files of the query time range
+     */
+    private boolean openNextTraceFile() throws IOException {
+        while (this.nextTraceFileIndex < this.traceFiles.size()) {
+            final File traceFile = this.traceFiles.get(this.nextTraceFileIndex++);
+            // the file may be removed by ProductTracer quota meanwhile
+            if (!traceFile.exists())
+                continue;
+
+            this.currentReader = MergingTraceReader.openTraceFile(traceFile, this.charset, this.query.fromTimeMillis);
+            return true;
+        }
+        return false;
+    }
+
+    private void closeCurrentReader() throws IOException {
+        if (this.currentReader == null)
+            return;
+
+        final ITraceRecordReader reader = this.currentReader;
+        this.currentReader = null;
+        reader.close();
+    }
+}
@@ -0,0 +1,139 @@
+package com.arz_x.tracer;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Created by Rihter on 19.10.2026.
+ * Sparse sidecar index "name.log.idx" of a trace file, written by file tracers every index interval of the file.
+ * Each entry is [time 8 bytes][offset 8 bytes]: lines before the offset were traced not later than the time,
+ * so entry times grow even if lines are written slightly out of order or the clock goes back.
+ * Readers binary-search the last entry earlier than the start of a time range and seek to its offset
+ */
+public class TraceFileIndex implements Closeable {
+    public static final int NO_INDEX = 0;
+    public static final int DEFAULT_INDEX_INTERVAL = 64 * 1024;
+
+    private static final String INDEX_FILE_EXTENSION = ".idx";
+    private static final int ENTRY_SIZE = 8 + 8;
+
+    static class Entry {
+        final long timeMillis;
+        final long offset;
+
+        Entry(long timeMillis, long offset) {
+            this.timeMillis = timeMillis;
+            this.offset = offset;
+        }
+    }
+
+    private final FileOutputStream indexFile;
+    private final int indexInterval;
+    private final ByteBuffer entryBuffer;
+
+    private long maxTimeMillis;
+    private long nextEntryOffset;
+    private long indexSize;
+
+    /**
+     * Opens the index of the trace file which has just been opened
+     * @param traceFileSize Size of the opened trace file
+     * @param appendIfExist The same as for the trace file, the index is truncated otherwise
+     */
+    TraceFileIndex(File traceFile, long traceFileSize, boolean appendIfExist, int indexInterval) throws IOException {
+        this.indexFile = new FileOutputStream(getIndexFile(traceFile), appendIfExist);
+        this.indexInterval = indexInterval;
+        this.entryBuffer = ByteBuffer.allocate(ENTRY_SIZE);
+
+        // an entry torn by a crash would shift all following ones
+        final FileChannel indexChannel = this.indexFile.getChannel();
+        this.indexSize = indexChannel.size() - indexChannel.size() % ENTRY_SIZE;
+        indexChannel.truncate(this.indexSize);
+
+        // existing lines were traced before the file was modified last time
+        this.maxTimeMillis = appendIfExist ? traceFile.lastModified() : Long.MIN_VALUE;
+        this.nextEntryOffset = traceFileSize + indexInterval;
+    }
+
+    static File getIndexFile(File traceFile) {
+        return new File(traceFile.getParentFile(), traceFile.getName() + INDEX_FILE_EXTENSION);
+    }
+
+    /**
+     * @return Last entry earlier than the time or null if there is no such entry or no index
+     */
+    static Entry findEntry(File traceFile, long timeMillis) throws IOException {
+        return findLastEntryBefore(traceFile, timeMillis, false);
+    }
+
+    /**
+     * @return Last entry not after the offset or null if there is no such entry or no index
+     */
+    static Entry findEntryAtOffset(File traceFile, long offset) throws IOException {
+        return findLastEntryBefore(traceFile, offset + 1, true);
+    }
+
+    private static Entry findLastEntryBefore(File traceFile, long key, boolean isOffsetKey) throws IOException {
+        final File indexFile = getIndexFile(traceFile);
+        if (!indexFile.isFile())
+            return null;
+
+        try (FileChannel indexChannel = FileChannel.open(indexFile.toPath(), StandardOpenOption.READ)) {
+            final ByteBuffer entryBuffer = ByteBuffer.allocate(ENTRY_SIZE);
+            Entry foundEntry = null;
+            long lowIndex = 0;
+            long highIndex = indexChannel.size() / ENTRY_SIZE;
+            while (lowIndex < highIndex) {
+                final long middleIndex = (lowIndex + highIndex) >>> 1;
+                final Entry entry = readEntry(indexChannel, middleIndex, entryBuffer);
+                if ((isOffsetKey ? entry.offset : entry.timeMillis) < key) {
+                    foundEntry = entry;
+                    lowIndex = middleIndex + 1;
+                } else {
+                    highIndex = middleIndex;
+                }
+            }
+            return foundEntry;
+        }
+    }
+
+    /**
+     * Called after whole lines are written
+     * @param lastLineTimeMillis The latest time of the written lines
+     * @param traceFileSize Size of the trace file after the lines
+     */
+    void onLinesWritten(long lastLineTimeMillis, long traceFileSize) throws IOException {
+        this.maxTimeMillis = Math.max(this.maxTimeMillis, lastLineTimeMillis);
+        if (traceFileSize < this.nextEntryOffset)
+            return;
+
+        this.entryBuffer.clear();
+        this.entryBuffer.putLong(this.maxTimeMillis).putLong(traceFileSize);
+        this.indexFile.write(this.entryBuffer.array());
+        this.indexSize += ENTRY_SIZE;
+        this.nextEntryOffset = traceFileSize + this.indexInterval;
+    }
+
+    long getSize() {
+        return this.indexSize;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.indexFile.close();
+    }
+
+    private static Entry readEntry(FileChannel indexChannel, long entryIndex, ByteBuffer entryBuffer) throws IOException {
+        entryBuffer.clear();
+        while (entryBuffer.hasRemaining()) {
+            if (indexChannel.read(entryBuffer, entryIndex * ENTRY_SIZE + entryBuffer.position()) < 0)
+                throw new IOException("Trace index is truncated");
+        }
+        return new Entry(entryBuffer.getLong(0), entryBuffer.getLong(8));
+    }
+}
@@ -0,0 +1,425 @@
+package com.arz_x.tracer;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+
+/**
+ * Created by Rihter on 19.10.2026.
+ * Reads records of a single trace file written with TraceLayout.DEFAULT_PATTERN or TraceLayout.RECORD_PATTERN.
+ * Headers are parsed by hand. Lines without a header continue the message of the previous record,
+ * lines before the first header are skipped.
+ *
+ * Default layout has no date: it is taken from the ProductTracer file name, or the file modification day,
+ * and moves to the next day when time goes back by more than half a day
+ *
+ * Reading may start from a time: the file is then read from its TraceFileIndex entry before the time, if it has the index.
+ * The file is read through memory-mapped windows up to its size at opening, so memory does not depend on the file size.
+ * Mapped windows are released by the garbage collector, not by close
+ */
+public class TraceFileReader implements ITraceRecordReader {
+    private static final long MILLISECONDS_IN_DAY = 24 * 60 * 60 * 1000L;
+    private static final int RECORD_HEADER_TIME_LENGTH = "yyyy-MM-dd HH:mm:ss.SSS".length();
+    private static final byte[][] TRACE_LEVEL_NAMES = getTraceLevelNames();
+    private static final long MAPPED_WINDOW_SIZE = 16 * 1024 * 1024L;
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private ByteBuffer window;
+    private long nextWindowPosition;
+    /* Records whose header starts at the offset or later are not read */
+    private long endOffset;
+    private long lineOffset;
+
+    private final Charset charset;
+    private final TimeZone timeZone;
+
+    private byte[] line;
+    private int lineLength;
+    private int parsePosition;
+
+    private long dayStartMillis;
+    /* -1 until the time of some line is known */
+    private long lastLocalTimeMillis;
+
+    /* Header of the next record, read ahead with its first line */
+    private boolean hasNextHeader;
+    private long nextHeaderOffset;
+    private long nextLocalTimeMillis;
+    private long nextThreadId;
+    private TraceLevel nextTraceLevel;
+    private String nextPrefix;
+    private String nextMessage;
+
+    public TraceFileReader(File traceFile, Charset charset) throws IOException {
+        this.channel = FileChannel.open(traceFile.toPath(), StandardOpenOption.READ);
+        this.fileSize = this.channel.size();
+        this.window = ByteBuffer.allocate(0);
+        this.endOffset = Long.MAX_VALUE;
+        this.charset = charset;
+        this.timeZone = TimeZone.getDefault();
+        this.line = new byte[256];
+        this.dayStartMillis = getFileDayStartMillis(traceFile);
+        this.lastLocalTimeMillis = getTraceFileLocalStartMillis(traceFile.getName());
+    }
+
+    /**
+     * @param fromTimeMillis Records earlier than the time may be skipped, some of them may be read as well
+     */
+    public TraceFileReader(File traceFile, Charset charset, long fromTimeMillis) throws IOException {
+        this(traceFile, charset);
+
+        final TraceFileIndex.Entry indexEntry = (fromTimeMillis != Long.MIN_VALUE) ? TraceFileIndex.findEntry(traceFile, fromTimeMillis) : null;
+        if ((indexEntry != null) && (indexEntry.offset <= this.fileSize))
+            seek(indexEntry.offset, indexEntry.timeMillis);
+    }
+
+    /**
+     * Reads records whose header starts within the chunk, the last one may continue after the chunk.
+     * Lines of the default layout are dated by the TraceFileIndex entry before the chunk if there is the index
+     * @param startOffset Any offset, reading starts from the next line
+     */
+    TraceFileReader(File traceFile, Charset charset, long startOffset, long endOffset) throws IOException {
+        this(traceFile, charset);
+        this.endOffset = endOffset;
+        if ((startOffset == 0) || (startOffset > this.fileSize)) {
+            this.nextWindowPosition = startOffset;
+            return;
+        }
+
+        final TraceFileIndex.Entry indexEntry = TraceFileIndex.findEntryAtOffset(traceFile, startOffset);
+        if (indexEntry != null)
+            seek(startOffset - 1, indexEntry.timeMillis);
+        else
+            this.nextWindowPosition = startOffset - 1;
+        // the rest of the line before the chunk, an empty one if the chunk starts from a line
+        readLine();
+    }
+
+    public TraceFileReader(File traceFile) throws IOException {
+        this(traceFile, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public TraceRecord readRecord() throws IOException {
+        while (!this.hasNextHeader) {
+            if ((!readLine()) || (this.lineOffset >= this.endOffset))
+                return null;
+            this.hasNextHeader = parseHeader();
+            this.nextHeaderOffset = this.lineOffset;
+        }
+        if (this.nextHeaderOffset >= this.endOffset)
+            return null;
+
+        final long localTimeMillis = this.nextLocalTimeMillis;
+        final long threadId = this.nextThreadId;
+        final TraceLevel traceLevel = this.nextTraceLevel;
+        final String prefix = this.nextPrefix;
+        final String firstLine = this.nextMessage;
+        StringBuilder message = null;
+
+        this.hasNextHeader = false;
+        while (readLine()) {
+            if (parseHeader()) {
+                this.hasNextHeader = true;
+                this.nextHeaderOffset = this.lineOffset;
+                break;
+            }
+            if (message == null)
+                message = new StringBuilder(firstLine);
+            message.append('\n').append(new String(this.line, 0, this.lineLength, this.charset));
+        }
+
+        return new TraceRecord(toEpochMillis(localTimeMillis), threadId, traceLevel, prefix
+                , (message != null) ? message.toString() : firstLine);
+    }
+
+    /**
+     * @return True if lines of the file carry their date, so any chunk of the file can be read on its own
+     */
+    static boolean isDatedFile(File traceFile, Charset charset) throws IOException {
+        try (TraceFileReader reader = new TraceFileReader(traceFile, charset)) {
+            return (!reader.readLine()) || (reader.isRecordHeader());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.window = ByteBuffer.allocate(0);
+        this.channel.close();
+    }
+
+    /**
+     * Reads the next line without its line break
+     * @return False at the end of the file
+     */
+    private boolean readLine() throws IOException {
+        this.lineOffset = this.nextWindowPosition - this.window.remaining();
+        int length = 0;
+        boolean isLineEnd = false;
+        while ((this.window.hasRemaining()) || (mapNextWindow())) {
+            final byte value = this.window.get();
+            if (value == '\n') {
+                isLineEnd = true;
+                break;
+            }
+            if (length == this.line.length)
+                this.line = Arrays.copyOf(this.line, length * 2);
+            this.line[length++] = value;
+        }
+        if ((!isLineEnd) && (length == 0))
+            return false;
+
+        if ((length > 0) && (this.line[length - 1] == '\r'))
+            --length;
+        this.lineLength = length;
+        return true;
+    }
+
+    /**
+     * Moves to the offset of a line traced around the time
+     */
+    private void seek(long offset, long timeMillis) {
+        this.nextWindowPosition = offset;
+        this.lastLocalTimeMillis = timeMillis + this.timeZone.getOffset(timeMillis);
+        this.dayStartMillis = this.lastLocalTimeMillis - Math.floorMod(this.lastLocalTimeMillis, MILLISECONDS_IN_DAY);
+    }
+
+    /**
+     * @return False at the end of the file
+     */
+    private boolean mapNextWindow() throws IOException {
+        if (this.nextWindowPosition >= this.fileSize)
+            return false;
+
+        final long windowSize = Math.min(MAPPED_WINDOW_SIZE, this.fileSize - this.nextWindowPosition);
+        this.window = this.channel.map(FileChannel.MapMode.READ_ONLY, this.nextWindowPosition, windowSize);
+        this.nextWindowPosition += windowSize;
+        return true;
+    }
+
+    private boolean parseHeader() {
+        final long localTimeMillis = isRecordHeader() ? parseRecordHeaderTime() : parseDefaultHeaderTime();
+        if (localTimeMillis < 0)
+            return false;
+
+        final long threadId = parseNumber('\t');
+        if (threadId < 0)
+            return false;
+
+        TraceLevel traceLevel = null;
+        if (isRecordHeader()) {
+            traceLevel = parseTraceLevel();
+            if (traceLevel == null)
+                return false;
+        }
+
+        this.nextLocalTimeMillis = localTimeMillis;
+        this.lastLocalTimeMillis = localTimeMillis;
+        this.nextThreadId = threadId;
+        this.nextTraceLevel = traceLevel;
+        parsePrefixAndMessage();
+        return true;
+    }
+
+    private boolean isRecordHeader() {
+        return (this.lineLength > RECORD_HEADER_TIME_LENGTH)
+                && (this.line[4] == '-') && (this.line[7] == '-') && (this.line[10] == ' ')
+                && (this.line[RECORD_HEADER_TIME_LENGTH] == '\t');
+    }
+
+    /**
+     * yyyy-MM-dd HH:mm:ss.SSS
+     * @return Local time or -1
+     */
+    private long parseRecordHeaderTime() {
+        this.parsePosition = 0;
+        final long year = parseNumber('-');
+        final long month = parseNumber('-');
+        final long day = parseNumber(' ');
+        final long hours = parseNumber(':');
+        final long minutes = parseNumber(':');
+        final long seconds = parseNumber('.');
+        final long milliseconds = parseNumber('\t');
+        if ((year < 0) || (month < 1) || (month > 12) || (day < 1) || (hours < 0) || (minutes < 0) || (seconds < 0) || (milliseconds < 0))
+            return -1;
+
+        return getEpochDay(year, month, day) * MILLISECONDS_IN_DAY + getMillisOfDay(hours, minutes, seconds, milliseconds);
+    }
+
+    /**
+     * H:m:s:S of the file day
+     * @return Local time or -1
+     */
+    private long parseDefaultHeaderTime() {
+        this.parsePosition = 0;
+        final long hours = parseNumber(':');
+        final long minutes = parseNumber(':');
+        final long seconds = parseNumber(':');
+        final long milliseconds = parseNumber('\t');
+        if ((hours < 0) || (minutes < 0) || (seconds < 0) || (milliseconds < 0))
+            return -1;
+
+        long localTimeMillis = this.dayStartMillis + getMillisOfDay(hours, minutes, seconds, milliseconds);
+        if (this.lastLocalTimeMillis < 0)
+            return localTimeMillis;
+
+        if (localTimeMillis < this.lastLocalTimeMillis - MILLISECONDS_IN_DAY / 2) {
+            this.dayStartMillis += MILLISECONDS_IN_DAY;
+            localTimeMillis += MILLISECONDS_IN_DAY;
+        } else if (localTimeMillis > this.lastLocalTimeMillis + MILLISECONDS_IN_DAY / 2) {
+            // a line traced before midnight after a line of the next day
+            this.dayStartMillis -= MILLISECONDS_IN_DAY;
+            localTimeMillis -= MILLISECONDS_IN_DAY;
+        }
+        return localTimeMillis;
+    }
+
+    /**
+     * Parses decimal digits up to the separator and moves after it
+     * @return Parsed value or -1
+     */
+    private long parseNumber(char separator) {
+        long value = 0;
+        int position = this.parsePosition;
+        final int start = position;
+        while ((position < this.lineLength) && (this.line[position] != separator)) {
+            final int digit = this.line[position] - '0';
+            if ((digit < 0) || (digit > 9) || (position - start >= 18))
+                return -1;
+            value = value * 10 + digit;
+            ++position;
+        }
+        if ((position == start) || (position == this.lineLength))
+            return -1;
+
+        this.parsePosition = position + 1;
+        return value;
+    }
+
+    private TraceLevel parseTraceLevel() {
+        int end = this.parsePosition;
+        while ((end < this.lineLength) && (this.line[end] != '\t'))
+            ++end;
+        if (end == this.lineLength)
+            return null;
+
+        for (TraceLevel traceLevel : TraceLevel.values()) {
+            final byte[] name = TRACE_LEVEL_NAMES[traceLevel.ordinal()];
+            if ((name.length == end - this.parsePosition) && (isEqual(name, this.parsePosition))) {
+                this.parsePosition = end + 1;
+                return traceLevel;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * "[prefix]\t" is taken as the prefix written by the layouts
+     */
+    private void parsePrefixAndMessage() {
+        int messageStart = this.parsePosition;
+        this.nextPrefix = null;
+        if ((messageStart < this.lineLength) && (this.line[messageStart] == '[')) {
+            for (int position = messageStart + 1; position + 1 < this.lineLength; ++position) {
+                if ((this.line[position] == ']') && (this.line[position + 1] == '\t')) {
+                    this.nextPrefix = new String(this.line, messageStart + 1, position - messageStart - 1, this.charset);
+                    messageStart = position + 2;
+                    break;
+                }
+            }
+        }
+        this.nextMessage = new String(this.line, messageStart, this.lineLength - messageStart, this.charset);
+    }
+
+    private boolean isEqual(byte[] bytes, int position) {
+        for (int index = 0; index < bytes.length; ++index) {
+            if (this.line[position + index] != bytes[index])
+                return false;
+        }
+        return true;
+    }
+
+    private long toEpochMillis(long localTimeMillis) {
+        return toEpochMillis(this.timeZone, localTimeMillis);
+    }
+
+    static long toEpochMillis(TimeZone timeZone, long localTimeMillis) {
+        return localTimeMillis - timeZone.getOffset(localTimeMillis - timeZone.getOffset(localTimeMillis));
+    }
+
+    /**
+     * Parses ProductTracer file name "prefix_year.month.day_hours:minutes:seconds:milliseconds...", where month starts from 0
+     * @return Local time of the file creation or -1 if it is not a ProductTracer file name
+     */
+    static long getTraceFileLocalStartMillis(String filename) {
+        final int datePartStart = filename.startsWith(ProductTracer.PROCESSING_FILE_TRACE_PREFIX)
+                ? ProductTracer.PROCESSING_FILE_TRACE_PREFIX.length()
+                : filename.startsWith(ProductTracer.TRACE_FILE_PREFIX) ? ProductTracer.TRACE_FILE_PREFIX.length() : -1;
+        if (datePartStart < 0)
+            return -1;
+
+        final char[] separators = {'.', '.', '_', ':', ':', ':', '.'};
+        long[] values = new long[separators.length];
+        int position = datePartStart;
+        for (int valueIndex = 0; valueIndex < separators.length; ++valueIndex) {
+            final int start = position;
+            long value = 0;
+            while ((position < filename.length()) && (position - start < 9) && (Character.isDigit(filename.charAt(position))))
+                value = value * 10 + (filename.charAt(position++) - '0');
+            if ((position == start) || (position == filename.length()) || (filename.charAt(position) != separators[valueIndex]))
+                return -1;
+            values[valueIndex] = value;
+            ++position;
+        }
+        if ((values[1] > 11) || (values[2] < 1))
+            return -1;
+
+        return getEpochDay(values[0], values[1] + 1, values[2]) * MILLISECONDS_IN_DAY
+                + getMillisOfDay(values[3], values[4], values[5], values[6]);
+    }
+
+    /**
+     * @return Local start of the day from ProductTracer file name or the file modification day
+     */
+    private long getFileDayStartMillis(File traceFile) {
+        final long fileStartMillis = getTraceFileLocalStartMillis(traceFile.getName());
+        if (fileStartMillis >= 0)
+            return fileStartMillis - fileStartMillis % MILLISECONDS_IN_DAY;
+
+        final Calendar modificationTime = new GregorianCalendar();
+        modificationTime.setTimeInMillis(traceFile.lastModified());
+        return getEpochDay(modificationTime.get(Calendar.YEAR), modificationTime.get(Calendar.MONTH) + 1
+                , modificationTime.get(Calendar.DAY_OF_MONTH)) * MILLISECONDS_IN_DAY;
+    }
+
+    private static long getMillisOfDay(long hours, long minutes, long seconds, long milliseconds) {
+        return ((hours * 60 + minutes) * 60 + seconds) * 1000 + milliseconds;
+    }
+
+    /* Days since epoch of a date in proleptic Gregorian calendar */
+    private static long getEpochDay(long year, long month, long day) {
+        final long shiftedYear = (month <= 2) ? year - 1 : year;
+        final long era = Math.floorDiv(shiftedYear, 400);
+        final long yearOfEra = shiftedYear - era * 400;
+        final long dayOfYear = (153 * ((month > 2) ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        final long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    private static byte[][] getTraceLevelNames() {
+        final TraceLevel[] traceLevels = TraceLevel.values();
+        byte[][] names = new byte[traceLevels.length][];
+        for (TraceLevel traceLevel : traceLevels)
+            names[traceLevel.ordinal()] = traceLevel.name().getBytes(StandardCharsets.US_ASCII);
+        return names;
+    }
+}
@@ -0,0 +1,98 @@
+package com.arz_x.tracer;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Created by Rihter on 19.10.2026.
+ * Files of one logical trace file: the file itself and additional shards "name.shardN.log" of ShardedFileTracer,
+ * each with its TraceFileIndex if it is written. ProductTracer sizes, renames and deletes them together
+ */
+class TraceFileSet {
+    private static final String TRACE_FILE_EXTENSION = ".log";
+    private static final String SHARD_SUFFIX = ".shard";
+
+    /**
+     * @param shardIndex 0 is the logical file itself
+     */
+    static File getShardFile(File logicalFile, int shardIndex) {
+        if (shardIndex == 0)
+            return logicalFile;
+
+        final String name = logicalFile.getName();
+        final String shardName = name.endsWith(TRACE_FILE_EXTENSION)
+                ? name.substring(0, name.length() - TRACE_FILE_EXTENSION.length()) + SHARD_SUFFIX + shardIndex + TRACE_FILE_EXTENSION
+                : name + SHARD_SUFFIX + shardIndex;
+        return new File(logicalFile.getParentFile(), shardName);
+    }
+
+    /**
+     * @return True for a trace file which is not an additional shard, regardless of its prefix
+     */
+    static boolean isLogicalTraceFile(String filename) {
+        return (filename.endsWith(TRACE_FILE_EXTENSION)) && (!isAdditionalShardFile(filename));
+    }
+
+    static boolean isAdditionalShardFile(String filename) {
+        if (!filename.endsWith(TRACE_FILE_EXTENSION))
+            return false;
+
+        final int digitsEnd = filename.length() - TRACE_FILE_EXTENSION.length();
+        int digitsStart = digitsEnd;
+        while ((digitsStart > 0) && (Character.isDigit(filename.charAt(digitsStart - 1))))
+            --digitsStart;
+
+        return (digitsStart < digitsEnd)
+                && (filename.startsWith(SHARD_SUFFIX, digitsStart - SHARD_SUFFIX.length()));
+    }
+
+    /**
+     * @return Existing trace files of the logical file starting from the logical file itself, without indexes
+     */
+    static List<File> getExistingFiles(File logicalFile) {
+        List<File> files = new ArrayList<>();
+        if (logicalFile.exists())
+            files.add(logicalFile);
+
+        // shards are created together, so the first missing one ends them
+        for (int shardIndex = 1; ; ++shardIndex) {
+            final File shardFile = getShardFile(logicalFile, shardIndex);
+            if (!shardFile.exists())
+                break;
+            files.add(shardFile);
+        }
+        return files;
+    }
+
+    static long getSize(File logicalFile) {
+        long size = 0;
+        for (File file : getExistingFiles(logicalFile))
+            size += file.length() + TraceFileIndex.getIndexFile(file).length();
+        return size;
+    }
+
+    static void delete(File logicalFile) {
+        for (File file : getExistingFiles(logicalFile)) {
+            // the same as for single files, failures are ignored
+            file.delete();
+            TraceFileIndex.getIndexFile(file).delete();
+        }
+    }
+
+    /**
+     * @return False if the logical file itself was not renamed
+     */
+    static boolean rename(File logicalFile, File newLogicalFile) {
+        for (int shardIndex = 1; getShardFile(logicalFile, shardIndex).exists(); ++shardIndex)
+            renameWithIndex(getShardFile(logicalFile, shardIndex), getShardFile(newLogicalFile, shardIndex));
+        return renameWithIndex(logicalFile, newLogicalFile);
+    }
+
+    private static boolean renameWithIndex(File file, File newFile) {
+        final File indexFile = TraceFileIndex.getIndexFile(file);
+        if (indexFile.exists())
+            indexFile.renameTo(TraceFileIndex.getIndexFile(newFile));
+        return file.renameTo(newFile);
+    }
+}
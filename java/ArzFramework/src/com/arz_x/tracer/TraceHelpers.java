@@ -5,6 +5,7 @@ import com.arz_x.IExceptionResultCodeGetter;
 import com.arz_x.ResultCodeException;
 import com.arz_x.common.helpers.Contract;
 import com.arz_x.common.helpers.StringHelper;
+import com.arz_x.common.result_statistics.ResultCodeStatistics;
 
 /**
  * Created by Rihter on 07.01.2016.
@@ -19,6 +20,9 @@ public class TraceHelpers {
     public static void traceException(ITracer tracer, TraceLevel traceLevel, Throwable exception) {
         Contract.requireNotNull(exception);
 
+        if (exception instanceof IExceptionResultCodeGetter)
+            ResultCodeStatistics.onResultCodeTraced(((IExceptionResultCodeGetter) exception).getRawResultCode());
+
         if (tracer == null)
             return;
 
@@ -0,0 +1,331 @@
+package com.arz_x.tracer;
+
+import com.arz_x.CommonException;
+import com.arz_x.CommonResultCode;
+import com.arz_x.common.helpers.Contract;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * Created by Rihter on 19.10.2026.
+ * Layout of a trace line, compiled once into segment writers which append straight to a byte buffer.
+ *
+ * Pattern is a text with tokens in braces, "{{" is a literal brace:
+ * - {time:FORMAT} local time, FORMAT letters: yyyy or yy, MM, dd, HH or H, mm or m, ss or s, SSS or S,
+ *   other chars are copied; a single letter is not padded with zeros
+ * - {level} trace level name
+ * - {threadId}, {threadName} current thread
+ * - {prefix} component prefix given by PrefixTracer; {prefix:DECORATION} writes DECORATION with %s replaced
+ *   by the prefix, nothing is written for messages without prefix
+ * - {message} trace message
+ * - {field:NAME} custom field value, resolved when the layout is compiled
+ */
+public class TraceLayout {
+    /* Line format of the tracers before layouts were introduced */
+    public static final String DEFAULT_PATTERN = "{time:H:m:s:S}\t{threadId}\t{prefix:[%s]\t}{message}\n";
+    /* Line format with date and level, TraceFileReader parses it besides the default one */
+    public static final String RECORD_PATTERN = "{time:yyyy-MM-dd HH:mm:ss.SSS}\t{threadId}\t{level}\t{prefix:[%s]\t}{message}\n";
+
+    private static final long MILLISECONDS_IN_DAY = 24 * 60 * 60 * 1000L;
+
+    private interface ISegmentWriter {
+        void write(TraceLineBuffer buffer, long localTimeMillis, TraceLevel traceLevel, String prefix, String message);
+    }
+
+    private final ISegmentWriter[] segmentWriters;
+    private final Charset charset;
+    private final TimeZone timeZone;
+
+    private TraceLayout(ISegmentWriter[] segmentWriters, Charset charset, TimeZone timeZone) {
+        this.segmentWriters = segmentWriters;
+        this.charset = charset;
+        this.timeZone = timeZone;
+    }
+
+    public static TraceLayout compile(String pattern) {
+        return compile(pattern, Collections.<String, String>emptyMap(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param pattern Layout pattern, see the class description
+     * @param fields Values of {field:NAME} tokens
+     * @param charset Charset of the trace file
+     */
+    public static TraceLayout compile(String pattern, Map<String, String> fields, Charset charset) {
+        Contract.requireNotNull(pattern, fields, charset);
+        return new LayoutCompiler(fields, charset).compile(pattern);
+    }
+
+    public Charset getCharset() {
+        return this.charset;
+    }
+
+    TraceLineBuffer createLineBuffer() {
+        return new TraceLineBuffer(this.charset);
+    }
+
+    /**
+     * Appends a line to the buffer
+     * @param prefix Component prefix, null if there is no prefix
+     */
+    void write(TraceLineBuffer buffer, TraceLevel traceLevel, String prefix, String message) {
+        write(buffer, System.currentTimeMillis(), traceLevel, prefix, message);
+    }
+
+    /**
+     * Appends a line with the given time, for tracers which need the line time themselves
+     */
+    void write(TraceLineBuffer buffer, long currentTimeMillis, TraceLevel traceLevel, String prefix, String message) {
+        final long localTimeMillis = currentTimeMillis + this.timeZone.getOffset(currentTimeMillis);
+
+        for (ISegmentWriter segmentWriter : this.segmentWriters)
+            segmentWriter.write(buffer, localTimeMillis, traceLevel, prefix, message);
+    }
+
+    private static class LayoutCompiler {
+        private final Map<String, String> fields;
+        private final Charset charset;
+        private final List<ISegmentWriter> segmentWriters;
+        private final StringBuilder literal;
+
+        LayoutCompiler(Map<String, String> fields, Charset charset) {
+            this.fields = fields;
+            this.charset = charset;
+            this.segmentWriters = new ArrayList<>();
+            this.literal = new StringBuilder();
+        }
+
+        TraceLayout compile(String pattern) {
+            int position = 0;
+            while (position < pattern.length()) {
+                final char character = pattern.charAt(position);
+                if (character != '{') {
+                    this.literal.append(character);
+                    ++position;
+                    continue;
+                }
+                if ((position + 1 < pattern.length()) && (pattern.charAt(position + 1) == '{')) {
+                    this.literal.append('{');
+                    position += 2;
+                    continue;
+                }
+
+                final int tokenEnd = pattern.indexOf('}', position);
+                if (tokenEnd < 0)
+                    throw new CommonException(CommonResultCode.InvalidParameter, "Not closed token in trace layout: " + pattern);
+                compileToken(pattern.substring(position + 1, tokenEnd));
+                position = tokenEnd + 1;
+            }
+            flushLiteral();
+
+            return new TraceLayout(this.segmentWriters.toArray(new ISegmentWriter[0]), this.charset, TimeZone.getDefault());
+        }
+
+        private void compileToken(String token) {
+            final int argumentIndex = token.indexOf(':');
+            final String name = (argumentIndex < 0) ? token : token.substring(0, argumentIndex);
+            final String argument = (argumentIndex < 0) ? null : token.substring(argumentIndex + 1);
+
+            switch (name) {
+                case "time":
+                    compileTime((argument != null) ? argument : "HH:mm:ss.SSS");
+                    break;
+                case "level":
+                    addSegmentWriter(new LevelSegmentWriter(this.charset));
+                    break;
+                case "threadId":
+                    addSegmentWriter(new ThreadIdSegmentWriter());
+                    break;
+                case "threadName":
+                    addSegmentWriter(new ThreadNameSegmentWriter());
+                    break;
+                case "prefix":
+                    addSegmentWriter(createPrefixSegmentWriter(argument));
+                    break;
+                case "message":
+                    addSegmentWriter(new MessageSegmentWriter());
+                    break;
+                case "field":
+                    final String value = (argument != null) ? this.fields.get(argument) : null;
+                    if (value == null)
+                        throw new CommonException(CommonResultCode.InvalidParameter, "Unknown trace layout field: " + token);
+                    this.literal.append(value);
+                    break;
+                default:
+                    throw new CommonException(CommonResultCode.InvalidParameter, "Unknown trace layout token: " + token);
+            }
+        }
+
+        private void compileTime(String format) {
+            int position = 0;
+            while (position < format.length()) {
+                final char letter = format.charAt(position);
+                int letterEnd = position;
+                while ((letterEnd < format.length()) && (format.charAt(letterEnd) == letter))
+                    ++letterEnd;
+                final int width = letterEnd - position;
+
+                switch (letter) {
+                    case 'y': addSegmentWriter(new TimeSegmentWriter(TimeSegmentWriter.YEAR, width)); break;
+                    case 'M': addSegmentWriter(new TimeSegmentWriter(TimeSegmentWriter.MONTH, width)); break;
+                    case 'd': addSegmentWriter(new TimeSegmentWriter(TimeSegmentWriter.DAY, width)); break;
+                    case 'H': addSegmentWriter(new TimeSegmentWriter(TimeSegmentWriter.HOUR, width)); break;
+                    case 'm': addSegmentWriter(new TimeSegmentWriter(TimeSegmentWriter.MINUTE, width)); break;
+                    case 's': addSegmentWriter(new TimeSegmentWriter(TimeSegmentWriter.SECOND, width)); break;
+                    case 'S': addSegmentWriter(new TimeSegmentWriter(TimeSegmentWriter.MILLISECOND, width)); break;
+                    default:
+                        this.literal.append(format, position, letterEnd);
+                        break;
+                }
+                position = letterEnd;
+            }
+        }
+
+        private ISegmentWriter createPrefixSegmentWriter(String decoration) {
+            if (decoration == null)
+                return new PrefixSegmentWriter(new byte[0], new byte[0]);
+
+            final int prefixIndex = decoration.indexOf("%s");
+            if (prefixIndex < 0)
+                throw new CommonException(CommonResultCode.InvalidParameter, "Prefix decoration must contain %s: " + decoration);
+            return new PrefixSegmentWriter(decoration.substring(0, prefixIndex).getBytes(this.charset)
+                    , decoration.substring(prefixIndex + 2).getBytes(this.charset));
+        }
+
+        private void addSegmentWriter(ISegmentWriter segmentWriter) {
+            flushLiteral();
+            this.segmentWriters.add(segmentWriter);
+        }
+
+        private void flushLiteral() {
+            if (this.literal.length() == 0)
+                return;
+            this.segmentWriters.add(new LiteralSegmentWriter(this.literal.toString().getBytes(this.charset)));
+            this.literal.setLength(0);
+        }
+    }
+
+    private static class LiteralSegmentWriter implements ISegmentWriter {
+        private final byte[] bytes;
+
+        LiteralSegmentWriter(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        @Override
+        public void write(TraceLineBuffer buffer, long localTimeMillis, TraceLevel traceLevel, String prefix, String message) {
+            buffer.appendBytes(this.bytes);
+        }
+    }
+
+    private static class TimeSegmentWriter implements ISegmentWriter {
+        static final int YEAR = 0;
+        static final int MONTH = 1;
+        static final int DAY = 2;
+        static final int HOUR = 3;
+        static final int MINUTE = 4;
+        static final int SECOND = 5;
+        static final int MILLISECOND = 6;
+
+        private final int field;
+        private final int width;
+
+        TimeSegmentWriter(int field, int width) {
+            this.field = field;
+            this.width = width;
+        }
+
+        @Override
+        public void write(TraceLineBuffer buffer, long localTimeMillis, TraceLevel traceLevel, String prefix, String message) {
+            final long millisOfDay = Math.floorMod(localTimeMillis, MILLISECONDS_IN_DAY);
+            switch (this.field) {
+                case HOUR: buffer.appendDecimal(millisOfDay / (60 * 60 * 1000), this.width); break;
+                case MINUTE: buffer.appendDecimal(millisOfDay / (60 * 1000) % 60, this.width); break;
+                case SECOND: buffer.appendDecimal(millisOfDay / 1000 % 60, this.width); break;
+                case MILLISECOND: buffer.appendDecimal(millisOfDay % 1000, this.width); break;
+                default: writeDateField(buffer, Math.floorDiv(localTimeMillis, MILLISECONDS_IN_DAY)); break;
+            }
+        }
+
+        /* Civil date from days since epoch in proleptic Gregorian calendar, without Calendar instances */
+        private void writeDateField(TraceLineBuffer buffer, long epochDay) {
+            final long shiftedDay = epochDay + 719468;
+            final long era = Math.floorDiv(shiftedDay, 146097);
+            final long dayOfEra = shiftedDay - era * 146097;
+            final long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+            final long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+            final long shiftedMonth = (5 * dayOfYear + 2) / 153;
+            final long day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+            final long month = (shiftedMonth < 10) ? shiftedMonth + 3 : shiftedMonth - 9;
+            final long year = yearOfEra + era * 400 + ((month <= 2) ? 1 : 0);
+
+            switch (this.field) {
+                case YEAR: buffer.appendDecimal((this.width == 2) ? year % 100 : year, this.width); break;
+                case MONTH: buffer.appendDecimal(month, this.width); break;
+                default: buffer.appendDecimal(day, this.width); break;
+            }
+        }
+    }
+
+    private static class LevelSegmentWriter implements ISegmentWriter {
+        private final byte[][] levelNames;
+
+        LevelSegmentWriter(Charset charset) {
+            final TraceLevel[] traceLevels = TraceLevel.values();
+            this.levelNames = new byte[traceLevels.length][];
+            for (TraceLevel traceLevel : traceLevels)
+                this.levelNames[traceLevel.ordinal()] = traceLevel.name().getBytes(charset);
+        }
+
+        @Override
+        public void write(TraceLineBuffer buffer, long localTimeMillis, TraceLevel traceLevel, String prefix, String message) {
+            buffer.appendBytes(this.levelNames[traceLevel.ordinal()]);
+        }
+    }
+
+    private static class ThreadIdSegmentWriter implements ISegmentWriter {
+        @Override
+        public void write(TraceLineBuffer buffer, long localTimeMillis, TraceLevel traceLevel, String prefix, String message) {
+            buffer.appendDecimal(Thread.currentThread().getId(), 1);
+        }
+    }
+
+    private static class ThreadNameSegmentWriter implements ISegmentWriter {
+        @Override
+        public void write(TraceLineBuffer buffer, long localTimeMillis, TraceLevel traceLevel, String prefix, String message) {
+            buffer.appendString(Thread.currentThread().getName());
+        }
+    }
+
+    private static class PrefixSegmentWriter implements ISegmentWriter {
+        private final byte[] beforePrefix;
+        private final byte[] afterPrefix;
+
+        PrefixSegmentWriter(byte[] beforePrefix, byte[] afterPrefix) {
+            this.beforePrefix = beforePrefix;
+            this.afterPrefix = afterPrefix;
+        }
+
+        @Override
+        public void write(TraceLineBuffer buffer, long localTimeMillis, TraceLevel traceLevel, String prefix, String message) {
+            if (prefix == null)
+                return;
+            buffer.appendBytes(this.beforePrefix);
+            buffer.appendString(prefix);
+            buffer.appendBytes(this.afterPrefix);
+        }
+    }
+
+    private static class MessageSegmentWriter implements ISegmentWriter {
+        @Override
+        public void write(TraceLineBuffer buffer, long localTimeMillis, TraceLevel traceLevel, String prefix, String message) {
+            buffer.appendString((message != null) ? message : "null");
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.arz_x.tracer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Created by Rihter on 19.10.2026.
+ * Reusable byte buffer for a trace line. Strings are encoded straight into it, UTF-8 without intermediate arrays.
+ * Not thread safe: owned by a tracer and used under its lock
+ */
+class TraceLineBuffer {
+    private static final int INITIAL_CAPACITY = 256;
+    /* Buffer grown by a huge message is not kept for the next lines */
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+    private final Charset charset;
+    private final boolean isUtf8;
+
+    private byte[] bytes;
+    private int size;
+
+    TraceLineBuffer(Charset charset) {
+        this.charset = charset;
+        this.isUtf8 = StandardCharsets.UTF_8.equals(charset);
+        this.bytes = new byte[INITIAL_CAPACITY];
+    }
+
+    Charset getCharset() {
+        return this.charset;
+    }
+
+    int getSize() {
+        return this.size;
+    }
+
+    void reset() {
+        if (this.bytes.length > MAX_RETAINED_CAPACITY)
+            this.bytes = new byte[INITIAL_CAPACITY];
+        this.size = 0;
+    }
+
+    void writeTo(OutputStream stream) throws IOException {
+        stream.write(this.bytes, 0, this.size);
+    }
+
+    void appendBytes(byte[] source) {
+        appendBytes(source, 0, source.length);
+    }
+
+    void appendBytes(byte[] source, int offset, int length) {
+        ensureCapacity(length);
+        System.arraycopy(source, offset, this.bytes, this.size, length);
+        this.size += length;
+    }
+
+    /**
+     * Gives the content to code that copies it elsewhere, valid until the next append
+     */
+    byte[] getBytes() {
+        return this.bytes;
+    }
+
+    /**
+     * @param value Not negative value
+     * @param minWidth Value is padded with zeros up to this number of digits
+     */
+    void appendDecimal(long value, int minWidth) {
+        int digits = 1;
+        for (long rest = value / 10; rest != 0; rest /= 10)
+            ++digits;
+        final int width = Math.max(digits, minWidth);
+
+        ensureCapacity(width);
+        long rest = value;
+        for (int position = this.size + width - 1; position >= this.size; --position) {
+            this.bytes[position] = (byte) ('0' + (rest % 10));
+            rest /= 10;
+        }
+        this.size += width;
+    }
+
+    void appendString(String string) {
+        if (!this.isUtf8) {
+            appendBytes(string.getBytes(this.charset));
+            return;
+        }
+
+        final int length = string.length();
+        // no char takes more than 3 bytes, surrogate pair takes 4 bytes for 2 chars
+        ensureCapacity(length * 3);
+
+        final byte[] buffer = this.bytes;
+        int position = this.size;
+        for (int index = 0; index < length; ++index) {
+            final char character = string.charAt(index);
+            if (character < 0x80) {
+                buffer[position++] = (byte) character;
+            } else if (character < 0x800) {
+                buffer[position++] = (byte) (0xc0 | (character >> 6));
+                buffer[position++] = (byte) (0x80 | (character & 0x3f));
+            } else if (Character.isHighSurrogate(character)
+                    && (index + 1 < length)
+                    && (Character.isLowSurrogate(string.charAt(index + 1)))) {
+                final int codePoint = Character.toCodePoint(character, string.charAt(++index));
+                buffer[position++] = (byte) (0xf0 | (codePoint >> 18));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+                buffer[position++] = (byte) (0x80 | (codePoint & 0x3f));
+            } else if (Character.isSurrogate(character)) {
+                // the same replacement as String.getBytes does
+                buffer[position++] = (byte) '?';
+            } else {
+                buffer[position++] = (byte) (0xe0 | (character >> 12));
+                buffer[position++] = (byte) (0x80 | ((character >> 6) & 0x3f));
+                buffer[position++] = (byte) (0x80 | (character & 0x3f));
+            }
+        }
+        this.size = position;
+    }
+
+    private void ensureCapacity(int additionalSize) {
+        final int requiredCapacity = this.size + additionalSize;
+        if (requiredCapacity > this.bytes.length)
+            this.bytes = Arrays.copyOf(this.bytes, Math.max(requiredCapacity, this.bytes.length * 2));
+    }
+}
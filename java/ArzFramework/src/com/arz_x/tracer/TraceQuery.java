@@ -0,0 +1,60 @@
+package com.arz_x.tracer;
+
+/**
+ * Created by Rihter on 19.10.2026.
+ * Filter of trace records. Default query matches all records
+ */
+public class TraceQuery {
+    public static final long ANY_THREAD_ID = -1;
+
+    public TraceQuery() {
+        this.minTraceLevel = null;
+        this.fromTimeMillis = Long.MIN_VALUE;
+        this.toTimeMillis = Long.MAX_VALUE;
+        this.threadId = ANY_THREAD_ID;
+        this.prefix = null;
+    }
+
+    public TraceQuery(TraceLevel minTraceLevel
+            , long fromTimeMillis
+            , long toTimeMillis
+            , long threadId
+            , String prefix) {
+        this.minTraceLevel = minTraceLevel;
+        this.fromTimeMillis = fromTimeMillis;
+        this.toTimeMillis = toTimeMillis;
+        this.threadId = threadId;
+        this.prefix = prefix;
+    }
+
+    /*Records with lower level are skipped, null for any level.
+     * Records of layouts without level (e.g. TraceLayout.DEFAULT_PATTERN) can't be filtered by level and always match*/
+    public TraceLevel minTraceLevel;
+
+    /*Inclusive start of the time range in milliseconds since epoch*/
+    public long fromTimeMillis;
+
+    /*Exclusive end of the time range in milliseconds since epoch*/
+    public long toTimeMillis;
+
+    /*Thread that traced the record or ANY_THREAD_ID*/
+    public long threadId;
+
+    /*Exact prefix of the record, null for any prefix*/
+    public String prefix;
+
+    public boolean isMatched(TraceRecord record) {
+        if ((this.minTraceLevel != null)
+                && (record.getTraceLevel() != null)
+                && (record.getTraceLevel().getValue() < this.minTraceLevel.getValue()))
+            return false;
+
+        if ((record.getTimeMillis() < this.fromTimeMillis) || (record.getTimeMillis() >= this.toTimeMillis))
+            return false;
+
+        if ((this.threadId != ANY_THREAD_ID) && (record.getThreadId() != this.threadId))
+            return false;
+
+        return (this.prefix == null) || (this.prefix.equals(record.getPrefix()));
+    }
+}
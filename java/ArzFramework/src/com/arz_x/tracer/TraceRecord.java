@@ -0,0 +1,47 @@
+package com.arz_x.tracer;
+
+/**
+ * Created by Rihter on 19.10.2026.
+ * Trace line read back from a trace file, with continuation lines of a multi-line message
+ */
+public class TraceRecord {
+    private final long timeMillis;
+    private final long threadId;
+    private final TraceLevel traceLevel;
+    private final String prefix;
+    private final String message;
+
+    public TraceRecord(long timeMillis, long threadId, TraceLevel traceLevel, String prefix, String message) {
+        this.timeMillis = timeMillis;
+        this.threadId = threadId;
+        this.traceLevel = traceLevel;
+        this.prefix = prefix;
+        this.message = message;
+    }
+
+    public long getTimeMillis() {
+        return this.timeMillis;
+    }
+
+    public long getThreadId() {
+        return this.threadId;
+    }
+
+    /**
+     * @return Null if the layout of the file has no level
+     */
+    public TraceLevel getTraceLevel() {
+        return this.traceLevel;
+    }
+
+    /**
+     * @return Null if the message was traced without prefix
+     */
+    public String getPrefix() {
+        return this.prefix;
+    }
+
+    public String getMessage() {
+        return this.message;
+    }
+}
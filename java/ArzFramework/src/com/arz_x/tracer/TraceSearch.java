@@ -0,0 +1,208 @@
+package com.arz_x.tracer;
+
+import com.arz_x.common.helpers.Contract;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Created by Rihter on 19.10.2026.
+ * Parallel search over all trace files of a ProductTracer directory.
+ * Files with dated lines or TraceFileIndex are split into chunks which are read through memory-mapped windows
+ * on a fork-join pool, each chunk owning records whose header starts within it. Other files are read as one chunk,
+ * since the date of their lines is known from the start of the file only.
+ *
+ * Matches of each chunk are sorted by time and merged on join, so the result is ordered by time,
+ * records with the same time keep the order of files and chunks
+ */
+public class TraceSearch {
+
+    public static class Settings {
+        public static final int DEFAULT_CHUNK_SIZE = 8 * 1024 * 1024;
+
+        public Settings() {
+            this.chunkSize = DEFAULT_CHUNK_SIZE;
+            this.parallelism = Runtime.getRuntime().availableProcessors();
+            this.charset = StandardCharsets.UTF_8;
+        }
+
+        public Settings(int chunkSize, int parallelism, Charset charset) {
+            this.chunkSize = chunkSize;
+            this.parallelism = parallelism;
+            this.charset = charset;
+        }
+
+        /*Size of a file part which is read by one task*/
+        public int chunkSize;
+
+        /*Number of threads reading chunks*/
+        public int parallelism;
+
+        /*Charset of trace files*/
+        public Charset charset;
+    }
+
+    private static class Chunk {
+        final File traceFile;
+        final long startOffset;
+        final long endOffset;
+
+        Chunk(File traceFile, long startOffset, long endOffset) {
+            this.traceFile = traceFile;
+            this.startOffset = startOffset;
+            this.endOffset = endOffset;
+        }
+    }
+
+    private static final Comparator<TraceRecord> TIME_ORDER_COMPARATOR = new Comparator<TraceRecord>() {
+        @Override
+        public int compare(TraceRecord first, TraceRecord second) {
+            return Long.compare(first.getTimeMillis(), second.getTimeMillis());
+        }
+    };
+
+    /**
+     * Searches chunks of the range, splitting it in halves down to single chunks
+     */
+    private class SearchTask extends RecursiveTask<List<TraceRecord>> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Chunk> chunks;
+        private final int startIndex;
+        private final int endIndex;
+        private final TraceQuery query;
+        private final String substring;
+
+        SearchTask(List<Chunk> chunks, int startIndex, int endIndex, TraceQuery query, String substring) {
+            this.chunks = chunks;
+            this.startIndex = startIndex;
+            this.endIndex = endIndex;
+            this.query = query;
+            this.substring = substring;
+        }
+
+        @Override
+        protected List<TraceRecord> compute() {
+            if (this.endIndex - this.startIndex == 1)
+                return searchChunk(this.chunks.get(this.startIndex), this.query, this.substring);
+
+            final int middleIndex = (this.startIndex + this.endIndex) >>> 1;
+            final SearchTask secondHalfTask = new SearchTask(this.chunks, middleIndex, this.endIndex, this.query, this.substring);
+            secondHalfTask.fork();
+            final List<TraceRecord> firstHalfRecords = new SearchTask(this.chunks, this.startIndex, middleIndex, this.query, this.substring).compute();
+            return merge(firstHalfRecords, secondHalfTask.join());
+        }
+    }
+
+    private final int chunkSize;
+    private final int parallelism;
+    private final Charset charset;
+
+    public TraceSearch(Settings settings) {
+        Contract.requireNotNull(settings);
+        Contract.requireNotNull(settings.charset);
+        Contract.requireTrue((settings.chunkSize > 0) && (settings.parallelism > 0));
+
+        this.chunkSize = settings.chunkSize;
+        this.parallelism = settings.parallelism;
+        this.charset = settings.charset;
+    }
+
+    public TraceSearch() {
+        this(new Settings());
+    }
+
+    /**
+     * @param query Filter of records, including the minimum level
+     * @param substring Substring of matched messages or null for any message
+     * @return Matched records ordered by time
+     */
+    public List<TraceRecord> search(String tracesDirectory, TraceQuery query, String substring) throws IOException {
+        Contract.requireNotNull(tracesDirectory, query);
+
+        final List<Chunk> chunks = new ArrayList<>();
+        for (File logicalFile : TraceDirectoryReader.getTraceFiles(tracesDirectory, query.fromTimeMillis, query.toTimeMillis)) {
+            for (File traceFile : TraceFileSet.getExistingFiles(logicalFile))
+                addChunks(traceFile, query.fromTimeMillis, chunks);
+        }
+        if (chunks.isEmpty())
+            return new ArrayList<>();
+
+        final ForkJoinPool pool = new ForkJoinPool(this.parallelism);
+        try {
+            return pool.invoke(new SearchTask(chunks, 0, chunks.size(), query, substring));
+        } catch (UncheckedIOException exp) {
+            throw exp.getCause();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private void addChunks(File traceFile, long fromTimeMillis, List<Chunk> chunks) throws IOException {
+        final long fileSize = traceFile.length();
+        final boolean hasIndex = TraceFileIndex.getIndexFile(traceFile).isFile();
+        try {
+            if ((!hasIndex) && (!TraceFileReader.isDatedFile(traceFile, this.charset))) {
+                chunks.add(new Chunk(traceFile, 0, Long.MAX_VALUE));
+                return;
+            }
+        } catch (NoSuchFileException exp) {
+            // the file was removed by ProductTracer quota meanwhile
+            return;
+        }
+
+        long startOffset = 0;
+        final TraceFileIndex.Entry indexEntry = hasIndex ? TraceFileIndex.findEntry(traceFile, fromTimeMillis) : null;
+        if ((indexEntry != null) && (indexEntry.offset <= fileSize))
+            startOffset = indexEntry.offset;
+
+        // the last chunk takes lines written after the file size was read
+        for (; startOffset + this.chunkSize < fileSize; startOffset += this.chunkSize)
+            chunks.add(new Chunk(traceFile, startOffset, startOffset + this.chunkSize));
+        chunks.add(new Chunk(traceFile, startOffset, Long.MAX_VALUE));
+    }
+
+    private List<TraceRecord> searchChunk(Chunk chunk, TraceQuery query, String substring) {
+        List<TraceRecord> records = new ArrayList<>();
+        try (TraceFileReader reader = new TraceFileReader(chunk.traceFile, this.charset, chunk.startOffset, chunk.endOffset)) {
+            TraceRecord record;
+            while ((record = reader.readRecord()) != null) {
+                if ((query.isMatched(record)) && ((substring == null) || (record.getMessage().contains(substring))))
+                    records.add(record);
+            }
+        } catch (NoSuchFileException exp) {
+            // the file was removed by ProductTracer quota meanwhile
+        } catch (IOException exp) {
+            throw new UncheckedIOException(exp);
+        }
+
+        // lines of different threads may be written slightly out of order
+        Collections.sort(records, TIME_ORDER_COMPARATOR);
+        return records;
+    }
+
+    private static List<TraceRecord> merge(List<TraceRecord> firstRecords, List<TraceRecord> secondRecords) {
+        List<TraceRecord> records = new ArrayList<>(firstRecords.size() + secondRecords.size());
+        int firstIndex = 0;
+        int secondIndex = 0;
+        while ((firstIndex < firstRecords.size()) && (secondIndex < secondRecords.size())) {
+            if (secondRecords.get(secondIndex).getTimeMillis() < firstRecords.get(firstIndex).getTimeMillis())
+                records.add(secondRecords.get(secondIndex++));
+            else
+                records.add(firstRecords.get(firstIndex++));
+        }
+        records.addAll(firstRecords.subList(firstIndex, firstRecords.size()));
+        records.addAll(secondRecords.subList(secondIndex, secondRecords.size()));
+        return records;
+    }
+}
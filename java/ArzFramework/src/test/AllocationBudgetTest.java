@@ -0,0 +1,137 @@
+import com.arz_x.common.helpers.Contract;
+import com.arz_x.common.service_container.InstantiateConstructor;
+import com.arz_x.common.service_container.ServiceContainer;
+import com.arz_x.common.service_container.ServiceKey;
+import com.arz_x.tracer.ITracer;
+import com.arz_x.tracer.PrefixTracer;
+import com.arz_x.tracer.SynchronizedFileTracer;
+import com.arz_x.tracer.TraceLevel;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+
+/**
+ * Created by Rihter on 19.10.2026.
+ * Fails when a change adds allocation to the hot paths.
+ * Budgets are average bytes per call measured after JIT warmup
+ */
+public class AllocationBudgetTest {
+    private static final String DUMMY_TRACE_MESSAGE = "Dummy trace message";
+
+    private static final double NO_ALLOCATION_BUDGET = 1;
+
+    private static final File TEMPORARY_FOLDER = new File("temp_allocation");
+    private static final File TEST_FILE = new File(TEMPORARY_FOLDER, "test.log");
+
+    public static class DummyService {
+        @InstantiateConstructor
+        public DummyService() {}
+    }
+
+    private SynchronizedFileTracer fileTracer;
+
+    @Before
+    public void setUp() throws Exception {
+        Assume.assumeTrue("Thread allocation counters are not supported", AllocationMeter.isSupported());
+
+        TEMPORARY_FOLDER.mkdir();
+        Assert.assertTrue(TEMPORARY_FOLDER.isDirectory());
+        this.fileTracer = new SynchronizedFileTracer(TEST_FILE.getAbsolutePath(), TraceLevel.Info, false);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (this.fileTracer != null)
+            this.fileTracer.close();
+
+        final File[] allSubFiles = TEMPORARY_FOLDER.listFiles();
+        if (allSubFiles != null) {
+            for (File subFile : allSubFiles)
+                Contract.requireTrue(subFile.delete());
+        }
+        TEMPORARY_FOLDER.delete();
+    }
+
+    @Test
+    public void shouldNotAllocateTracingEnabledMessage() throws Exception {
+        assertBudget(NO_ALLOCATION_BUDGET, new AllocationMeter.IMeasuredCall() {
+            @Override
+            public void call() {
+                fileTracer.traceMessage(TraceLevel.Error, DUMMY_TRACE_MESSAGE);
+            }
+        });
+    }
+
+    @Test
+    public void shouldNotAllocateTracingFilteredMessage() throws Exception {
+        assertBudget(NO_ALLOCATION_BUDGET, new AllocationMeter.IMeasuredCall() {
+            @Override
+            public void call() {
+                fileTracer.traceMessage(TraceLevel.Debug, DUMMY_TRACE_MESSAGE);
+            }
+        });
+    }
+
+    @Test
+    public void shouldNotAllocateTracingThroughPrefixTracer() throws Exception {
+        final ITracer prefixTracer = PrefixTracer.createPrefixTracer(this.fileTracer, "Component");
+
+        assertBudget(NO_ALLOCATION_BUDGET, new AllocationMeter.IMeasuredCall() {
+            @Override
+            public void call() {
+                prefixTracer.traceMessage(TraceLevel.Error, DUMMY_TRACE_MESSAGE);
+            }
+        });
+        assertBudget(NO_ALLOCATION_BUDGET, new AllocationMeter.IMeasuredCall() {
+            @Override
+            public void call() {
+                prefixTracer.traceMessage(TraceLevel.Debug, DUMMY_TRACE_MESSAGE);
+            }
+        });
+    }
+
+    @Test
+    public void shouldNotAllocateGettingCreatedService() throws Exception {
+        //region Initialization
+        ServiceContainer.Settings settings = new ServiceContainer.Settings();
+        settings.serviceClasses = new String[] {
+                DummyService.class.getName(),
+        };
+
+        final ServiceContainer serviceContainer = new ServiceContainer(settings);
+        final ServiceKey<DummyService> serviceKey = serviceContainer.getServiceKey(DummyService.class);
+        serviceContainer.getService(DummyService.class);
+        //endregion
+
+        //region Test
+        assertBudget(NO_ALLOCATION_BUDGET, new AllocationMeter.IMeasuredCall() {
+            @Override
+            public void call() {
+                serviceContainer.getService(DummyService.class);
+            }
+        });
+        assertBudget(NO_ALLOCATION_BUDGET, new AllocationMeter.IMeasuredCall() {
+            @Override
+            public void call() {
+                serviceContainer.getService(DummyService.class.getName());
+            }
+        });
+        assertBudget(NO_ALLOCATION_BUDGET, new AllocationMeter.IMeasuredCall() {
+            @Override
+            public void call() {
+                serviceContainer.getService(serviceKey);
+            }
+        });
+        //endregion
+    }
+
+    private static void assertBudget(double budget, AllocationMeter.IMeasuredCall measuredCall) throws Exception {
+        final double allocatedBytes = AllocationMeter.getAllocatedBytesPerCall(measuredCall);
+        Assert.assertTrue(String.format("%.1f bytes are allocated per call, budget is %.1f", allocatedBytes, budget)
+                , allocatedBytes <= budget);
+    }
+}
@@ -0,0 +1,40 @@
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Created by Rihter on 19.10.2026.
+ * Measures bytes allocated by the current thread per call of a hot path
+ */
+public class AllocationMeter {
+    private static final int WARMUP_CALLS = 50000;
+    private static final int MEASURED_CALLS = 20000;
+
+    public interface IMeasuredCall {
+        void call() throws Exception;
+    }
+
+    public static boolean isSupported() {
+        final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        return (threadMXBean instanceof com.sun.management.ThreadMXBean)
+                && ((com.sun.management.ThreadMXBean) threadMXBean).isThreadAllocatedMemorySupported();
+    }
+
+    /**
+     * Calls the code until it is compiled by JIT, then measures average allocation of the following calls
+     * @return Allocated bytes per call
+     */
+    public static double getAllocatedBytesPerCall(IMeasuredCall measuredCall) throws Exception {
+        final com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long threadId = Thread.currentThread().getId();
+
+        for (int index = 0; index < WARMUP_CALLS; ++index)
+            measuredCall.call();
+
+        final long allocatedBytesBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+        for (int index = 0; index < MEASURED_CALLS; ++index)
+            measuredCall.call();
+        final long allocatedBytesAfter = threadMXBean.getThreadAllocatedBytes(threadId);
+
+        return (double) (allocatedBytesAfter - allocatedBytesBefore) / MEASURED_CALLS;
+    }
+}
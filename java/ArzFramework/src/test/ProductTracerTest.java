@@ -15,7 +15,10 @@ import static org.mockito.Mockito.*;
 
 import java.io.File;
 import java.io.FileWriter;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Created by Rihter on 07.01.2016.
@@ -66,6 +69,49 @@ public class ProductTracerTest {
         doAnswer(openBehaviourAnswer).when(mock).openNewFile(anyString());
     }
 
+    @Test
+    public void shouldCallNotThreadSafeFileTracerFromOneThreadAtATime() throws Exception {
+        //region Initialization
+        final IFileTracer fileTracerMock = createNewFileTracerMock();
+        final AtomicInteger tracingThreads = new AtomicInteger();
+        final AtomicInteger concurrentTraces = new AtomicInteger();
+        doAnswer(new Answer() {
+            @Override
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                if (tracingThreads.incrementAndGet() > 1)
+                    concurrentTraces.incrementAndGet();
+                Thread.sleep(1);
+                tracingThreads.decrementAndGet();
+                return null;
+            }
+        }).when(fileTracerMock).traceMessage(any(TraceLevel.class), anyString());
+
+        final ProductTracer productTracer = new ProductTracer(TEMP_FOLDER.getAbsolutePath(), fileTracerMock
+                , new ProductTracer.Settings(false, ProductTracer.Settings.UNLIMITED_SIZE), null);
+        //endregion
+
+        //region Test
+        List<Thread> threads = new ArrayList<>();
+        for (int threadIndex = 0; threadIndex < 4; ++threadIndex) {
+            final Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int messageIndex = 0; messageIndex < 20; ++messageIndex)
+                        productTracer.traceMessage(DUMMY_TRACE_LEVEL, DUMMY_TRACE_MESSAGE);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads)
+            thread.join();
+        productTracer.close();
+
+        Assert.assertEquals(0, concurrentTraces.get());
+        verify(fileTracerMock, times(80)).traceMessage(DUMMY_TRACE_LEVEL, DUMMY_TRACE_MESSAGE);
+        //endregion
+    }
+
     @Test
     public void shouldTraceMessage() throws Exception {
         //region Initialization
@@ -285,4 +331,28 @@ public class ProductTracerTest {
         Assert.assertTrue(argumentCaptor.getAllValues().get(1).startsWith(TEMP_FOLDER.getAbsolutePath()));
         //endregion
     }
+
+    @Test
+    public void shouldNotStartNewFileAgainAfterRemovingExceededFile() {
+        final long TraceFilesDiskQuota = 40;
+
+        //region Initialization
+        IFileTracer fileTracerMock = createNewFileTracerMock();
+        ProductTracer productTracer = new ProductTracer(TEMP_FOLDER.getAbsolutePath()
+                , fileTracerMock
+                , new ProductTracer.Settings(true, TraceFilesDiskQuota)
+                , null);
+        //endregion
+
+        //region Test
+        when(fileTracerMock.getFileSize()).thenReturn(TraceFilesDiskQuota + 1);
+        productTracer.traceMessage(DUMMY_TRACE_LEVEL, DUMMY_TRACE_MESSAGE);
+        verify(fileTracerMock, times(2)).openNewFile(anyString());
+
+        // removed file must not be counted anymore
+        when(fileTracerMock.getFileSize()).thenReturn(TraceFilesDiskQuota / 2);
+        productTracer.traceMessage(DUMMY_TRACE_LEVEL, DUMMY_TRACE_MESSAGE);
+        verify(fileTracerMock, times(2)).openNewFile(anyString());
+        //endregion
+    }
 }
@@ -0,0 +1,95 @@
+import com.arz_x.CheckedNetworkException;
+import com.arz_x.CommonException;
+import com.arz_x.CommonResultCode;
+import com.arz_x.NetworkResultCode;
+import com.arz_x.common.result_statistics.ResultCodeCount;
+import com.arz_x.common.result_statistics.ResultCodeStatistics;
+import com.arz_x.common.result_statistics.ResultCodeStatisticsSnapshot;
+import com.arz_x.tracer.TraceHelpers;
+import com.arz_x.tracer.TraceLevel;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Created by Rihter on 19.10.2026.
+ * Unit tests for ResultCodeStatistics
+ */
+public class ResultCodeStatisticsTest {
+    private final ResultCodeStatistics statistics = ResultCodeStatistics.getInstance();
+
+    @Before
+    public void setUp() {
+        this.statistics.reset();
+        this.statistics.setCountOnCreation(false);
+        this.statistics.setCountOnTrace(true);
+    }
+
+    @After
+    public void tearDown() {
+        this.statistics.reset();
+        this.statistics.setCountOnCreation(false);
+        this.statistics.setCountOnTrace(true);
+    }
+
+    @Test
+    public void shouldNotCountCreatedExceptionsByDefault() {
+        new CommonException(CommonResultCode.NotFound);
+        Assert.assertEquals(0, this.statistics.getCount(CommonResultCode.NotFound.getValue()));
+    }
+
+    @Test
+    public void shouldCountCreatedExceptionsIfEnabled() {
+        this.statistics.setCountOnCreation(true);
+
+        new CommonException(CommonResultCode.NotFound);
+        new CheckedNetworkException(NetworkResultCode.NoConnection);
+        new CheckedNetworkException(NetworkResultCode.NoConnection);
+
+        Assert.assertEquals(1, this.statistics.getCount(CommonResultCode.NotFound.getValue()));
+        Assert.assertEquals(2, this.statistics.getCount(NetworkResultCode.NoConnection.getValue()));
+    }
+
+    @Test
+    public void shouldCountTracedExceptions() {
+        final CommonException exception = new CommonException(CommonResultCode.InvalidState);
+
+        TraceHelpers.traceException(null, TraceLevel.Error, exception);
+        TraceHelpers.traceException(null, TraceLevel.Error, new IllegalStateException());
+
+        Assert.assertEquals(1, this.statistics.getCount(CommonResultCode.InvalidState.getValue()));
+        Assert.assertEquals(1, this.statistics.getSnapshot().getTotalCount());
+    }
+
+    @Test
+    public void shouldReturnTopResultCodesAndFacilityCounts() {
+        for (int index = 0; index < 3; ++index)
+            this.statistics.increment(CommonResultCode.NotFound.getValue());
+        this.statistics.increment(CommonResultCode.UnExpected.getValue());
+
+        final ResultCodeStatisticsSnapshot snapshot = this.statistics.getSnapshot();
+
+        final List<ResultCodeCount> topCodes = snapshot.getTopResultCodes(1);
+        Assert.assertEquals(1, topCodes.size());
+        Assert.assertEquals(CommonResultCode.NotFound.getValue(), topCodes.get(0).getResultCode());
+        Assert.assertEquals(3, topCodes.get(0).getCount());
+
+        final Map<Integer, Long> facilityCounts = snapshot.getFacilityCounts();
+        Assert.assertEquals(Long.valueOf(4), facilityCounts.get(CommonResultCode.FACILITY));
+    }
+
+    @Test
+    public void shouldCalculateRatesBetweenSnapshots() throws Exception {
+        final ResultCodeStatisticsSnapshot previousSnapshot = this.statistics.getSnapshot();
+        this.statistics.increment(CommonResultCode.NotFound.getValue());
+        Thread.sleep(10);
+        final ResultCodeStatisticsSnapshot currentSnapshot = this.statistics.getSnapshot();
+
+        Assert.assertTrue(currentSnapshot.getResultCodeRate(previousSnapshot, CommonResultCode.NotFound.getValue()) > 0);
+        Assert.assertTrue(currentSnapshot.getFacilityRates(previousSnapshot).get(CommonResultCode.FACILITY) > 0);
+    }
+}
@@ -1,16 +1,30 @@
 import com.arz_x.CommonException;
 import com.arz_x.CommonResultCode;
 import com.arz_x.common.helpers.Contract;
+import com.arz_x.common.service_container.IGeneratedServiceFactory;
 import com.arz_x.common.service_container.InstantiateConstructor;
+import com.arz_x.common.service_container.LazyLogic;
 import com.arz_x.common.service_container.OptionalLogic;
 import com.arz_x.common.service_container.ServiceContainer;
+import com.arz_x.common.service_container.ServiceContainerProfiler;
+import com.arz_x.common.service_container.ServiceFactories;
+import com.arz_x.common.service_container.ServiceInitializationReport;
+import com.arz_x.common.service_container.ServiceKey;
+import com.arz_x.common.service_container.ScopedLogic;
+import com.arz_x.common.service_container.TransientLogic;
 import com.arz_x.common.service_container.ServiceInitializationType;
+import com.arz_x.common.service_container.ServiceInstantiationStrategy;
 import org.hamcrest.CustomTypeSafeMatcher;
 import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
 /**
  * Created by Rihter on 01.12.2015.
  * Unit tests for Service container
@@ -98,6 +112,290 @@ public class ServiceContainerTest {
             return ConstructionCalculusClass.constructorInvocationCounter;
         }
     }
+
+    public interface ILazyDummyInterface {
+        int getValue();
+    }
+
+    public static class LazyDummyImplementation implements ILazyDummyInterface {
+        private static int constructorInvocationCounter = 0;
+
+        @InstantiateConstructor
+        public LazyDummyImplementation() {
+            ++LazyDummyImplementation.constructorInvocationCounter;
+        }
+
+        public int getValue() {
+            return 42;
+        }
+    }
+
+    public static class LazyDependentClass {
+        private ILazyDummyInterface parameter;
+
+        @InstantiateConstructor
+        public LazyDependentClass(@LazyLogic ILazyDummyInterface lazyDummyInterface) {
+            this.parameter = lazyDummyInterface;
+        }
+
+        public ILazyDummyInterface getParameter() {
+            return this.parameter;
+        }
+    }
+
+    @TransientLogic
+    public static class TransientDummyClass {
+        private ConstructionCalculusClass parameter;
+
+        @InstantiateConstructor
+        public TransientDummyClass(ConstructionCalculusClass constructionCalculusClass) {
+            this.parameter = constructionCalculusClass;
+        }
+
+        public ConstructionCalculusClass getParameter() {
+            return this.parameter;
+        }
+    }
+
+    public static class ClosedDependencyClass implements AutoCloseable {
+        public static final List<String> closedServices = new CopyOnWriteArrayList<>();
+
+        @InstantiateConstructor
+        public ClosedDependencyClass() {}
+
+        @Override
+        public void close() {
+            closedServices.add(getClass().getSimpleName());
+        }
+    }
+
+    public static class FirstClosedDependentClass implements AutoCloseable {
+        @InstantiateConstructor
+        public FirstClosedDependentClass(ClosedDependencyClass dependency) {}
+
+        @Override
+        public void close() {
+            ClosedDependencyClass.closedServices.add(getClass().getSimpleName());
+        }
+    }
+
+    public static class SecondClosedDependentClass implements AutoCloseable {
+        @InstantiateConstructor
+        public SecondClosedDependentClass(ClosedDependencyClass dependency, FirstClosedDependentClass firstDependent) {}
+
+        @Override
+        public void close() {
+            ClosedDependencyClass.closedServices.add(getClass().getSimpleName());
+        }
+    }
+
+    public interface IScopedLazyDummyInterface {
+        Object getService();
+    }
+
+    @ScopedLogic
+    public static class ScopedLazyDummyClass implements IScopedLazyDummyInterface {
+        @InstantiateConstructor
+        public ScopedLazyDummyClass() {}
+
+        @Override
+        public Object getService() {
+            return this;
+        }
+    }
+
+    @TransientLogic
+    public static class CreationBarrierClass {
+        private static volatile CyclicBarrier creationBarrier;
+
+        @InstantiateConstructor
+        public CreationBarrierClass() throws Exception {
+            CreationBarrierClass.creationBarrier.await(10, TimeUnit.SECONDS);
+        }
+
+        public static void setCreationBarrier(CyclicBarrier creationBarrier) {
+            CreationBarrierClass.creationBarrier = creationBarrier;
+        }
+    }
+
+    public static class CrossScopeSingletonClass {
+        @InstantiateConstructor
+        public CrossScopeSingletonClass(CreationBarrierClass barrier, @OptionalLogic CrossScopeScopedClass scoped) {}
+    }
+
+    @ScopedLogic
+    public static class CrossScopeScopedClass {
+        @InstantiateConstructor
+        public CrossScopeScopedClass(CreationBarrierClass barrier, @OptionalLogic CrossScopeSingletonClass singleton) {}
+    }
+
+    @TransientLogic
+    public static class TransientLazyScopedDependentClass {
+        private IScopedLazyDummyInterface parameter;
+
+        @InstantiateConstructor
+        public TransientLazyScopedDependentClass(@LazyLogic IScopedLazyDummyInterface scopedLazyDummyInterface) {
+            this.parameter = scopedLazyDummyInterface;
+        }
+
+        public IScopedLazyDummyInterface getParameter() {
+            return this.parameter;
+        }
+    }
+
+    public interface IClosedLazyDependency {
+        void use();
+    }
+
+    public static class ClosedLazyDependencyClass implements IClosedLazyDependency, AutoCloseable {
+        @InstantiateConstructor
+        public ClosedLazyDependencyClass() {}
+
+        @Override
+        public void use() {
+        }
+
+        @Override
+        public void close() {
+            ClosedDependencyClass.closedServices.add(getClass().getSimpleName());
+        }
+    }
+
+    public static class LazyClosedDependentClass implements AutoCloseable {
+        private IClosedLazyDependency dependency;
+
+        @InstantiateConstructor
+        public LazyClosedDependentClass(@LazyLogic IClosedLazyDependency dependency) {
+            this.dependency = dependency;
+        }
+
+        public IClosedLazyDependency getDependency() {
+            return this.dependency;
+        }
+
+        @Override
+        public void close() {
+            ClosedDependencyClass.closedServices.add(getClass().getSimpleName());
+        }
+    }
+
+    @TransientLogic
+    public static class TransientClosedWrapperClass {
+        @InstantiateConstructor
+        public TransientClosedWrapperClass(ClosedDependencyClass dependency) {
+            Contract.unusedVariable(dependency);
+        }
+    }
+
+    public static class WrapperClosedDependentClass implements AutoCloseable {
+        @InstantiateConstructor
+        public WrapperClosedDependentClass(TransientClosedWrapperClass wrapper) {
+            Contract.unusedVariable(wrapper);
+        }
+
+        @Override
+        public void close() {
+            ClosedDependencyClass.closedServices.add(getClass().getSimpleName());
+        }
+    }
+
+    public interface IIndexedDummyInterface {
+    }
+
+    /* Registered in META-INF/arz-x/service-index.properties of tests */
+    public static class IndexedDummyClass implements IIndexedDummyInterface {
+        static {
+            isIndexedDummyClassInitialized = true;
+        }
+
+        @InstantiateConstructor
+        public IndexedDummyClass() {}
+    }
+
+    private static volatile boolean isIndexedDummyClassInitialized;
+
+    @ScopedLogic
+    public static class ScopedDummyClass {
+        private ConstructionCalculusClass parameter;
+
+        @InstantiateConstructor
+        public ScopedDummyClass(ConstructionCalculusClass constructionCalculusClass) {
+            this.parameter = constructionCalculusClass;
+        }
+
+        public ConstructionCalculusClass getParameter() {
+            return this.parameter;
+        }
+    }
+
+    public static class ThrowingDummyClass {
+        @InstantiateConstructor
+        public ThrowingDummyClass() {
+            throw new IllegalStateException("ThrowingDummyClass");
+        }
+    }
+
+    public static class ThrowingDependentClass {
+        @InstantiateConstructor
+        public ThrowingDependentClass(DummyEmptyClass dummyEmptyClass) {
+            Contract.unusedVariable(dummyEmptyClass);
+            throw new IllegalStateException("ThrowingDependentClass");
+        }
+    }
+
+    public static class GeneratedDummyClass {
+        private ILazyDummyInterface parameter;
+
+        @InstantiateConstructor
+        public GeneratedDummyClass(DummyEmptyClass dummyEmptyClass, @LazyLogic ILazyDummyInterface lazyDummyInterface) {
+            Contract.requireNotNull(dummyEmptyClass);
+            this.parameter = lazyDummyInterface;
+        }
+
+        public ILazyDummyInterface getParameter() {
+            return this.parameter;
+        }
+    }
+
+    /* The same as ArzFrameworkProcessor generates, registered in test resources */
+    public static class GeneratedDummyClassFactory implements IGeneratedServiceFactory {
+        private static volatile int newInstanceInvocationCounter = 0;
+
+        @Override
+        public String getServiceClassName() {
+            return GeneratedDummyClass.class.getName();
+        }
+
+        @Override
+        public Class<?> getServiceClass() {
+            return GeneratedDummyClass.class;
+        }
+
+        @Override
+        public String[] getDependencyTypeNames() {
+            return new String[] { DummyEmptyClass.class.getName(), ILazyDummyInterface.class.getName() };
+        }
+
+        @Override
+        public boolean[] getOptionalDependencies() {
+            return new boolean[] { false, false };
+        }
+
+        @Override
+        public boolean[] getLazyDependencies() {
+            return new boolean[] { false, true };
+        }
+
+        @Override
+        public Object newInstance(Object[] arguments) throws InvocationTargetException {
+            ++GeneratedDummyClassFactory.newInstanceInvocationCounter;
+            try {
+                return new GeneratedDummyClass((DummyEmptyClass) arguments[0], (ILazyDummyInterface) arguments[1]);
+            } catch (Throwable exp) {
+                throw new InvocationTargetException(exp);
+            }
+        }
+    }
     //endregion
 
     @Rule
@@ -251,6 +549,182 @@ public class ServiceContainerTest {
         //endregion
     }
 
+    @Test
+    public void shouldReturnSameServiceByServiceKey() {
+        //region Initialization
+        ServiceContainer.Settings settings = new ServiceContainer.Settings();
+        settings.serviceClasses = new String[] {
+                DummyInterfaceImplementation.class.getName(),
+        };
+
+        ServiceContainer serviceContainer = new ServiceContainer(settings);
+        //endregion
+
+        //region Test
+        final ServiceKey<IDummyInterface> interfaceKey = serviceContainer.getServiceKey(IDummyInterface.class);
+        final ServiceKey<DummyInterfaceImplementation> classKey = serviceContainer.getServiceKey(DummyInterfaceImplementation.class);
+
+        final IDummyInterface resultInterface = serviceContainer.getService(interfaceKey);
+        Assert.assertTrue(resultInterface instanceof DummyInterfaceImplementation);
+        Assert.assertSame(resultInterface, serviceContainer.getService(interfaceKey));
+        Assert.assertSame(resultInterface, serviceContainer.getService(classKey));
+        Assert.assertSame(resultInterface, serviceContainer.getService(IDummyInterface.class));
+        //endregion
+    }
+
+    @Test
+    public void shouldCreateTransientServiceOnEachRequest() {
+        //region Initialization
+        ConstructionCalculusClass.clearConstructorInvocationCounter();
+
+        ServiceContainer.Settings settings = new ServiceContainer.Settings();
+        settings.serviceClasses = new String[] {
+                TransientDummyClass.class.getName(),
+                ConstructionCalculusClass.class.getName(),
+        };
+
+        ServiceContainer serviceContainer = new ServiceContainer(settings);
+        //endregion
+
+        //region Test
+        final TransientDummyClass firstObject = serviceContainer.getService(TransientDummyClass.class);
+        final TransientDummyClass secondObject = serviceContainer.getService(TransientDummyClass.class);
+        final TransientDummyClass thirdObject = serviceContainer.getService(serviceContainer.getServiceKey(TransientDummyClass.class));
+
+        Assert.assertNotSame(firstObject, secondObject);
+        Assert.assertNotSame(secondObject, thirdObject);
+        Assert.assertSame(firstObject.getParameter(), secondObject.getParameter());
+        Assert.assertSame(firstObject.getParameter(), thirdObject.getParameter());
+        Assert.assertEquals(1, ConstructionCalculusClass.getConstructorInvocationCounter());
+        //endregion
+    }
+
+    @Test
+    public void shouldLoadIndexedServiceClassOnFirstRequest() {
+        //region Initialization
+        ServiceContainer.Settings settings = new ServiceContainer.Settings();
+        settings.serviceClasses = new String[] {
+                "ServiceContainerTest$IndexedDummyClass",
+        };
+
+        ServiceContainer serviceContainer = new ServiceContainer(settings);
+        //endregion
+
+        //region Test
+        Assert.assertFalse(isIndexedDummyClassInitialized);
+        Assert.assertNotNull(serviceContainer.getService(IIndexedDummyInterface.class));
+        Assert.assertTrue(isIndexedDummyClassInitialized);
+        //endregion
+    }
+
+    @Test
+    public void shouldCreateScopedServiceOncePerChildContainer() {
+        //region Initialization
+        ConstructionCalculusClass.clearConstructorInvocationCounter();
+
+        ServiceContainer.Settings settings = new ServiceContainer.Settings();
+        settings.serviceClasses = new String[] {
+                ScopedDummyClass.class.getName(),
+                ConstructionCalculusClass.class.getName(),
+        };
+
+        ServiceContainer serviceContainer = new ServiceContainer(settings);
+        ServiceContainer firstChild = serviceContainer.createChildContainer();
+        ServiceContainer secondChild = serviceContainer.createChildContainer();
+        //endregion
+
+        //region Test
+        final ScopedDummyClass firstObject = firstChild.getService(ScopedDummyClass.class);
+        final ScopedDummyClass sameScopeObject = firstChild.getService(firstChild.getServiceKey(ScopedDummyClass.class));
+        final ScopedDummyClass secondObject = secondChild.getService(serviceContainer.getServiceKey(ScopedDummyClass.class));
+
+        Assert.assertSame(firstObject, sameScopeObject);
+        Assert.assertNotSame(firstObject, secondObject);
+        Assert.assertNotSame(firstObject, serviceContainer.getService(ScopedDummyClass.class));
+        Assert.assertSame(firstObject.getParameter(), secondObject.getParameter());
+        Assert.assertSame(firstObject.getParameter(), serviceContainer.getService(ConstructionCalculusClass.class));
+        Assert.assertEquals(1, ConstructionCalculusClass.getConstructorInvocationCounter());
+        //endregion
+    }
+
+    @Test
+    public void shouldResolveLazyScopedDependencyOfTransientServiceInItsChildContainer() {
+        //region Initialization
+        ServiceContainer.Settings settings = new ServiceContainer.Settings();
+        settings.serviceClasses = new String[] {
+                ScopedLazyDummyClass.class.getName(),
+                TransientLazyScopedDependentClass.class.getName(),
+        };
+
+        ServiceContainer serviceContainer = new ServiceContainer(settings);
+        ServiceContainer firstChild = serviceContainer.createChildContainer();
+        ServiceContainer secondChild = serviceContainer.createChildContainer();
+        //endregion
+
+        //region Test
+        final Object firstScopedObject = firstChild.getService(TransientLazyScopedDependentClass.class).getParameter().getService();
+        final Object secondScopedObject = secondChild.getService(TransientLazyScopedDependentClass.class).getParameter().getService();
+
+        Assert.assertSame(firstChild.getService(ScopedLazyDummyClass.class), firstScopedObject);
+        Assert.assertSame(secondChild.getService(ScopedLazyDummyClass.class), secondScopedObject);
+        Assert.assertNotSame(firstScopedObject, secondScopedObject);
+        //endregion
+    }
+
+    @Test
+    public void shouldCreateAllSingletonsAndRejectRegistrationAfterFreeze() {
+        //region Initialization
+        ConstructionCalculusClass.clearConstructorInvocationCounter();
+
+        ServiceContainer.Settings settings = new ServiceContainer.Settings();
+        settings.serviceClasses = new String[] {
+                TransientDummyClass.class.getName(),
+                ConstructionCalculusClass.class.getName(),
+        };
+
+        ServiceContainer serviceContainer = new ServiceContainer(settings);
+        serviceContainer.freeze();
+        //endregion
+
+        //region Test
+        Assert.assertTrue(serviceContainer.isFrozen());
+        Assert.assertEquals(1, ConstructionCalculusClass.getConstructorInvocationCounter());
+
+        final ConstructionCalculusClass singleton = serviceContainer.getService(ConstructionCalculusClass.class);
+        Assert.assertSame(singleton, serviceContainer.getService(ConstructionCalculusClass.class.getName()));
+        Assert.assertSame(singleton, serviceContainer.getService(TransientDummyClass.class).getParameter());
+        Assert.assertNotSame(serviceContainer.getService(TransientDummyClass.class)
+                , serviceContainer.getService(TransientDummyClass.class));
+
+        thrown.expect(new CustomTypeSafeMatcher<CommonException>("Must throw exception") {
+                          public boolean matchesSafely(CommonException exp) {
+                              return exp.getResultCode() == CommonResultCode.AlreadyDone;
+                          }
+                      }
+        );
+        serviceContainer.freeze();
+        //endregion
+    }
+
+    @Test
+    public void shouldCreateTransientServiceFromSettingsOnEachRequest() {
+        //region Initialization
+        ServiceContainer.Settings settings = new ServiceContainer.Settings();
+        settings.serviceClasses = new String[] {
+                DummyEmptyClass.class.getName(),
+        };
+        settings.transientServiceClasses = new String[] {
+                DummyEmptyClass.class.getName(),
+        };
+
+        ServiceContainer serviceContainer = new ServiceContainer(settings);
+        //endregion
+
+        //region Test
+        Assert.assertNotSame(serviceContainer.getService(DummyEmptyClass.class), serviceContainer.getService(DummyEmptyClass.class));
+        //endregion
+    }
+
     @Test
     public void shouldCreateServiceOnFirstAccessUsingLazyInitialization() {
         //region Initialization
@@ -293,6 +767,85 @@ public class ServiceContainerTest {
         //endregion
     }
 
+    @Test
+    public void shouldCreateServiceOnceWhenRequestedConcurrently() throws Exception {
+        final int threadsAmount = 8;
+
+        //region Initialization
+        ConstructionCalculusClass.clearConstructorInvocationCounter();
+
+        ServiceContainer.Settings settings = new ServiceContainer.Settings();
+        settings.serviceClasses = new String[] {
+                ConstructionCalculusClass.class.getName(),
+        };
+
+        final ServiceContainer serviceContainer = new ServiceContainer(settings);
+        final CyclicBarrier startBarrier = new CyclicBarrier(threadsAmount);
+        final ExecutorService executor = Executors.newFixedThreadPool(threadsAmount);
+        //endregion
+
+        //region Test
+        try {
+            List<Future<ConstructionCalculusClass>> results = new ArrayList<>();
+            for (int threadIndex = 0; threadIndex < threadsAmount; ++threadIndex) {
+                results.add(executor.submit(new Callable<ConstructionCalculusClass>() {
+                    @Override
+                    public ConstructionCalculusClass call() throws Exception {
+                        startBarrier.await();
+                        return serviceContainer.getService(ConstructionCalculusClass.class);
+                    }
+                }));
+            }
+
+            final ConstructionCalculusClass firstResult = results.get(0).get();
+            for (Future<ConstructionCalculusClass> result : results)
+                Assert.assertSame(firstResult, result.get());
+            Assert.assertEquals(1, ConstructionCalculusClass.getConstructorInvocationCounter());
+        } finally {
+            executor.shutdown();
+        }
+        //endregion
+    }
+
+    @Test
+    public void shouldDetectWaitCycleBetweenSingletonAndScopedCreation() throws Exception {
+        //region Initialization
+        ServiceContainer.Settings settings = new ServiceContainer.Settings();
+        settings.serviceClasses = new String[] {
+                CreationBarrierClass.class.getName(),
+                CrossScopeSingletonClass.class.getName(),
+                CrossScopeScopedClass.class.getName(),
+        };
+
+        final ServiceContainer serviceContainer = new ServiceContainer(settings);
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        //endregion
+
+        //region Test
+        try {
+            // both threads hold the lock of their service before waiting for the service of the other one
+            CreationBarrierClass.setCreationBarrier(new CyclicBarrier(2));
+            Future<CrossScopeSingletonClass> singletonResult = executor.submit(new Callable<CrossScopeSingletonClass>() {
+                @Override
+                public CrossScopeSingletonClass call() throws Exception {
+                    return serviceContainer.getService(CrossScopeSingletonClass.class);
+                }
+            });
+            Future<CrossScopeScopedClass> scopedResult = executor.submit(new Callable<CrossScopeScopedClass>() {
+                @Override
+                public CrossScopeScopedClass call() throws Exception {
+                    return serviceContainer.getService(CrossScopeScopedClass.class);
+                }
+            });
+
+            Assert.assertNotNull(singletonResult.get(5, TimeUnit.SECONDS));
+            Assert.assertNotNull(scopedResult.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        //endregion
+    }
+
     @Test
     public void shouldCreateServiceDependingOnOtherServices() {
         //region Initialization
@@ -323,6 +876,124 @@ public class ServiceContainerTest {
         //endregion
     }
 
+    @Test
+    public void shouldCreateServicesUsingEachInstantiationStrategy() {
+        for (ServiceInstantiationStrategy strategy : ServiceInstantiationStrategy.values()) {
+            //region Initialization
+            ServiceContainer.Settings settings = new ServiceContainer.Settings();
+            settings.instantiationStrategy = strategy;
+            settings.useGeneratedFactories = false;
+            settings.serviceClasses = new String[] {
+                    DummyCompoundClass.class.getName(),
+                    DummyInterfaceImplementation.class.getName(),
+                    DummyEmptyClass.class.getName(),
+            };
+            settings.instantiatedObjects = new Object[] {
+                    new DummyNonConstructableEmptyClass(),
+            };
+
+            ServiceContainer serviceContainer = new ServiceContainer(settings);
+            //endregion
+
+            //region Test
+            // MethodHandles strategy creates classes with default constructor through LambdaMetafactory supplier
+            Assert.assertNotNull(serviceContainer.getService(DummyEmptyClass.class));
+            Assert.assertNotNull(serviceContainer.getService(DummyCompoundClass.class));
+            //endregion
+        }
+    }
+
+    @Test
+    public void shouldThrowTheSameExceptionFromThrowingConstructorUsingEachInstantiationStrategy() {
+        for (ServiceInstantiationStrategy strategy : ServiceInstantiationStrategy.values()) {
+            //region Initialization
+            ServiceContainer.Settings settings = new ServiceContainer.Settings();
+            settings.instantiationStrategy = strategy;
+            settings.useGeneratedFactories = false;
+            settings.serviceClasses = new String[] {
+                    ThrowingDummyClass.class.getName(),
+                    ThrowingDependentClass.class.getName(),
+                    DummyEmptyClass.class.getName(),
+            };
+
+            ServiceContainer serviceContainer = new ServiceContainer(settings);
+            //endregion
+
+            //region Test
+            for (Class<?> serviceClass : new Class<?>[] {ThrowingDummyClass.class, ThrowingDependentClass.class}) {
+                try {
+                    serviceContainer.getService(serviceClass);
+                    Assert.fail(serviceClass.getName() + " must not be created using " + strategy);
+                } catch (CommonException exp) {
+                    Assert.assertEquals(CommonResultCode.UnExpected, exp.getResultCode());
+                }
+            }
+            //endregion
+        }
+    }
+
+    @Test
+    public void shouldWrapConstructorExceptionIntoInvocationTargetExceptionUsingEachInstantiationStrategy() throws Exception {
+        for (ServiceInstantiationStrategy strategy : ServiceInstantiationStrategy.values()) {
+            //region Test
+            try {
+                ServiceFactories.createFactory(ThrowingDummyClass.class.getConstructor(), strategy)
+                        .newInstance(new Object[0]);
+                Assert.fail("Must throw exception using " + strategy);
+            } catch (InvocationTargetException exp) {
+                Assert.assertTrue(exp.getCause() instanceof IllegalStateException);
+                Assert.assertEquals("ThrowingDummyClass", exp.getCause().getMessage());
+            }
+
+            try {
+                ServiceFactories.createFactory(ThrowingDependentClass.class.getConstructor(DummyEmptyClass.class), strategy)
+                        .newInstance(new Object[] {new DummyEmptyClass()});
+                Assert.fail("Must throw exception using " + strategy);
+            } catch (InvocationTargetException exp) {
+                Assert.assertTrue(exp.getCause() instanceof IllegalStateException);
+                Assert.assertEquals("ThrowingDependentClass", exp.getCause().getMessage());
+            }
+            //endregion
+        }
+    }
+
+    @Test
+    public void shouldProfileServicesCreation() {
+        //region Initialization
+        ServiceContainer.Settings settings = new ServiceContainer.Settings();
+        settings.profiler = new ServiceContainerProfiler();
+        settings.serviceClasses = new String[] {
+                DummyCompoundClass.class.getName(),
+                DummyInterfaceImplementation.class.getName(),
+                DummyEmptyClass.class.getName(),
+        };
+        settings.instantiatedObjects = new Object[] {
+                new DummyNonConstructableEmptyClass(),
+        };
+
+        ServiceContainer serviceContainer = new ServiceContainer(settings);
+        //endregion
+
+        //region Test
+        serviceContainer.getService(DummyCompoundClass.class);
+        serviceContainer.getService(DummyCompoundClass.class);
+
+        final ServiceContainerProfiler.ServiceProfile compoundProfile = settings.profiler.getProfile(DummyCompoundClass.class.getName());
+        Assert.assertEquals(1, compoundProfile.getCreations());
+        Assert.assertEquals(1, compoundProfile.getCacheHits());
+        Assert.assertEquals(0, compoundProfile.getCreationDepth());
+        Assert.assertEquals(3, compoundProfile.getDependencies().size());
+
+        final ServiceContainerProfiler.ServiceProfile dependencyProfile = settings.profiler.getProfile(DummyEmptyClass.class.getName());
+        Assert.assertEquals(1, dependencyProfile.getCreationDepth());
+
+        Assert.assertTrue(settings.profiler.exportDot().contains(
+                String.format("\"%s\" -> \"%s\"", DummyCompoundClass.class.getName(), DummyEmptyClass.class.getName())));
+        Assert.assertTrue(settings.profiler.exportJson().contains(
+                String.format("\"service\": \"%s\"", DummyCompoundClass.class.getName())));
+        //endregion
+    }
+
     @Test
     public void shouldCreateServiceIfOptionalDependencyIsNotResolved() {
         //region Initialization
@@ -382,6 +1053,218 @@ public class ServiceContainerTest {
         //endregion
     }
 
+    @Test
+    public void shouldUseInstantiatedObjectsAsDependenciesUsingAllAtOnceInitialization() {
+        //region Initialization
+        ServiceContainer.Settings settings = new ServiceContainer.Settings();
+        settings.initializationType = ServiceInitializationType.CreateAllAtStart;
+        settings.serviceClasses = new String[] {
+                DummyCompoundClass.class.getName(),
+                DummyInterfaceImplementation.class.getName(),
+                DummyEmptyClass.class.getName(),
+        };
+        settings.instantiatedObjects = new Object[] {
+                new DummyNonConstructableEmptyClass(),
+        };
+
+        ServiceContainer serviceContainer = new ServiceContainer(settings);
+        //endregion
+
+        //region Test
+        Assert.assertNotNull(serviceContainer.getService(DummyCompoundClass.class));
+        //endregion
+    }
+
+    @Test
+    public void shouldCreateServicesConcurrentlyUsingInitializationExecutor() {
+        //region Initialization
+        ServiceContainer.Settings settings = new ServiceContainer.Settings();
+        settings.initializationType = ServiceInitializationType.CreateAllAtStart;
+        final ForkJoinPool initializationExecutor = new ForkJoinPool(4);
+        settings.initializationExecutor = initializationExecutor;
+        settings.serviceClasses = new String[] {
+                DummyCompoundClass.class.getName(),
+                DummyInterfaceImplementation.class.getName(),
+                DummyEmptyClass.class.getName(),
+        };
+        settings.instantiatedObjects = new Object[] {
+                new DummyNonConstructableEmptyClass(),
+        };
+        //endregion
+
+        //region Test
+        try {
+            ServiceContainer serviceContainer = new ServiceContainer(settings);
+
+            final ServiceInitializationReport report = serviceContainer.getInitializationReport();
+            Assert.assertNotNull(report);
+            Assert.assertEquals(3, report.getServiceCreationTimeNanos().size());
+            Assert.assertEquals(2, report.getCriticalPath().size());
+            Assert.assertEquals(DummyCompoundClass.class.getName(), report.getCriticalPath().get(1));
+
+            Assert.assertNotNull(serviceContainer.getService(DummyCompoundClass.class));
+        } finally {
+            initializationExecutor.shutdown();
+        }
+        //endregion
+    }
+
+    @Test
+    public void shouldCreateServiceAsynchronouslyOnceWhenRequestedConcurrently() throws Exception {
+        //region Initialization
+        ServiceContainer.Settings settings = new ServiceContainer.Settings();
+        settings.serviceClasses = new String[] {
+                DummyCompoundClass.class.getName(),
+                DummyInterfaceImplementation.class.getName(),
+                DummyEmptyClass.class.getName(),
+        };
+        settings.instantiatedObjects = new Object[] {
+                new DummyNonConstructableEmptyClass(),
+        };
+
+        ServiceContainer serviceContainer = new ServiceContainer(settings);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        //endregion
+
+        //region Test
+        try {
+            final CompletableFuture<DummyCompoundClass> firstFuture = serviceContainer.getServiceAsync(DummyCompoundClass.class, executor);
+            final CompletableFuture<DummyCompoundClass> secondFuture = serviceContainer.getServiceAsync(DummyCompoundClass.class, executor);
+
+            final DummyCompoundClass service = firstFuture.get(10, TimeUnit.SECONDS);
+            Assert.assertSame(service, secondFuture.get(10, TimeUnit.SECONDS));
+            Assert.assertSame(service, serviceContainer.getService(DummyCompoundClass.class));
+            Assert.assertTrue(serviceContainer.getServiceAsync(DummyCompoundClass.class, executor).isDone());
+        } finally {
+            executor.shutdown();
+        }
+        //endregion
+    }
+
+    @Test
+    public void shouldCloseServicesInReverseDependencyOrderOnShutdown() {
+        //region Initialization
+        ClosedDependencyClass.closedServices.clear();
+
+        ServiceContainer.Settings settings = new ServiceContainer.Settings();
+        settings.initializationType = ServiceInitializationType.CreateAllAtStart;
+        settings.serviceClasses = new String[] {
+                ClosedDependencyClass.class.getName(),
+                FirstClosedDependentClass.class.getName(),
+                SecondClosedDependentClass.class.getName(),
+        };
+
+        ServiceContainer serviceContainer = new ServiceContainer(settings);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        //endregion
+
+        //region Test
+        try {
+            Assert.assertTrue(serviceContainer.shutdown(executor, 10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdown();
+        }
+
+        Assert.assertEquals(3, ClosedDependencyClass.closedServices.size());
+        Assert.assertEquals(SecondClosedDependentClass.class.getSimpleName(), ClosedDependencyClass.closedServices.get(0));
+        Assert.assertEquals(FirstClosedDependentClass.class.getSimpleName(), ClosedDependencyClass.closedServices.get(1));
+        Assert.assertEquals(ClosedDependencyClass.class.getSimpleName(), ClosedDependencyClass.closedServices.get(2));
+        //endregion
+    }
+
+    @Test
+    public void shouldCloseLazyAndTransientlyReachedDependenciesAfterTheirDependents() {
+        //region Initialization
+        ClosedDependencyClass.closedServices.clear();
+
+        ServiceContainer.Settings settings = new ServiceContainer.Settings();
+        settings.serviceClasses = new String[] {
+                ClosedDependencyClass.class.getName(),
+                ClosedLazyDependencyClass.class.getName(),
+                LazyClosedDependentClass.class.getName(),
+                TransientClosedWrapperClass.class.getName(),
+                WrapperClosedDependentClass.class.getName(),
+        };
+
+        ServiceContainer serviceContainer = new ServiceContainer(settings);
+        // the lazy dependency is created after its dependent and through a child container
+        serviceContainer.getService(LazyClosedDependentClass.class);
+        serviceContainer.getService(WrapperClosedDependentClass.class);
+        serviceContainer.createChildContainer().getService(LazyClosedDependentClass.class).getDependency().use();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        //endregion
+
+        //region Test
+        try {
+            Assert.assertTrue(serviceContainer.shutdown(executor, 10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdown();
+        }
+
+        final List<String> closedServices = ClosedDependencyClass.closedServices;
+        Assert.assertEquals(closedServices.toString(), 4, closedServices.size());
+        Assert.assertTrue(closedServices.indexOf(LazyClosedDependentClass.class.getSimpleName())
+                < closedServices.indexOf(ClosedLazyDependencyClass.class.getSimpleName()));
+        Assert.assertTrue(closedServices.indexOf(WrapperClosedDependentClass.class.getSimpleName())
+                < closedServices.indexOf(ClosedDependencyClass.class.getSimpleName()));
+        //endregion
+    }
+
+    @Test
+    public void shouldCreateLazyDependencyOnFirstMethodCall() {
+        //region Initialization
+        LazyDummyImplementation.constructorInvocationCounter = 0;
+
+        ServiceContainer.Settings settings = new ServiceContainer.Settings();
+        settings.serviceClasses = new String[] {
+                LazyDependentClass.class.getName(),
+                LazyDummyImplementation.class.getName(),
+        };
+
+        ServiceContainer serviceContainer = new ServiceContainer(settings);
+        //endregion
+
+        //region Test
+        final LazyDependentClass dependentObject = serviceContainer.getService(LazyDependentClass.class);
+        Assert.assertNotNull(dependentObject.getParameter());
+        Assert.assertEquals(0, LazyDummyImplementation.constructorInvocationCounter);
+
+        Assert.assertEquals(42, dependentObject.getParameter().getValue());
+        Assert.assertEquals(42, dependentObject.getParameter().getValue());
+        Assert.assertEquals(1, LazyDummyImplementation.constructorInvocationCounter);
+        Assert.assertTrue(serviceContainer.getService(ILazyDummyInterface.class) instanceof LazyDummyImplementation);
+        //endregion
+    }
+
+    @Test
+    public void shouldCreateServiceUsingGeneratedFactory() {
+        //region Initialization
+        LazyDummyImplementation.constructorInvocationCounter = 0;
+        GeneratedDummyClassFactory.newInstanceInvocationCounter = 0;
+
+        ServiceContainer.Settings settings = new ServiceContainer.Settings();
+        settings.serviceClasses = new String[] {
+                GeneratedDummyClass.class.getName(),
+                DummyEmptyClass.class.getName(),
+                LazyDummyImplementation.class.getName(),
+        };
+
+        ServiceContainer serviceContainer = new ServiceContainer(settings);
+        //endregion
+
+        //region Test
+        final GeneratedDummyClass generatedObject = serviceContainer.getService(GeneratedDummyClass.class);
+        Assert.assertEquals(1, GeneratedDummyClassFactory.newInstanceInvocationCounter);
+        Assert.assertEquals(0, LazyDummyImplementation.constructorInvocationCounter);
+        Assert.assertEquals(42, generatedObject.getParameter().getValue());
+        Assert.assertEquals(1, LazyDummyImplementation.constructorInvocationCounter);
+
+        settings.useGeneratedFactories = false;
+        Assert.assertNotNull(new ServiceContainer(settings).getService(GeneratedDummyClass.class));
+        Assert.assertEquals(1, GeneratedDummyClassFactory.newInstanceInvocationCounter);
+        //endregion
+    }
+
     @Test
     public void shouldThrowNotFoundExceptionIfServiceNotRegistered() {
         //region Initialization
@@ -0,0 +1,142 @@
+import com.arz_x.common.helpers.Contract;
+import com.arz_x.tracer.ITraceRecordReader;
+import com.arz_x.tracer.MergingTraceReader;
+import com.arz_x.tracer.PrefixTracer;
+import com.arz_x.tracer.ProductTracer;
+import com.arz_x.tracer.ShardedFileTracer;
+import com.arz_x.tracer.TraceLayout;
+import com.arz_x.tracer.TraceLevel;
+import com.arz_x.tracer.TraceRecord;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Created by Rihter on 19.10.2026.
+ * Unit tests for ShardedFileTracer and reading its shards back
+ */
+public class ShardedFileTracerTest {
+    private static final String DUMMY_TRACE_MESSAGE = "Dummy trace message";
+    private static final int SHARDS_NUMBER = 3;
+
+    private static final File TEMPORARY_FOLDER = new File("temp");
+    private static final File TEST_FILE = new File(TEMPORARY_FOLDER, "test.log");
+
+    @Before
+    public void setUp() throws Exception {
+        TEMPORARY_FOLDER.mkdir();
+        Assert.assertTrue(TEMPORARY_FOLDER.isDirectory());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        final File[] allSubFiles = TEMPORARY_FOLDER.listFiles();
+        for (File subFile : allSubFiles) {
+            Contract.requireTrue(subFile.delete());
+        }
+        Contract.requireTrue(TEMPORARY_FOLDER.delete());
+    }
+
+    @Test
+    public void shouldReadRecordsOfAllShardsOrderedByTime() throws Exception {
+        final int ThreadsNumber = 6;
+        final int MessagesNumber = 200;
+
+        //region Initialization
+        final ShardedFileTracer fileTracer = new ShardedFileTracer(TEST_FILE.getAbsolutePath(), TraceLevel.Verbose, false
+                , TraceLayout.compile(TraceLayout.RECORD_PATTERN, Collections.<String, String>emptyMap(), Charset.forName("UTF-8"))
+                , SHARDS_NUMBER);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int threadIndex = 0; threadIndex < ThreadsNumber; ++threadIndex) {
+            threads.add(new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int messageIndex = 0; messageIndex < MessagesNumber; ++messageIndex)
+                        PrefixTracer.createPrefixTracer(fileTracer, "Component").traceMessage(TraceLevel.Warning, DUMMY_TRACE_MESSAGE);
+                }
+            }));
+        }
+        //endregion
+
+        //region Test
+        for (Thread thread : threads)
+            thread.start();
+        for (Thread thread : threads)
+            thread.join();
+        fileTracer.traceMessage(TraceLevel.Error, "first line\nsecond line");
+        fileTracer.close();
+
+        Assert.assertEquals(SHARDS_NUMBER, TEMPORARY_FOLDER.listFiles().length);
+        long filesSize = 0;
+        for (File file : TEMPORARY_FOLDER.listFiles())
+            filesSize += file.length();
+        Assert.assertEquals(filesSize, fileTracer.getFileSize());
+
+        int recordsNumber = 0;
+        long lastTime = 0;
+        TraceRecord errorRecord = null;
+        try (ITraceRecordReader reader = MergingTraceReader.openTraceFile(TEST_FILE, Charset.forName("UTF-8"))) {
+            TraceRecord record;
+            while ((record = reader.readRecord()) != null) {
+                Assert.assertTrue(record.getTimeMillis() >= lastTime);
+                lastTime = record.getTimeMillis();
+                ++recordsNumber;
+                if (record.getTraceLevel() == TraceLevel.Error) {
+                    errorRecord = record;
+                } else {
+                    Assert.assertEquals(TraceLevel.Warning, record.getTraceLevel());
+                    Assert.assertEquals("Component", record.getPrefix());
+                    Assert.assertEquals(DUMMY_TRACE_MESSAGE, record.getMessage());
+                }
+            }
+        }
+        Assert.assertEquals(ThreadsNumber * MessagesNumber + 1, recordsNumber);
+        Assert.assertNotNull(errorRecord);
+        Assert.assertEquals(Thread.currentThread().getId(), errorRecord.getThreadId());
+        Assert.assertNull(errorRecord.getPrefix());
+        Assert.assertEquals("first line\nsecond line", errorRecord.getMessage());
+        Assert.assertTrue(Math.abs(System.currentTimeMillis() - lastTime) < 60 * 1000);
+        //endregion
+    }
+
+    @Test
+    public void shouldRemoveAllShardsWhenDiskQuotaWasExceeded() throws Exception {
+        final long TraceFilesDiskQuota = 4096;
+
+        //region Initialization
+        final File tracesFolder = new File(TEMPORARY_FOLDER, "traces");
+        ShardedFileTracer fileTracer = new ShardedFileTracer(TEST_FILE.getAbsolutePath(), TraceLevel.Verbose, false
+                , TraceLayout.compile(TraceLayout.DEFAULT_PATTERN), SHARDS_NUMBER);
+        ProductTracer productTracer = new ProductTracer(tracesFolder.getAbsolutePath()
+                , fileTracer
+                , new ProductTracer.Settings(true, TraceFilesDiskQuota)
+                , null);
+        //endregion
+
+        //region Test
+        for (int messageIndex = 0; messageIndex < 1000; ++messageIndex)
+            productTracer.traceMessage(TraceLevel.Info, DUMMY_TRACE_MESSAGE);
+
+        final String[] traceFiles = ProductTracer.getAllTraceFiles(tracesFolder.getAbsolutePath());
+        Assert.assertEquals(SHARDS_NUMBER, traceFiles.length);
+
+        long traceFilesSize = 0;
+        for (String traceFile : traceFiles)
+            traceFilesSize += new File(traceFile).length();
+        Assert.assertTrue(traceFilesSize <= TraceFilesDiskQuota);
+        //endregion
+
+        productTracer.close();
+        for (String traceFile : traceFiles)
+            Contract.requireTrue(new File(traceFile).delete());
+        Contract.requireTrue(tracesFolder.delete());
+    }
+}
@@ -1,5 +1,7 @@
 import com.arz_x.common.helpers.Contract;
+import com.arz_x.tracer.PrefixTracer;
 import com.arz_x.tracer.SynchronizedFileTracer;
+import com.arz_x.tracer.TraceLayout;
 import com.arz_x.tracer.TraceLevel;
 import org.junit.After;
 import org.junit.Assert;
@@ -13,6 +15,7 @@ import java.io.FileWriter;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -97,6 +100,45 @@ public class SynchronizedFileTracerTest {
         //endregion
     }
 
+    @Test
+    public void shouldWritePrefixedMessageInDefaultLayout() throws Exception {
+        //region Initialization
+        SynchronizedFileTracer fileTracer = new SynchronizedFileTracer(TEST_FILE.getAbsolutePath()
+                , TraceLevel.Verbose, false);
+        //endregion
+
+        //region Test
+        fileTracer.traceMessage(TraceLevel.Always, DUMMY_TRACE_MESSAGE);
+        PrefixTracer.createPrefixTracer(fileTracer, "Component").traceMessage(TraceLevel.Always, DUMMY_TRACE_MESSAGE);
+        fileTracer.close();
+
+        List<String> allTraceFileLines = Files.readAllLines(Paths.get(TEST_FILE.getAbsolutePath()), Charset.forName("UTF-8"));
+        Assert.assertEquals(2, allTraceFileLines.size());
+        Assert.assertTrue(allTraceFileLines.get(0).matches("\\d+:\\d+:\\d+:\\d+\t\\d+\t" + DUMMY_TRACE_MESSAGE));
+        Assert.assertTrue(allTraceFileLines.get(1).matches("\\d+:\\d+:\\d+:\\d+\t\\d+\t\\[Component\\]\t" + DUMMY_TRACE_MESSAGE));
+        //endregion
+    }
+
+    @Test
+    public void shouldWriteMessageInCustomLayout() throws Exception {
+        //region Initialization
+        final TraceLayout layout = TraceLayout.compile("{time:yyyy-MM-dd HH:mm:ss.SSS} {level} {threadName} {field:host} {prefix}|{message}\n"
+                , Collections.singletonMap("host", "dummy_host"), Charset.forName("UTF-8"));
+        SynchronizedFileTracer fileTracer = new SynchronizedFileTracer(TEST_FILE.getAbsolutePath()
+                , TraceLevel.Verbose, false, layout);
+        //endregion
+
+        //region Test
+        PrefixTracer.createPrefixTracer(fileTracer, "Component").traceMessage(TraceLevel.Warning, DUMMY_TRACE_MESSAGE);
+        fileTracer.close();
+
+        List<String> allTraceFileLines = Files.readAllLines(Paths.get(TEST_FILE.getAbsolutePath()), Charset.forName("UTF-8"));
+        Assert.assertEquals(1, allTraceFileLines.size());
+        Assert.assertTrue(allTraceFileLines.get(0).matches("\\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}:\\d{2}\\.\\d{3} Warning "
+                + Thread.currentThread().getName() + " dummy_host Component\\|" + DUMMY_TRACE_MESSAGE));
+        //endregion
+    }
+
     @Test
     public void shouldNotWriteMessageWithLowerTraceLevel() throws Exception {
         //region Initialization
@@ -0,0 +1,177 @@
+import com.arz_x.common.helpers.Contract;
+import com.arz_x.tracer.ThreadBufferedFileTracer;
+import com.arz_x.tracer.TraceLayout;
+import com.arz_x.tracer.TraceLevel;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Created by Rihter on 19.10.2026.
+ * Unit tests for ThreadBufferedFileTracer
+ */
+public class ThreadBufferedFileTracerTest {
+    private static final File TEMPORARY_FOLDER = new File("temp");
+    private static final File TEST_FILE = new File(TEMPORARY_FOLDER, "test.log");
+
+    /* Small buffers make threads wrap around the ring and wait for the flusher */
+    private static final ThreadBufferedFileTracer.Settings SMALL_BUFFER_SETTINGS = new ThreadBufferedFileTracer.Settings(1024, 1);
+    /* Lines stay in buffers until close */
+    private static final ThreadBufferedFileTracer.Settings NO_FLUSH_SETTINGS = new ThreadBufferedFileTracer.Settings(1024, 60 * 60 * 1000);
+
+    @Before
+    public void setUp() throws Exception {
+        TEMPORARY_FOLDER.mkdir();
+        Assert.assertTrue(TEMPORARY_FOLDER.isDirectory());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        final File[] allSubFiles = TEMPORARY_FOLDER.listFiles();
+        for (File subFile : allSubFiles) {
+            Contract.requireTrue(subFile.delete());
+        }
+        Contract.requireTrue(TEMPORARY_FOLDER.delete());
+    }
+
+    @Test
+    public void shouldWriteLinesOfAllThreadsKeepingOrderOfEachThread() throws Exception {
+        final int ThreadsNumber = 4;
+        final int MessagesNumber = 2000;
+
+        //region Initialization
+        final ThreadBufferedFileTracer fileTracer = new ThreadBufferedFileTracer(TEST_FILE.getAbsolutePath()
+                , TraceLevel.Verbose, false, TraceLayout.compile("{message}\n"), SMALL_BUFFER_SETTINGS);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int threadIndex = 0; threadIndex < ThreadsNumber; ++threadIndex) {
+            final int currentThreadIndex = threadIndex;
+            threads.add(new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int messageIndex = 0; messageIndex < MessagesNumber; ++messageIndex)
+                        fileTracer.traceMessage(TraceLevel.Info, currentThreadIndex + " " + messageIndex);
+                }
+            }));
+        }
+        //endregion
+
+        //region Test
+        for (Thread thread : threads)
+            thread.start();
+        for (Thread thread : threads)
+            thread.join();
+        fileTracer.close();
+
+        List<String> allTraceFileLines = Files.readAllLines(Paths.get(TEST_FILE.getAbsolutePath()), Charset.forName("UTF-8"));
+        Assert.assertEquals(ThreadsNumber * MessagesNumber, allTraceFileLines.size());
+        Assert.assertEquals(Files.size(Paths.get(TEST_FILE.getAbsolutePath())), fileTracer.getFileSize());
+
+        int[] nextMessageIndexes = new int[ThreadsNumber];
+        for (String line : allTraceFileLines) {
+            final String[] lineParts = line.split(" ");
+            final int threadIndex = Integer.parseInt(lineParts[0]);
+            Assert.assertEquals(nextMessageIndexes[threadIndex]++, Integer.parseInt(lineParts[1]));
+        }
+        //endregion
+    }
+
+    @Test
+    public void shouldWriteLineLargerThanThreadBufferAfterPreviousLines() throws Exception {
+        //region Initialization
+        final ThreadBufferedFileTracer fileTracer = new ThreadBufferedFileTracer(TEST_FILE.getAbsolutePath()
+                , TraceLevel.Verbose, false, TraceLayout.compile("{message}\n"), SMALL_BUFFER_SETTINGS);
+
+        char[] largeMessage = new char[4096];
+        Arrays.fill(largeMessage, 'x');
+        //endregion
+
+        //region Test
+        fileTracer.traceMessage(TraceLevel.Info, "first");
+        fileTracer.traceMessage(TraceLevel.Info, new String(largeMessage));
+        fileTracer.traceMessage(TraceLevel.Info, "last");
+        fileTracer.close();
+
+        List<String> allTraceFileLines = Files.readAllLines(Paths.get(TEST_FILE.getAbsolutePath()), Charset.forName("UTF-8"));
+        Assert.assertEquals(Arrays.asList("first", new String(largeMessage), "last"), allTraceFileLines);
+        //endregion
+    }
+
+    @Test
+    public void shouldCountOnlyLineBytesOfBufferedLines() throws Exception {
+        //region Initialization
+        final ThreadBufferedFileTracer fileTracer = new ThreadBufferedFileTracer(TEST_FILE.getAbsolutePath()
+                , TraceLevel.Verbose, false, TraceLayout.compile("{message}\n"), NO_FLUSH_SETTINGS);
+        //endregion
+
+        //region Test
+        fileTracer.traceMessage(TraceLevel.Info, "first");
+        fileTracer.traceMessage(TraceLevel.Info, "second");
+        Assert.assertEquals(0, TEST_FILE.length());
+        Assert.assertEquals("first\nsecond\n".length(), fileTracer.getFileSize());
+
+        fileTracer.close();
+        Assert.assertEquals("first\nsecond\n".length(), TEST_FILE.length());
+        Assert.assertEquals(TEST_FILE.length(), fileTracer.getFileSize());
+        //endregion
+    }
+
+    @Test
+    public void shouldWriteAllLinesTracedBeforeCloseWhileThreadsKeepTracing() throws Exception {
+        final int ThreadsNumber = 4;
+
+        //region Initialization
+        final ThreadBufferedFileTracer fileTracer = new ThreadBufferedFileTracer(TEST_FILE.getAbsolutePath()
+                , TraceLevel.Verbose, false, TraceLayout.compile("{message}\n"), SMALL_BUFFER_SETTINGS);
+        final AtomicIntegerArray tracedMessagesNumbers = new AtomicIntegerArray(ThreadsNumber);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int threadIndex = 0; threadIndex < ThreadsNumber; ++threadIndex) {
+            final int currentThreadIndex = threadIndex;
+            threads.add(new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    // keeps tracing after close, such lines are skipped
+                    for (int messageIndex = 0; messageIndex < 200000; ++messageIndex) {
+                        fileTracer.traceMessage(TraceLevel.Info, currentThreadIndex + " " + messageIndex);
+                        tracedMessagesNumbers.set(currentThreadIndex, messageIndex + 1);
+                    }
+                }
+            }));
+        }
+        //endregion
+
+        //region Test
+        for (Thread thread : threads)
+            thread.start();
+        Thread.sleep(20);
+        int[] tracedBeforeCloseNumbers = new int[ThreadsNumber];
+        for (int threadIndex = 0; threadIndex < ThreadsNumber; ++threadIndex)
+            tracedBeforeCloseNumbers[threadIndex] = tracedMessagesNumbers.get(threadIndex);
+        fileTracer.close();
+        for (Thread thread : threads)
+            thread.join();
+
+        Assert.assertEquals(TEST_FILE.length(), fileTracer.getFileSize());
+
+        int[] writtenMessagesNumbers = new int[ThreadsNumber];
+        for (String line : Files.readAllLines(Paths.get(TEST_FILE.getAbsolutePath()), Charset.forName("UTF-8"))) {
+            final String[] lineParts = line.split(" ");
+            final int threadIndex = Integer.parseInt(lineParts[0]);
+            Assert.assertEquals(writtenMessagesNumbers[threadIndex]++, Integer.parseInt(lineParts[1]));
+        }
+        for (int threadIndex = 0; threadIndex < ThreadsNumber; ++threadIndex)
+            Assert.assertTrue(writtenMessagesNumbers[threadIndex] >= tracedBeforeCloseNumbers[threadIndex]);
+        //endregion
+    }
+}
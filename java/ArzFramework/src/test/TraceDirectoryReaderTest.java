@@ -0,0 +1,113 @@
+import com.arz_x.common.helpers.Contract;
+import com.arz_x.tracer.ITraceRecordReader;
+import com.arz_x.tracer.PrefixTracer;
+import com.arz_x.tracer.ProductTracer;
+import com.arz_x.tracer.ShardedFileTracer;
+import com.arz_x.tracer.TraceDirectoryReader;
+import com.arz_x.tracer.TraceLayout;
+import com.arz_x.tracer.TraceLevel;
+import com.arz_x.tracer.TraceQuery;
+import com.arz_x.tracer.TraceRecord;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Created by Rihter on 19.10.2026.
+ * Unit tests for TraceDirectoryReader
+ */
+public class TraceDirectoryReaderTest {
+    private static final int SHARDS_NUMBER = 2;
+    private static final int MESSAGES_NUMBER = 100;
+
+    private static final File TEMPORARY_FOLDER = new File("temp");
+    private static final File TRACES_FOLDER = new File(TEMPORARY_FOLDER, "traces");
+
+    @Before
+    public void setUp() throws Exception {
+        TRACES_FOLDER.mkdirs();
+        Assert.assertTrue(TRACES_FOLDER.isDirectory());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        for (File folder : new File[] {TRACES_FOLDER, TEMPORARY_FOLDER}) {
+            for (File subFile : folder.listFiles()) {
+                Contract.requireTrue(subFile.delete());
+            }
+            Contract.requireTrue(folder.delete());
+        }
+    }
+
+    @Test
+    public void shouldReadMatchedRecordsOfAllTraceFilesInOrder() throws Exception {
+        //region Initialization
+        final long startTimeMillis = System.currentTimeMillis();
+        writeTraceFile("first");
+        Thread.sleep(5);
+        final long secondFileTimeMillis = System.currentTimeMillis();
+        Thread.sleep(5);
+        writeTraceFile("second");
+        Assert.assertEquals(2 * SHARDS_NUMBER, TRACES_FOLDER.listFiles().length);
+        //endregion
+
+        //region Test
+        final List<String> allMessages = readMessages(new TraceQuery());
+        Assert.assertEquals(2 * 2 * MESSAGES_NUMBER, allMessages.size());
+        Assert.assertEquals("first 0", allMessages.get(0));
+        Assert.assertEquals("second " + (MESSAGES_NUMBER - 1), allMessages.get(allMessages.size() - 1));
+
+        final List<String> warningMessages = readMessages(new TraceQuery(TraceLevel.Warning
+                , startTimeMillis, Long.MAX_VALUE, TraceQuery.ANY_THREAD_ID, "Component"));
+        Assert.assertEquals(2 * MESSAGES_NUMBER / 2, warningMessages.size());
+        for (String message : warningMessages)
+            Assert.assertTrue(Integer.parseInt(message.split(" ")[1]) % 2 == 0);
+
+        final List<String> secondFileMessages = readMessages(new TraceQuery(null
+                , secondFileTimeMillis, Long.MAX_VALUE, Thread.currentThread().getId(), null));
+        Assert.assertEquals(2 * MESSAGES_NUMBER, secondFileMessages.size());
+        for (String message : secondFileMessages)
+            Assert.assertTrue(message.startsWith("second "));
+
+        Assert.assertTrue(readMessages(new TraceQuery(null, startTimeMillis, secondFileTimeMillis, 0, null)).isEmpty());
+        //endregion
+    }
+
+    private static void writeTraceFile(String name) throws Exception {
+        final ShardedFileTracer fileTracer = new ShardedFileTracer(new File(TEMPORARY_FOLDER, "bootstrap.log").getAbsolutePath()
+                , TraceLevel.Verbose, false
+                , TraceLayout.compile(TraceLayout.RECORD_PATTERN, Collections.<String, String>emptyMap(), Charset.forName("UTF-8"))
+                , SHARDS_NUMBER);
+        final ProductTracer productTracer = new ProductTracer(TRACES_FOLDER.getAbsolutePath()
+                , fileTracer
+                , new ProductTracer.Settings(true, ProductTracer.Settings.UNLIMITED_SIZE)
+                , null);
+        for (int messageIndex = 0; messageIndex < MESSAGES_NUMBER; ++messageIndex) {
+            final TraceLevel traceLevel = (messageIndex % 2 == 0) ? TraceLevel.Warning : TraceLevel.Info;
+            PrefixTracer.createPrefixTracer(productTracer, "Component").traceMessage(traceLevel, name + " " + messageIndex);
+            productTracer.traceMessage(TraceLevel.Error, name + " " + messageIndex);
+        }
+        productTracer.close();
+    }
+
+    private static List<String> readMessages(TraceQuery query) throws Exception {
+        List<String> messages = new ArrayList<>();
+        long lastTimeMillis = 0;
+        try (ITraceRecordReader reader = new TraceDirectoryReader(TRACES_FOLDER.getAbsolutePath(), query)) {
+            TraceRecord record;
+            while ((record = reader.readRecord()) != null) {
+                Assert.assertTrue(record.getTimeMillis() >= lastTimeMillis);
+                lastTimeMillis = record.getTimeMillis();
+                messages.add(record.getMessage());
+            }
+        }
+        return messages;
+    }
+}
@@ -0,0 +1,78 @@
+import com.arz_x.common.helpers.Contract;
+import com.arz_x.tracer.SynchronizedFileTracer;
+import com.arz_x.tracer.TraceFileReader;
+import com.arz_x.tracer.TraceLayout;
+import com.arz_x.tracer.TraceLevel;
+import com.arz_x.tracer.TraceRecord;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.Charset;
+
+/**
+ * Created by Rihter on 19.10.2026.
+ * Unit tests for TraceFileIndex written by file tracers and used by TraceFileReader
+ */
+public class TraceFileIndexTest {
+    private static final int INDEX_INTERVAL = 1024;
+    private static final int MESSAGES_NUMBER = 2000;
+
+    private static final File TEMPORARY_FOLDER = new File("temp");
+    private static final File TEST_FILE = new File(TEMPORARY_FOLDER, "test.log");
+    private static final File TEST_INDEX_FILE = new File(TEMPORARY_FOLDER, "test.log.idx");
+
+    @Before
+    public void setUp() throws Exception {
+        TEMPORARY_FOLDER.mkdir();
+        Assert.assertTrue(TEMPORARY_FOLDER.isDirectory());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        final File[] allSubFiles = TEMPORARY_FOLDER.listFiles();
+        for (File subFile : allSubFiles) {
+            Contract.requireTrue(subFile.delete());
+        }
+        Contract.requireTrue(TEMPORARY_FOLDER.delete());
+    }
+
+    @Test
+    public void shouldSeekToIndexEntryBeforeTime() throws Exception {
+        //region Initialization
+        SynchronizedFileTracer fileTracer = new SynchronizedFileTracer(TEST_FILE.getAbsolutePath(), TraceLevel.Verbose, false
+                , TraceLayout.compile(TraceLayout.DEFAULT_PATTERN), INDEX_INTERVAL);
+        for (int messageIndex = 0; messageIndex < MESSAGES_NUMBER; ++messageIndex)
+            fileTracer.traceMessage(TraceLevel.Info, "early " + messageIndex);
+        Thread.sleep(5);
+        final long fromTimeMillis = System.currentTimeMillis();
+        Thread.sleep(5);
+        for (int messageIndex = 0; messageIndex < MESSAGES_NUMBER; ++messageIndex)
+            fileTracer.traceMessage(TraceLevel.Info, "late " + messageIndex);
+        fileTracer.close();
+        //endregion
+
+        //region Test
+        Assert.assertTrue(TEST_INDEX_FILE.length() > 0);
+        Assert.assertEquals(TEST_FILE.length() + TEST_INDEX_FILE.length(), fileTracer.getFileSize());
+
+        int earlyRecordsNumber = 0;
+        int lateRecordsNumber = 0;
+        try (TraceFileReader reader = new TraceFileReader(TEST_FILE, Charset.forName("UTF-8"), fromTimeMillis)) {
+            TraceRecord record;
+            while ((record = reader.readRecord()) != null) {
+                if (record.getTimeMillis() < fromTimeMillis) {
+                    ++earlyRecordsNumber;
+                    continue;
+                }
+                Assert.assertEquals("late " + lateRecordsNumber, record.getMessage());
+                ++lateRecordsNumber;
+            }
+        }
+        Assert.assertEquals(MESSAGES_NUMBER, lateRecordsNumber);
+        Assert.assertTrue(earlyRecordsNumber < INDEX_INTERVAL / "early 0".length());
+        //endregion
+    }
+}
@@ -0,0 +1,149 @@
+import com.arz_x.common.helpers.Contract;
+import com.arz_x.tracer.ITraceRecordReader;
+import com.arz_x.tracer.IFileTracer;
+import com.arz_x.tracer.ProductTracer;
+import com.arz_x.tracer.ShardedFileTracer;
+import com.arz_x.tracer.SynchronizedFileTracer;
+import com.arz_x.tracer.TraceDirectoryReader;
+import com.arz_x.tracer.TraceLayout;
+import com.arz_x.tracer.TraceLevel;
+import com.arz_x.tracer.TraceQuery;
+import com.arz_x.tracer.TraceRecord;
+import com.arz_x.tracer.TraceSearch;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Created by Rihter on 19.10.2026.
+ * Unit tests for TraceSearch
+ */
+public class TraceSearchTest {
+    private static final int MESSAGES_NUMBER = 300;
+
+    private static final File TEMPORARY_FOLDER = new File("temp");
+    private static final File TRACES_FOLDER = new File(TEMPORARY_FOLDER, "traces");
+    private static final File BOOTSTRAP_FILE = new File(TEMPORARY_FOLDER, "bootstrap.log");
+
+    private static final TraceQuery WARNING_QUERY = new TraceQuery(TraceLevel.Warning, Long.MIN_VALUE, Long.MAX_VALUE, TraceQuery.ANY_THREAD_ID, null);
+
+    /* Chunks smaller than multi-line messages make records cross chunk boundaries */
+    private static final TraceSearch.Settings SMALL_CHUNK_SETTINGS = new TraceSearch.Settings(100, 4, Charset.forName("UTF-8"));
+
+    @Before
+    public void setUp() throws Exception {
+        TRACES_FOLDER.mkdirs();
+        Assert.assertTrue(TRACES_FOLDER.isDirectory());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        for (File folder : new File[] {TRACES_FOLDER, TEMPORARY_FOLDER}) {
+            for (File subFile : folder.listFiles()) {
+                Contract.requireTrue(subFile.delete());
+            }
+            Contract.requireTrue(folder.delete());
+        }
+    }
+
+    @Test
+    public void shouldFindTheSameRecordsAsDirectoryReaderInTimeOrder() throws Exception {
+        //region Initialization
+        writeRecordLayoutTraceFile();
+        Thread.sleep(5);
+        writeDefaultLayoutTraceFile();
+        //endregion
+
+        //region Test
+        assertFoundRecordsOfDirectoryReader(new TraceQuery(), "7");
+        //endregion
+    }
+
+    @Test
+    public void shouldFindRecordsOfQueriedLevel() throws Exception {
+        //region Initialization
+        writeRecordLayoutTraceFile();
+        //endregion
+
+        //region Test
+        assertFoundRecordsOfDirectoryReader(WARNING_QUERY, "7");
+        //endregion
+    }
+
+    @Test
+    public void shouldMatchRecordsWithoutLevelByLevelQuery() throws Exception {
+        //region Initialization
+        writeRecordLayoutTraceFile();
+        Thread.sleep(5);
+        writeDefaultLayoutTraceFile();
+        //endregion
+
+        //region Test
+        // all records of the default layout and only warnings and errors of the record layout
+        final List<TraceRecord> foundRecords = new TraceSearch(SMALL_CHUNK_SETTINGS).search(TRACES_FOLDER.getAbsolutePath(), WARNING_QUERY, null);
+        Assert.assertEquals(MESSAGES_NUMBER + MESSAGES_NUMBER * 2 / 3, foundRecords.size());
+        assertFoundRecordsOfDirectoryReader(WARNING_QUERY, "7");
+        //endregion
+    }
+
+    private static void assertFoundRecordsOfDirectoryReader(TraceQuery query, String substring) throws Exception {
+        final List<TraceRecord> foundRecords = new TraceSearch(SMALL_CHUNK_SETTINGS).search(TRACES_FOLDER.getAbsolutePath(), query, substring);
+
+        List<String> expectedMessages = new ArrayList<>();
+        try (ITraceRecordReader reader = new TraceDirectoryReader(TRACES_FOLDER.getAbsolutePath(), query)) {
+            TraceRecord record;
+            while ((record = reader.readRecord()) != null) {
+                if (record.getMessage().contains(substring))
+                    expectedMessages.add(record.getMessage());
+            }
+        }
+
+        Assert.assertFalse(foundRecords.isEmpty());
+        Assert.assertEquals(expectedMessages.size(), foundRecords.size());
+
+        long lastTimeMillis = Long.MIN_VALUE;
+        List<String> foundMessages = new ArrayList<>();
+        for (TraceRecord record : foundRecords) {
+            Assert.assertTrue(record.getTimeMillis() >= lastTimeMillis);
+            lastTimeMillis = record.getTimeMillis();
+            foundMessages.add(record.getMessage());
+        }
+        Assert.assertEquals(new HashSet<>(expectedMessages), new HashSet<>(foundMessages));
+    }
+
+    private static void writeRecordLayoutTraceFile() throws Exception {
+        writeTraceFile(new ShardedFileTracer(BOOTSTRAP_FILE.getAbsolutePath(), TraceLevel.Verbose, false
+                , TraceLayout.compile(TraceLayout.RECORD_PATTERN, Collections.<String, String>emptyMap(), Charset.forName("UTF-8")), 2));
+    }
+
+    private static void writeDefaultLayoutTraceFile() throws Exception {
+        // default layout is split by its index only
+        writeTraceFile(new SynchronizedFileTracer(BOOTSTRAP_FILE.getAbsolutePath(), TraceLevel.Verbose, false
+                , TraceLayout.compile(TraceLayout.DEFAULT_PATTERN), 256));
+    }
+
+    private static void writeTraceFile(IFileTracer fileTracer) throws Exception {
+        final ProductTracer productTracer = new ProductTracer(TRACES_FOLDER.getAbsolutePath()
+                , fileTracer
+                , new ProductTracer.Settings(true, ProductTracer.Settings.UNLIMITED_SIZE)
+                , null);
+        for (int messageIndex = 0; messageIndex < MESSAGES_NUMBER; ++messageIndex) {
+            final String message = fileTracer.getClass().getSimpleName() + " " + messageIndex;
+            if (messageIndex % 3 == 0)
+                productTracer.traceMessage(TraceLevel.Info, message);
+            else if (messageIndex % 3 == 1)
+                productTracer.traceMessage(TraceLevel.Warning, message + "\nsecond line of " + messageIndex);
+            else
+                productTracer.traceMessage(TraceLevel.Error, message);
+        }
+        productTracer.close();
+    }
+}
@@ -0,0 +1,58 @@
+package com.arz_x.benchmarks;
+
+import com.arz_x.common.service_container.InstantiateConstructor;
+import com.arz_x.common.service_container.ScopedLogic;
+import com.arz_x.common.service_container.ServiceContainer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created by Rihter on 19.10.2026.
+ * Measures cost of a per-request child container
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ChildContainerBenchmark {
+    public static class SingletonService {
+        @InstantiateConstructor
+        public SingletonService() {}
+    }
+
+    @ScopedLogic
+    public static class RequestService {
+        private final SingletonService singletonService;
+
+        @InstantiateConstructor
+        public RequestService(SingletonService singletonService) {
+            this.singletonService = singletonService;
+        }
+    }
+
+    private ServiceContainer serviceContainer;
+
+    @Setup
+    public void setUp() {
+        final ServiceContainer.Settings settings = new ServiceContainer.Settings();
+        settings.serviceClasses = new String[] {
+                SingletonService.class.getName(),
+                RequestService.class.getName(),
+        };
+        this.serviceContainer = new ServiceContainer(settings);
+        this.serviceContainer.getService(SingletonService.class);
+    }
+
+    @Benchmark
+    public Object createChildContainer() {
+        return this.serviceContainer.createChildContainer();
+    }
+
+    @Benchmark
+    public Object createChildContainerAndScopedService() {
+        return this.serviceContainer.createChildContainer().getService(RequestService.class);
+    }
+}
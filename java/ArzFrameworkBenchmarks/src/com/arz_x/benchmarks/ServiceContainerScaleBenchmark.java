@@ -0,0 +1,132 @@
+package com.arz_x.benchmarks;
+
+import com.arz_x.common.service_container.ServiceContainer;
+import com.arz_x.common.service_container.ServiceInitializationType;
+import com.arz_x.common.service_container.ServiceKey;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created by Rihter on 19.10.2026.
+ * ServiceContainer with hundreds to thousands of generated services (width * depth):
+ * construction, cold resolution of the whole graph and contended lookup of created services
+ */
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServiceContainerScaleBenchmark {
+    private static final int FAN_OUT = 3;
+
+    @State(Scope.Benchmark)
+    public static class GraphState {
+        @Param({"10", "100"})
+        public int width;
+
+        @Param({"10"})
+        public int depth;
+
+        SyntheticServiceGraph graph;
+
+        @Setup
+        public void setUp() throws IOException {
+            this.graph = SyntheticServiceGraph.generate(this.width, this.depth, FAN_OUT);
+        }
+
+        @TearDown
+        public void tearDown() throws IOException {
+            this.graph.close();
+        }
+
+        ServiceContainer createContainer(ServiceInitializationType initializationType) {
+            final ServiceContainer.Settings settings = new ServiceContainer.Settings();
+            settings.initializationType = initializationType;
+            settings.classLoader = this.graph.getClassLoader();
+            settings.serviceClasses = this.graph.getServiceClassNames();
+            return new ServiceContainer(settings);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class ConstructionState {
+        @Param({"Lazy", "CreateAllAtStart"})
+        public ServiceInitializationType initializationType;
+    }
+
+    @State(Scope.Benchmark)
+    public static class ColdContainerState {
+        ServiceContainer serviceContainer;
+
+        @Setup(Level.Iteration)
+        public void setUp(GraphState graphState) {
+            this.serviceContainer = graphState.createContainer(ServiceInitializationType.Lazy);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class CreatedContainerState {
+        ServiceContainer serviceContainer;
+        ServiceKey<?>[] serviceKeys;
+
+        @Setup
+        public void setUp(GraphState graphState) {
+            this.serviceContainer = graphState.createContainer(ServiceInitializationType.CreateAllAtStart);
+
+            final Class<?>[] serviceInterfaces = graphState.graph.getServiceInterfaces();
+            this.serviceKeys = new ServiceKey<?>[serviceInterfaces.length];
+            for (int index = 0; index < serviceInterfaces.length; ++index)
+                this.serviceKeys[index] = this.serviceContainer.getServiceKey(serviceInterfaces[index]);
+        }
+    }
+
+    /* Each thread walks over all services from its own position */
+    @State(Scope.Thread)
+    public static class ServiceCursor {
+        private int position = (int) (Thread.currentThread().getId() * 31);
+
+        int next(int servicesCount) {
+            this.position = (this.position + 1) % servicesCount;
+            return this.position;
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Object constructContainer(GraphState graphState, ConstructionState constructionState) {
+        return graphState.createContainer(constructionState.initializationType);
+    }
+
+    /**
+     * One shot per iteration: the container is created anew before each iteration
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 10)
+    @Measurement(iterations = 30)
+    public Object resolveGraphCold(GraphState graphState, ColdContainerState coldContainerState) {
+        Object lastService = null;
+        for (String serviceClassName : graphState.graph.getRootServiceClassNames())
+            lastService = coldContainerState.serviceContainer.getService(serviceClassName);
+        return lastService;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Threads(8)
+    public Object getCreatedServiceByInterface(GraphState graphState, CreatedContainerState containerState, ServiceCursor cursor) {
+        final Class<?>[] serviceInterfaces = graphState.graph.getServiceInterfaces();
+        return containerState.serviceContainer.getService(serviceInterfaces[cursor.next(serviceInterfaces.length)]);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Threads(8)
+    public Object getCreatedServiceByKey(CreatedContainerState containerState, ServiceCursor cursor) {
+        return containerState.serviceContainer.getService(containerState.serviceKeys[cursor.next(containerState.serviceKeys.length)]);
+    }
+}
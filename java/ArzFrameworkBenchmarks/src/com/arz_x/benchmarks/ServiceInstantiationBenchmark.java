@@ -0,0 +1,74 @@
+package com.arz_x.benchmarks;
+
+import com.arz_x.common.service_container.IServiceFactory;
+import com.arz_x.common.service_container.InstantiateConstructor;
+import com.arz_x.common.service_container.ServiceFactories;
+import com.arz_x.common.service_container.ServiceInstantiationStrategy;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created by Rihter on 19.10.2026.
+ * Compares service instantiation strategies with direct 'new'
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ServiceInstantiationBenchmark {
+    public static class EmptyService {
+        @InstantiateConstructor
+        public EmptyService() {}
+    }
+
+    public static class DependentService {
+        private final EmptyService dependency1;
+        private final EmptyService dependency2;
+
+        @InstantiateConstructor
+        public DependentService(EmptyService dependency1, EmptyService dependency2) {
+            this.dependency1 = dependency1;
+            this.dependency2 = dependency2;
+        }
+    }
+
+    @Param({"Reflection", "MethodHandles"})
+    public ServiceInstantiationStrategy strategy;
+
+    private IServiceFactory emptyServiceFactory;
+    private IServiceFactory dependentServiceFactory;
+
+    private final Object[] noArguments = new Object[0];
+    private Object[] dependentArguments;
+
+    @Setup
+    public void setUp() throws Exception {
+        this.emptyServiceFactory = ServiceFactories.createFactory(EmptyService.class.getConstructor(), this.strategy);
+        this.dependentServiceFactory = ServiceFactories.createFactory(
+                DependentService.class.getConstructor(EmptyService.class, EmptyService.class), this.strategy);
+        this.dependentArguments = new Object[] { new EmptyService(), new EmptyService() };
+    }
+
+    @Benchmark
+    public Object directNewEmptyService() {
+        return new EmptyService();
+    }
+
+    @Benchmark
+    public Object directNewDependentService() {
+        return new DependentService((EmptyService) this.dependentArguments[0], (EmptyService) this.dependentArguments[1]);
+    }
+
+    @Benchmark
+    public Object factoryEmptyService() throws Exception {
+        return this.emptyServiceFactory.newInstance(this.noArguments);
+    }
+
+    @Benchmark
+    public Object factoryDependentService() throws Exception {
+        return this.dependentServiceFactory.newInstance(this.dependentArguments);
+    }
+}
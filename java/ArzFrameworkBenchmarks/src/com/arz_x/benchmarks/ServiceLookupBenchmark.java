@@ -0,0 +1,65 @@
+package com.arz_x.benchmarks;
+
+import com.arz_x.common.service_container.InstantiateConstructor;
+import com.arz_x.common.service_container.ServiceContainer;
+import com.arz_x.common.service_container.ServiceKey;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created by Rihter on 19.10.2026.
+ * Compares lookup of created singletons before and after ServiceContainer.freeze()
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ServiceLookupBenchmark {
+    public interface ILookedUpService {
+    }
+
+    public static class LookedUpService implements ILookedUpService {
+        @InstantiateConstructor
+        public LookedUpService() {}
+    }
+
+    @Param({"false", "true"})
+    public boolean frozen;
+
+    private ServiceContainer serviceContainer;
+    private ServiceKey<ILookedUpService> serviceKey;
+
+    @Setup
+    public void setUp() {
+        final ServiceContainer.Settings settings = new ServiceContainer.Settings();
+        settings.serviceClasses = new String[] {
+                LookedUpService.class.getName(),
+        };
+        this.serviceContainer = new ServiceContainer(settings);
+        this.serviceContainer.getService(ILookedUpService.class);
+        if (this.frozen)
+            this.serviceContainer.freeze();
+        this.serviceKey = this.serviceContainer.getServiceKey(ILookedUpService.class);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object getServiceByInterface() {
+        return this.serviceContainer.getService(ILookedUpService.class);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object getServiceByName() {
+        return this.serviceContainer.getService(LookedUpService.class.getName());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object getServiceByKey() {
+        return this.serviceContainer.getService(this.serviceKey);
+    }
+}
@@ -0,0 +1,160 @@
+package com.arz_x.benchmarks;
+
+import com.arz_x.common.service_container.InstantiateConstructor;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Created by Rihter on 19.10.2026.
+ * Layered graph of generated services: each service of a layer depends on fanOut services of the next layer
+ * through their interfaces, services of the last layer have no dependencies.
+ * Sources are compiled with the JDK compiler into a temporary directory and loaded by own class loader
+ */
+public class SyntheticServiceGraph implements AutoCloseable {
+    private static final String PACKAGE_NAME = "synthetic";
+
+    private final File classesDirectory;
+    private final URLClassLoader classLoader;
+    private final String[] serviceClassNames;
+    private final String[] rootServiceClassNames;
+    private final Class<?>[] serviceInterfaces;
+
+    private SyntheticServiceGraph(File classesDirectory, URLClassLoader classLoader
+            , String[] serviceClassNames, String[] rootServiceClassNames, Class<?>[] serviceInterfaces) {
+        this.classesDirectory = classesDirectory;
+        this.classLoader = classLoader;
+        this.serviceClassNames = serviceClassNames;
+        this.rootServiceClassNames = rootServiceClassNames;
+        this.serviceInterfaces = serviceInterfaces;
+    }
+
+    /**
+     * @param width Services in each layer
+     * @param depth Number of layers
+     * @param fanOut Dependencies of each service of not the last layer
+     */
+    public static SyntheticServiceGraph generate(int width, int depth, int fanOut) throws IOException {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null)
+            throw new IllegalStateException("Synthetic services are compiled at runtime, so benchmarks must be run on JDK");
+
+        final File sourcesDirectory = Files.createTempDirectory("arz_synthetic_sources").toFile();
+        final File classesDirectory = Files.createTempDirectory("arz_synthetic_classes").toFile();
+        final File packageDirectory = new File(sourcesDirectory, PACKAGE_NAME);
+        if (!packageDirectory.mkdirs())
+            throw new IOException("Unable to create " + packageDirectory);
+
+        List<String> compilerArguments = new ArrayList<>();
+        compilerArguments.add("-nowarn");
+        compilerArguments.add("-proc:none");
+        compilerArguments.add("-cp");
+        compilerArguments.add(System.getProperty("java.class.path"));
+        compilerArguments.add("-d");
+        compilerArguments.add(classesDirectory.getAbsolutePath());
+
+        List<String> serviceClassNames = new ArrayList<>();
+        List<String> interfaceNames = new ArrayList<>();
+        for (int layer = 0; layer < depth; ++layer) {
+            for (int index = 0; index < width; ++index) {
+                final String serviceName = "Service_" + layer + "_" + index;
+                final String interfaceName = "IService_" + layer + "_" + index;
+
+                StringBuilder parameters = new StringBuilder();
+                if (layer + 1 < depth) {
+                    for (int dependency = 0; dependency < Math.min(fanOut, width); ++dependency) {
+                        parameters.append((dependency == 0) ? "" : ", ")
+                                .append("IService_").append(layer + 1).append('_').append((index + dependency) % width)
+                                .append(" dependency").append(dependency);
+                    }
+                }
+
+                compilerArguments.add(writeSource(packageDirectory, interfaceName
+                        , "public interface " + interfaceName + " {\n}\n"));
+                compilerArguments.add(writeSource(packageDirectory, serviceName
+                        , "public class " + serviceName + " implements " + interfaceName + " {\n"
+                        + "    @" + InstantiateConstructor.class.getName() + "\n"
+                        + "    public " + serviceName + "(" + parameters + ") {\n"
+                        + "    }\n"
+                        + "}\n"));
+
+                serviceClassNames.add(PACKAGE_NAME + "." + serviceName);
+                interfaceNames.add(PACKAGE_NAME + "." + interfaceName);
+            }
+        }
+
+        try {
+            if (compiler.run(null, null, null, compilerArguments.toArray(new String[0])) != 0)
+                throw new IllegalStateException("Unable to compile synthetic services");
+        } finally {
+            deleteRecursively(sourcesDirectory);
+        }
+
+        final URLClassLoader classLoader = new URLClassLoader(new URL[] { classesDirectory.toURI().toURL() }
+                , SyntheticServiceGraph.class.getClassLoader());
+        Class<?>[] serviceInterfaces = new Class<?>[interfaceNames.size()];
+        try {
+            for (int index = 0; index < serviceInterfaces.length; ++index)
+                serviceInterfaces[index] = Class.forName(interfaceNames.get(index), false, classLoader);
+        } catch (ClassNotFoundException exp) {
+            throw new IllegalStateException(exp);
+        }
+
+        return new SyntheticServiceGraph(classesDirectory
+                , classLoader
+                , serviceClassNames.toArray(new String[0])
+                , serviceClassNames.subList(0, Math.min(width, serviceClassNames.size())).toArray(new String[0])
+                , serviceInterfaces);
+    }
+
+    public ClassLoader getClassLoader() {
+        return this.classLoader;
+    }
+
+    public String[] getServiceClassNames() {
+        return this.serviceClassNames;
+    }
+
+    /**
+     * @return Services of the first layer: resolving all of them creates the whole graph
+     */
+    public String[] getRootServiceClassNames() {
+        return this.rootServiceClassNames;
+    }
+
+    public Class<?>[] getServiceInterfaces() {
+        return this.serviceInterfaces;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.classLoader.close();
+        deleteRecursively(this.classesDirectory);
+    }
+
+    private static String writeSource(File packageDirectory, String typeName, String body) throws IOException {
+        final File sourceFile = new File(packageDirectory, typeName + ".java");
+        try (Writer writer = Files.newBufferedWriter(sourceFile.toPath(), StandardCharsets.UTF_8)) {
+            writer.write("package " + PACKAGE_NAME + ";\n\n" + body);
+        }
+        return sourceFile.getAbsolutePath();
+    }
+
+    private static void deleteRecursively(File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children)
+                deleteRecursively(child);
+        }
+        file.delete();
+    }
+}
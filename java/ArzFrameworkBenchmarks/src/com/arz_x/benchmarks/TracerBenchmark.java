@@ -0,0 +1,150 @@
+package com.arz_x.benchmarks;
+
+import com.arz_x.CommonException;
+import com.arz_x.CommonResultCode;
+import com.arz_x.tracer.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created by Rihter on 19.10.2026.
+ * Baseline of the tracer stack: throughput and latency distribution of a trace call.
+ *
+ * Directories are taken from system properties arz.benchmarks.tmpfsDirectory (default /dev/shm)
+ * and arz.benchmarks.diskDirectory (default java.io.tmpdir, make sure it is not tmpfs itself).
+ * Allocation rate is reported with the GC profiler:
+ *     java -jar target/benchmarks.jar TracerBenchmark -prof gc
+ * Other thread counts are measured with -t N
+ * ThreadBuffered file tracer is expected to scale with threads where Synchronized one flattens
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TracerBenchmark {
+    private static final String TRACE_MESSAGE = "Request 42 is processed in 17 ms";
+    private static final long MAX_TRACE_FILES_SUM_SIZE = 64 * 1024 * 1024L;
+
+    @Param({"SynchronizedFileTracer", "ProductTracer", "PrefixTracerChain"})
+    public String tracerType;
+
+    @Param({"Synchronized", "ThreadBuffered"})
+    public String fileTracerType;
+
+    /* Enabled traces are written, Filtered ones are below the minimal level */
+    @Param({"Enabled", "Filtered"})
+    public String traceLevelType;
+
+    @Param({"tmpfs", "disk"})
+    public String directoryType;
+
+    private File tracesDirectory;
+    private IFileTracer fileTracer;
+    private ProductTracer productTracer;
+    private ITracer tracer;
+    private TraceLevel traceLevel;
+    private Exception tracedException;
+
+    @Setup
+    public void setUp() {
+        this.tracesDirectory = new File(getBaseDirectory(), "arz_tracer_benchmark_" + System.nanoTime());
+        if (!this.tracesDirectory.mkdirs())
+            throw new IllegalStateException("Unable to create " + this.tracesDirectory);
+
+        final String traceFilePath = new File(this.tracesDirectory, "trace.log").getAbsolutePath();
+        this.fileTracer = "ThreadBuffered".equals(this.fileTracerType)
+                ? new ThreadBufferedFileTracer(traceFilePath, TraceLevel.Info, false)
+                : new SynchronizedFileTracer(traceFilePath, TraceLevel.Info, false);
+        this.traceLevel = "Enabled".equals(this.traceLevelType) ? TraceLevel.Error : TraceLevel.Debug;
+        this.tracedException = new CommonException(CommonResultCode.InvalidState);
+
+        switch (this.tracerType) {
+            case "SynchronizedFileTracer":
+                this.tracer = this.fileTracer;
+                break;
+            case "ProductTracer":
+                this.productTracer = createProductTracer();
+                this.tracer = this.productTracer;
+                break;
+            case "PrefixTracerChain":
+                this.productTracer = createProductTracer();
+                this.tracer = PrefixTracer.createPrefixTracer(
+                        PrefixTracer.createPrefixTracer(this.productTracer, "Server"), "RequestHandler");
+                break;
+            default:
+                throw new IllegalArgumentException(this.tracerType);
+        }
+    }
+
+    /**
+     * Keeps the single trace file from growing through the whole run, ProductTracer limits its files itself
+     */
+    @Setup(Level.Iteration)
+    public void truncateTraceFile() {
+        if (this.productTracer == null)
+            this.fileTracer.openNewFile(this.fileTracer.getCurrentFilePath());
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        if (this.productTracer != null)
+            this.productTracer.close();
+        ((Closeable) this.fileTracer).close();
+
+        final File[] traceFiles = this.tracesDirectory.listFiles();
+        if (traceFiles != null) {
+            for (File traceFile : traceFiles)
+                traceFile.delete();
+        }
+        this.tracesDirectory.delete();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void traceMessage() {
+        this.tracer.traceMessage(this.traceLevel, TRACE_MESSAGE);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void traceMessageContended() {
+        this.tracer.traceMessage(this.traceLevel, TRACE_MESSAGE);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void traceMessageAllCores() {
+        this.tracer.traceMessage(this.traceLevel, TRACE_MESSAGE);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void traceException() {
+        TraceHelpers.traceException(this.tracer, this.traceLevel, this.tracedException);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void traceExceptionContended() {
+        TraceHelpers.traceException(this.tracer, this.traceLevel, this.tracedException);
+    }
+
+    private ProductTracer createProductTracer() {
+        return new ProductTracer(this.tracesDirectory.getAbsolutePath()
+                , this.fileTracer
+                , new ProductTracer.Settings(true, MAX_TRACE_FILES_SUM_SIZE)
+                , null);
+    }
+
+    private String getBaseDirectory() {
+        return "tmpfs".equals(this.directoryType)
+                ? System.getProperty("arz.benchmarks.tmpfsDirectory", "/dev/shm")
+                : System.getProperty("arz.benchmarks.diskDirectory", System.getProperty("java.io.tmpdir"));
+    }
+}
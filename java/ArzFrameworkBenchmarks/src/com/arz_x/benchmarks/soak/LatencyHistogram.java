@@ -0,0 +1,85 @@
+package com.arz_x.benchmarks.soak;
+
+import java.util.Arrays;
+
+/**
+ * Created by Rihter on 19.10.2026.
+ * Fixed size log-linear histogram of latencies in nanoseconds: each power of two range is split
+ * into 16 buckets, so percentiles are reported with about 6% precision whatever the run length is.
+ * Not thread safe
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+    private long totalCount;
+    private long maxValue;
+
+    public void record(long valueNanos) {
+        final long value = Math.max(0, valueNanos);
+        ++this.counts[getBucketIndex(value)];
+        ++this.totalCount;
+        if (value > this.maxValue)
+            this.maxValue = value;
+    }
+
+    public void add(LatencyHistogram histogram) {
+        for (int index = 0; index < BUCKETS; ++index)
+            this.counts[index] += histogram.counts[index];
+        this.totalCount += histogram.totalCount;
+        this.maxValue = Math.max(this.maxValue, histogram.maxValue);
+    }
+
+    public void reset() {
+        Arrays.fill(this.counts, 0);
+        this.totalCount = 0;
+        this.maxValue = 0;
+    }
+
+    public long getTotalCount() {
+        return this.totalCount;
+    }
+
+    public long getMaxValue() {
+        return this.maxValue;
+    }
+
+    /**
+     * @param percentile From 0 to 100
+     * @return Upper bound of the bucket containing the percentile, 0 if there are no values
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (this.totalCount == 0)
+            return 0;
+
+        final long targetCount = Math.max(1, (long) Math.ceil(this.totalCount * percentile / 100));
+        long count = 0;
+        for (int index = 0; index < BUCKETS; ++index) {
+            count += this.counts[index];
+            if (count >= targetCount)
+                return Math.min(getBucketUpperBound(index), this.maxValue);
+        }
+        return this.maxValue;
+    }
+
+    private static int getBucketIndex(long value) {
+        if (value < SUB_BUCKETS)
+            return (int) value;
+
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        final int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long getBucketUpperBound(int index) {
+        if (index < SUB_BUCKETS)
+            return index;
+
+        final int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        final long subBucket = index % SUB_BUCKETS;
+        final long lowerBound = (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+        return lowerBound + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+}
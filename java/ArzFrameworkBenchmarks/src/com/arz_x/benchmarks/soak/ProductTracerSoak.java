@@ -0,0 +1,322 @@
+package com.arz_x.benchmarks.soak;
+
+import com.arz_x.tracer.IProductTracerEvents;
+import com.arz_x.tracer.ProductTracer;
+import com.arz_x.tracer.IFileTracer;
+import com.arz_x.tracer.SynchronizedFileTracer;
+import com.arz_x.tracer.ThreadBufferedFileTracer;
+import com.arz_x.tracer.TraceLevel;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Created by Rihter on 19.10.2026.
+ * Long running load generator for ProductTracer with a small quota.
+ * Writers trace at a fixed rate; latency of calls that removed files (rotation and quota checks)
+ * is reported apart from the others, and a monitor verifies that trace files never exceed the quota.
+ *
+ * Usage:
+ *     java -cp target/benchmarks.jar com.arz_x.benchmarks.soak.ProductTracerSoak
+ *         [--threads=4] [--rate=2000] [--messageSize=200] [--quota=1048576]
+ *         [--duration=60] [--reportInterval=5] [--directory=path] [--fileTracer=Synchronized|ThreadBuffered]
+ * rate is messages per second of each thread, 0 means as fast as possible; duration and reportInterval are in seconds.
+ * ThreadBuffered file tracer flushes buffers to the file which is being deleted, so each thread may add its buffer over the quota.
+ * Exit code is 1 if the quota was exceeded or a writer failed
+ */
+public class ProductTracerSoak {
+    private static final long QUOTA_MONITOR_INTERVAL_MILLIS = 20;
+    /* Quota is checked after a message is written, so files may exceed it by one line with its header of each writer */
+    private static final long TRACE_LINE_HEADER_SIZE = 64;
+
+    static class Options {
+        int threads = 4;
+        long rate = 2000;
+        int messageSize = 200;
+        long quota = 1024 * 1024L;
+        long durationSeconds = 60;
+        long reportIntervalSeconds = 5;
+        String directory = new File(System.getProperty("java.io.tmpdir"), "arz_product_tracer_soak").getAbsolutePath();
+        String fileTracer = "Synchronized";
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (String arg : args) {
+                final int separatorIndex = arg.indexOf('=');
+                if ((!arg.startsWith("--")) || (separatorIndex < 0))
+                    throw new IllegalArgumentException("Expected --name=value: " + arg);
+
+                final String name = arg.substring(2, separatorIndex);
+                final String value = arg.substring(separatorIndex + 1);
+                switch (name) {
+                    case "threads": options.threads = Integer.parseInt(value); break;
+                    case "rate": options.rate = Long.parseLong(value); break;
+                    case "messageSize": options.messageSize = Integer.parseInt(value); break;
+                    case "quota": options.quota = Long.parseLong(value); break;
+                    case "duration": options.durationSeconds = Long.parseLong(value); break;
+                    case "reportInterval": options.reportIntervalSeconds = Long.parseLong(value); break;
+                    case "directory": options.directory = value; break;
+                    case "fileTracer": options.fileTracer = value; break;
+                    default: throw new IllegalArgumentException("Unknown option: " + name);
+                }
+            }
+            return options;
+        }
+    }
+
+    /**
+     * Latencies of one writer. Guarded by itself: written by the writer, read and reset by the reporter
+     */
+    private static class WriterLatencies {
+        final LatencyHistogram intervalLatencies = new LatencyHistogram();
+        final LatencyHistogram intervalEventLatencies = new LatencyHistogram();
+    }
+
+    private final Options options;
+    private final List<WriterLatencies> writerLatencies;
+    private final LatencyHistogram totalLatencies;
+    private final LatencyHistogram totalEventLatencies;
+
+    /* Set by onRemoveFiles on the thread whose traceMessage caused removal */
+    private final ThreadLocal<boolean[]> isFilesRemovedInCall;
+    private final AtomicLong removalEvents;
+    private final AtomicLong removedFiles;
+    private final AtomicLong maxTraceFilesSize;
+    private final AtomicLong quotaViolations;
+    private final AtomicReference<Throwable> writerFailure;
+
+    private volatile boolean isStopped;
+
+    ProductTracerSoak(Options options) {
+        this.options = options;
+        this.writerLatencies = new ArrayList<>();
+        this.totalLatencies = new LatencyHistogram();
+        this.totalEventLatencies = new LatencyHistogram();
+        this.isFilesRemovedInCall = new ThreadLocal<boolean[]>() {
+            @Override
+            protected boolean[] initialValue() {
+                return new boolean[1];
+            }
+        };
+        this.removalEvents = new AtomicLong();
+        this.removedFiles = new AtomicLong();
+        this.maxTraceFilesSize = new AtomicLong();
+        this.quotaViolations = new AtomicLong();
+        this.writerFailure = new AtomicReference<>();
+    }
+
+    public static void main(String[] args) throws Exception {
+        final boolean isPassed = new ProductTracerSoak(Options.parse(args)).run();
+        System.exit(isPassed ? 0 : 1);
+    }
+
+    boolean run() throws Exception {
+        final File tracesDirectory = new File(this.options.directory);
+        deleteTraceFiles(tracesDirectory);
+
+        final ProductTracer productTracer = createProductTracer(tracesDirectory);
+        System.out.println(String.format("threads=%d rate=%d/s per thread messageSize=%d quota=%d fileTracer=%s directory=%s"
+                , this.options.threads, this.options.rate, this.options.messageSize, this.options.quota
+                , this.options.fileTracer, tracesDirectory));
+
+        List<Thread> threads = new ArrayList<>();
+        for (int index = 0; index < this.options.threads; ++index) {
+            final WriterLatencies latencies = new WriterLatencies();
+            this.writerLatencies.add(latencies);
+            threads.add(startThread("soak-writer-" + index, new Runnable() {
+                @Override
+                public void run() {
+                    write(productTracer, latencies);
+                }
+            }));
+        }
+        threads.add(startThread("soak-quota-monitor", new Runnable() {
+            @Override
+            public void run() {
+                monitorQuota(tracesDirectory);
+            }
+        }));
+
+        final long startTime = System.nanoTime();
+        final long endTime = startTime + TimeUnit.SECONDS.toNanos(this.options.durationSeconds);
+        long nextReportTime = startTime + TimeUnit.SECONDS.toNanos(this.options.reportIntervalSeconds);
+        while ((System.nanoTime() < endTime) && (this.writerFailure.get() == null)) {
+            LockSupport.parkNanos(Math.min(nextReportTime, endTime) - System.nanoTime());
+            if (System.nanoTime() >= nextReportTime) {
+                report(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startTime));
+                nextReportTime += TimeUnit.SECONDS.toNanos(this.options.reportIntervalSeconds);
+            }
+        }
+
+        this.isStopped = true;
+        for (Thread thread : threads)
+            thread.join();
+        productTracer.close();
+        report(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startTime));
+
+        return printSummary();
+    }
+
+    private ProductTracer createProductTracer(File tracesDirectory) {
+        if ((!tracesDirectory.mkdirs()) && (!tracesDirectory.isDirectory()))
+            throw new IllegalStateException("Unable to create " + tracesDirectory);
+
+        // the file tracer needs a file to start with, ProductTracer opens its own trace file at once
+        final File bootstrapFile = new File(tracesDirectory.getParentFile(), tracesDirectory.getName() + "_bootstrap.log");
+        final IFileTracer fileTracer = isThreadBuffered()
+                ? new ThreadBufferedFileTracer(bootstrapFile.getAbsolutePath(), TraceLevel.Verbose, false)
+                : new SynchronizedFileTracer(bootstrapFile.getAbsolutePath(), TraceLevel.Verbose, false);
+        final ProductTracer productTracer = new ProductTracer(tracesDirectory.getAbsolutePath()
+                , fileTracer
+                , new ProductTracer.Settings(true, this.options.quota)
+                , new IProductTracerEvents() {
+                    @Override
+                    public void onRemoveFiles(File[] files) {
+                        isFilesRemovedInCall.get()[0] = true;
+                        removalEvents.incrementAndGet();
+                        removedFiles.addAndGet(files.length);
+                    }
+                });
+        bootstrapFile.delete();
+        return productTracer;
+    }
+
+    private void write(ProductTracer productTracer, WriterLatencies latencies) {
+        final String message = createMessage(this.options.messageSize);
+        final long intervalNanos = (this.options.rate > 0) ? TimeUnit.SECONDS.toNanos(1) / this.options.rate : 0;
+        final boolean[] isFilesRemoved = this.isFilesRemovedInCall.get();
+
+        long nextWriteTime = System.nanoTime();
+        try {
+            while (!this.isStopped) {
+                if (intervalNanos > 0) {
+                    final long waitTime = nextWriteTime - System.nanoTime();
+                    if (waitTime > 0)
+                        LockSupport.parkNanos(waitTime);
+                    nextWriteTime += intervalNanos;
+                }
+
+                isFilesRemoved[0] = false;
+                final long callStartTime = System.nanoTime();
+                productTracer.traceMessage(TraceLevel.Info, message);
+                final long latency = System.nanoTime() - callStartTime;
+
+                synchronized (latencies) {
+                    if (isFilesRemoved[0])
+                        latencies.intervalEventLatencies.record(latency);
+                    else
+                        latencies.intervalLatencies.record(latency);
+                }
+            }
+        } catch (Throwable exp) {
+            this.writerFailure.compareAndSet(null, exp);
+        }
+    }
+
+    private void monitorQuota(File tracesDirectory) {
+        long allowedSize = this.options.quota + this.options.threads * (this.options.messageSize + TRACE_LINE_HEADER_SIZE);
+        if (isThreadBuffered())
+            allowedSize += (long) this.options.threads * ThreadBufferedFileTracer.Settings.DEFAULT_THREAD_BUFFER_SIZE;
+        while (!this.isStopped) {
+            long traceFilesSize = 0;
+            final String[] traceFiles = ProductTracer.getAllTraceFiles(tracesDirectory.getAbsolutePath());
+            if (traceFiles != null) {
+                for (String traceFile : traceFiles)
+                    traceFilesSize += new File(traceFile).length();
+            }
+
+            long maxSize;
+            while ((traceFilesSize > (maxSize = this.maxTraceFilesSize.get()))
+                    && (!this.maxTraceFilesSize.compareAndSet(maxSize, traceFilesSize))) {
+                // retry
+            }
+            if (traceFilesSize > allowedSize)
+                this.quotaViolations.incrementAndGet();
+
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(QUOTA_MONITOR_INTERVAL_MILLIS));
+        }
+    }
+
+    private void report(long elapsedSeconds) {
+        LatencyHistogram intervalLatencies = new LatencyHistogram();
+        LatencyHistogram intervalEventLatencies = new LatencyHistogram();
+        for (WriterLatencies latencies : this.writerLatencies) {
+            synchronized (latencies) {
+                intervalLatencies.add(latencies.intervalLatencies);
+                intervalEventLatencies.add(latencies.intervalEventLatencies);
+                latencies.intervalLatencies.reset();
+                latencies.intervalEventLatencies.reset();
+            }
+        }
+        this.totalLatencies.add(intervalLatencies);
+        this.totalEventLatencies.add(intervalEventLatencies);
+
+        System.out.println(String.format("[%5ds] %s | removing files: %s | max size=%d violations=%d"
+                , elapsedSeconds
+                , formatLatencies(intervalLatencies)
+                , formatLatencies(intervalEventLatencies)
+                , this.maxTraceFilesSize.get()
+                , this.quotaViolations.get()));
+    }
+
+    private boolean printSummary() {
+        System.out.println("total: " + formatLatencies(this.totalLatencies));
+        System.out.println(String.format("removing files: %s, events=%d removed files=%d"
+                , formatLatencies(this.totalEventLatencies), this.removalEvents.get(), this.removedFiles.get()));
+        System.out.println(String.format("max size of trace files=%d of quota %d, violations=%d"
+                , this.maxTraceFilesSize.get(), this.options.quota, this.quotaViolations.get()));
+
+        final Throwable failure = this.writerFailure.get();
+        if (failure != null) {
+            System.out.println("writer failed: " + failure);
+            failure.printStackTrace(System.out);
+        }
+        return (failure == null) && (this.quotaViolations.get() == 0);
+    }
+
+    private boolean isThreadBuffered() {
+        return "ThreadBuffered".equals(this.options.fileTracer);
+    }
+
+    private static String formatLatencies(LatencyHistogram latencies) {
+        return String.format("count=%d p50=%s p99=%s max=%s"
+                , latencies.getTotalCount()
+                , formatNanos(latencies.getValueAtPercentile(50))
+                , formatNanos(latencies.getValueAtPercentile(99))
+                , formatNanos(latencies.getMaxValue()));
+    }
+
+    private static String formatNanos(long nanos) {
+        if (nanos < TimeUnit.MICROSECONDS.toNanos(10))
+            return String.format("%.2fus", nanos / 1000.0);
+        if (nanos < TimeUnit.MILLISECONDS.toNanos(10))
+            return String.format("%.0fus", nanos / 1000.0);
+        return String.format("%.1fms", nanos / 1000000.0);
+    }
+
+    private static String createMessage(int messageSize) {
+        char[] message = new char[messageSize];
+        Arrays.fill(message, 'x');
+        return new String(message);
+    }
+
+    private static Thread startThread(String name, Runnable runnable) {
+        final Thread thread = new Thread(runnable, name);
+        thread.start();
+        return thread;
+    }
+
+    private static void deleteTraceFiles(File tracesDirectory) {
+        final String[] traceFiles = ProductTracer.getAllTraceFiles(tracesDirectory.getAbsolutePath());
+        if (traceFiles == null)
+            return;
+        for (String traceFile : traceFiles)
+            new File(traceFile).delete();
+    }
+}
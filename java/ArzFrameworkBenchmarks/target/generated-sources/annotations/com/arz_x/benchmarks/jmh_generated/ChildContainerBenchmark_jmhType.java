@@ -0,0 +1,4 @@
+package com.arz_x.benchmarks.jmh_generated;
+public class ChildContainerBenchmark_jmhType extends ChildContainerBenchmark_jmhType_B3 {
+}
+
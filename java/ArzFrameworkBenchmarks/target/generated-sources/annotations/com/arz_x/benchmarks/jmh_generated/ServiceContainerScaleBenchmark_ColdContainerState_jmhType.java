@@ -0,0 +1,4 @@
+package com.arz_x.benchmarks.jmh_generated;
+public class ServiceContainerScaleBenchmark_ColdContainerState_jmhType extends ServiceContainerScaleBenchmark_ColdContainerState_jmhType_B3 {
+}
+
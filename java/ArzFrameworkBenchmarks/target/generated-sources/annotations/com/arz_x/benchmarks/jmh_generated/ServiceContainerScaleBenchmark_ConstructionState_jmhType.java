@@ -0,0 +1,4 @@
+package com.arz_x.benchmarks.jmh_generated;
+public class ServiceContainerScaleBenchmark_ConstructionState_jmhType extends ServiceContainerScaleBenchmark_ConstructionState_jmhType_B3 {
+}
+
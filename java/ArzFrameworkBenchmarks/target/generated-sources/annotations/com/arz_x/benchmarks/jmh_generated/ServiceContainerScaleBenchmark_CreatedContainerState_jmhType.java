@@ -0,0 +1,4 @@
+package com.arz_x.benchmarks.jmh_generated;
+public class ServiceContainerScaleBenchmark_CreatedContainerState_jmhType extends ServiceContainerScaleBenchmark_CreatedContainerState_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package com.arz_x.benchmarks.jmh_generated;
+public class ServiceContainerScaleBenchmark_GraphState_jmhType extends ServiceContainerScaleBenchmark_GraphState_jmhType_B3 {
+}
+
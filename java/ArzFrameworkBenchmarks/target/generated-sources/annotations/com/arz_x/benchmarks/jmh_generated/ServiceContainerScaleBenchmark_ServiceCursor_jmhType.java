@@ -0,0 +1,4 @@
+package com.arz_x.benchmarks.jmh_generated;
+public class ServiceContainerScaleBenchmark_ServiceCursor_jmhType extends ServiceContainerScaleBenchmark_ServiceCursor_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package com.arz_x.benchmarks.jmh_generated;
+public class ServiceInstantiationBenchmark_jmhType extends ServiceInstantiationBenchmark_jmhType_B3 {
+}
+
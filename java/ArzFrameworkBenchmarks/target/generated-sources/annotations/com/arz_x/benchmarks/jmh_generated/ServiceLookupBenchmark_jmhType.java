@@ -0,0 +1,4 @@
+package com.arz_x.benchmarks.jmh_generated;
+public class ServiceLookupBenchmark_jmhType extends ServiceLookupBenchmark_jmhType_B3 {
+}
+
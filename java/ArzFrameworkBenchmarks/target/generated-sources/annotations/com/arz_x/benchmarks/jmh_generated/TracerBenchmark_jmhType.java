@@ -0,0 +1,4 @@
+package com.arz_x.benchmarks.jmh_generated;
+public class TracerBenchmark_jmhType extends TracerBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,335 @@
+package com.arz_x.processor;
+
+import javax.annotation.processing.*;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Created by Rihter on 19.10.2026.
+ * Generates IGeneratedServiceFactory implementation for each class with InstantiateConstructor
+ * and registers all of them in META-INF/services, so ServiceContainer creates services without reflection.
+ * Interfaces of these classes are written to the service index, so the container maps them
+ * without loading the classes at construction.
+ *
+ * Classes that can not be created from the generated code (non public, inner, abstract,
+ * with several InstantiateConstructor) are skipped with a warning: the container uses reflection for them
+ */
+@SupportedAnnotationTypes(ServiceFactoryProcessor.INSTANTIATE_CONSTRUCTOR_ANNOTATION)
+public class ServiceFactoryProcessor extends AbstractProcessor {
+    static final String INSTANTIATE_CONSTRUCTOR_ANNOTATION = "com.arz_x.common.service_container.InstantiateConstructor";
+    static final String OPTIONAL_LOGIC_ANNOTATION = "com.arz_x.common.service_container.OptionalLogic";
+    static final String LAZY_LOGIC_ANNOTATION = "com.arz_x.common.service_container.LazyLogic";
+    static final String GENERATED_FACTORY_INTERFACE = "com.arz_x.common.service_container.IGeneratedServiceFactory";
+    static final String FACTORIES_INDEX_PATH = "META-INF/services/" + GENERATED_FACTORY_INTERFACE;
+    static final String FACTORY_CLASS_SUFFIX = "_ServiceFactory";
+    static final String SERVICE_INDEX_PATH = "META-INF/arz-x/service-index.properties";
+
+    private final Set<String> generatedFactories = new TreeSet<>();
+    private final Map<String, String> serviceInterfaces = new TreeMap<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnvironment) {
+        if (roundEnvironment.processingOver()) {
+            writeFactoriesIndex();
+            writeServiceIndex();
+            return false;
+        }
+
+        final TypeElement annotation = this.processingEnv.getElementUtils().getTypeElement(INSTANTIATE_CONSTRUCTOR_ANNOTATION);
+        if (annotation == null)
+            return false;
+
+        Map<TypeElement, List<ExecutableElement>> constructors = new LinkedHashMap<>();
+        for (Element element : roundEnvironment.getElementsAnnotatedWith(annotation)) {
+            if (element.getKind() != ElementKind.CONSTRUCTOR)
+                continue;
+
+            final TypeElement serviceType = (TypeElement) element.getEnclosingElement();
+            List<ExecutableElement> typeConstructors = constructors.get(serviceType);
+            if (typeConstructors == null) {
+                typeConstructors = new ArrayList<>();
+                constructors.put(serviceType, typeConstructors);
+            }
+            typeConstructors.add((ExecutableElement) element);
+        }
+
+        for (Map.Entry<TypeElement, List<ExecutableElement>> typeConstructors : constructors.entrySet()) {
+            final TypeElement serviceType = typeConstructors.getKey();
+            // interfaces are needed for services created through reflection too
+            this.serviceInterfaces.put(this.processingEnv.getElementUtils().getBinaryName(serviceType).toString()
+                    , getInterfaceNames(serviceType));
+
+            if (typeConstructors.getValue().size() != 1) {
+                warning(serviceType, "several constructors are marked with InstantiateConstructor");
+                continue;
+            }
+
+            final ExecutableElement constructor = typeConstructors.getValue().get(0);
+            final String skipReason = getSkipReason(serviceType, constructor);
+            if (skipReason != null) {
+                warning(serviceType, skipReason);
+                continue;
+            }
+
+            try {
+                this.generatedFactories.add(writeFactory(serviceType, constructor));
+            } catch (IOException exp) {
+                this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR
+                        , "Unable to write service factory: " + exp.getMessage(), serviceType);
+            }
+        }
+        return false;
+    }
+
+    private static String getSkipReason(TypeElement serviceType, ExecutableElement constructor) {
+        if (!constructor.getModifiers().contains(Modifier.PUBLIC))
+            return "InstantiateConstructor is not public";
+        if (serviceType.getModifiers().contains(Modifier.ABSTRACT))
+            return "class is abstract";
+
+        for (Element element = serviceType; element instanceof TypeElement; element = element.getEnclosingElement()) {
+            if (!element.getModifiers().contains(Modifier.PUBLIC))
+                return "class or one of its outer classes is not public";
+            if ((element.getEnclosingElement() instanceof TypeElement) && (!element.getModifiers().contains(Modifier.STATIC)))
+                return "inner class is not static";
+        }
+        return null;
+    }
+
+    private String writeFactory(TypeElement serviceType, ExecutableElement constructor) throws IOException {
+        final String packageName = this.processingEnv.getElementUtils().getPackageOf(serviceType).getQualifiedName().toString();
+        final String factorySimpleName = getFactorySimpleName(serviceType);
+        final String factoryName = packageName.isEmpty() ? factorySimpleName : packageName + "." + factorySimpleName;
+
+        final List<? extends VariableElement> parameters = constructor.getParameters();
+
+        StringBuilder dependencyTypeNames = new StringBuilder();
+        StringBuilder optionalDependencies = new StringBuilder();
+        StringBuilder lazyDependencies = new StringBuilder();
+        boolean hasLazyDependencies = false;
+        StringBuilder constructorArguments = new StringBuilder();
+        for (int parameterIndex = 0; parameterIndex < parameters.size(); ++parameterIndex) {
+            final VariableElement parameter = parameters.get(parameterIndex);
+            final TypeMirror parameterType = this.processingEnv.getTypeUtils().erasure(parameter.asType());
+            final String separator = (parameterIndex == 0) ? "" : ", ";
+
+            dependencyTypeNames.append(separator).append('"').append(getBinaryTypeName(parameterType)).append('"');
+            optionalDependencies.append(separator).append(hasAnnotation(parameter, OPTIONAL_LOGIC_ANNOTATION));
+
+            final boolean isLazyDependency = hasAnnotation(parameter, LAZY_LOGIC_ANNOTATION);
+            lazyDependencies.append(separator).append(isLazyDependency);
+            hasLazyDependencies |= isLazyDependency;
+            constructorArguments.append((parameterIndex == 0) ? "" : ",")
+                    .append("\n                    (").append(parameterType.toString()).append(") arguments[").append(parameterIndex).append(']');
+        }
+
+        final String serviceTypeName = serviceType.getQualifiedName().toString();
+        final String serviceBinaryName = this.processingEnv.getElementUtils().getBinaryName(serviceType).toString();
+
+        final JavaFileObject sourceFile = this.processingEnv.getFiler().createSourceFile(factoryName, serviceType);
+        try (Writer writer = sourceFile.openWriter()) {
+            if (!packageName.isEmpty())
+                writer.write("package " + packageName + ";\n\n");
+            writer.write("/**\n"
+                    + " * Generated by " + ServiceFactoryProcessor.class.getName() + " for " + serviceTypeName + "\n"
+                    + " */\n"
+                    + "public final class " + factorySimpleName + " implements " + GENERATED_FACTORY_INTERFACE + " {\n"
+                    + "    private static final String[] DEPENDENCY_TYPE_NAMES = { " + dependencyTypeNames + " };\n"
+                    + "    private static final boolean[] OPTIONAL_DEPENDENCIES = { " + optionalDependencies + " };\n"
+                    + "\n"
+                    + "    @Override\n"
+                    + "    public String getServiceClassName() {\n"
+                    + "        return \"" + serviceBinaryName + "\";\n"
+                    + "    }\n"
+                    + "\n"
+                    + "    @Override\n"
+                    + "    public Class<?> getServiceClass() {\n"
+                    + "        return " + serviceTypeName + ".class;\n"
+                    + "    }\n"
+                    + "\n"
+                    + "    @Override\n"
+                    + "    public String[] getDependencyTypeNames() {\n"
+                    + "        return DEPENDENCY_TYPE_NAMES;\n"
+                    + "    }\n"
+                    + "\n"
+                    + "    @Override\n"
+                    + "    public boolean[] getOptionalDependencies() {\n"
+                    + "        return OPTIONAL_DEPENDENCIES;\n"
+                    + "    }\n"
+                    + "\n"
+                    + (hasLazyDependencies
+                        ? "    @Override\n"
+                        + "    public boolean[] getLazyDependencies() {\n"
+                        + "        return new boolean[] { " + lazyDependencies + " };\n"
+                        + "    }\n"
+                        + "\n"
+                        : "")
+                    + "    @Override\n"
+                    + "    public Object newInstance(Object[] arguments) throws java.lang.reflect.InvocationTargetException {\n"
+                    + "        try {\n"
+                    + "            return new " + serviceTypeName + "(" + constructorArguments + ");\n"
+                    + "        } catch (Throwable exp) {\n"
+                    + "            // keep the same contract as Constructor.newInstance\n"
+                    + "            throw new java.lang.reflect.InvocationTargetException(exp);\n"
+                    + "        }\n"
+                    + "    }\n"
+                    + "}\n");
+        }
+        return factoryName;
+    }
+
+    private void writeFactoriesIndex() {
+        if (this.generatedFactories.isEmpty())
+            return;
+
+        // incremental compilation may keep factories from the previous build in the index,
+        // entries of removed classes stay there and are skipped by the container one by one
+        Set<String> allFactories = new TreeSet<>(this.generatedFactories);
+        try {
+            final FileObject existingIndex = this.processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", FACTORIES_INDEX_PATH);
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(existingIndex.openInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.trim().isEmpty())
+                        allFactories.add(line.trim());
+                }
+            }
+        } catch (IOException | IllegalArgumentException exp) {
+            // there is no previous index
+        }
+
+        try {
+            final FileObject index = this.processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", FACTORIES_INDEX_PATH);
+            try (Writer writer = new OutputStreamWriter(index.openOutputStream(), StandardCharsets.UTF_8)) {
+                for (String factory : allFactories)
+                    writer.write(factory + "\n");
+            }
+        } catch (IOException exp) {
+            this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR
+                    , "Unable to write service factories index: " + exp.getMessage());
+        }
+    }
+
+    private void writeServiceIndex() {
+        if (this.serviceInterfaces.isEmpty())
+            return;
+
+        // incremental compilation may keep services from the previous build in the index
+        Properties serviceIndex = new Properties();
+        try {
+            final FileObject existingIndex = this.processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_INDEX_PATH);
+            try (Reader reader = new InputStreamReader(existingIndex.openInputStream(), StandardCharsets.UTF_8)) {
+                serviceIndex.load(reader);
+            }
+        } catch (IOException | IllegalArgumentException exp) {
+            // there is no previous index
+        }
+        serviceIndex.putAll(this.serviceInterfaces);
+
+        try {
+            final FileObject index = this.processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_INDEX_PATH);
+            try (Writer writer = new OutputStreamWriter(index.openOutputStream(), StandardCharsets.UTF_8)) {
+                for (String serviceName : new TreeSet<>(serviceIndex.stringPropertyNames()))
+                    writer.write(serviceName + "=" + serviceIndex.getProperty(serviceName) + "\n");
+            }
+        } catch (IOException exp) {
+            this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR
+                    , "Unable to write service index: " + exp.getMessage());
+        }
+    }
+
+    /**
+     * @return Comma separated binary names of interfaces in the same set as ServiceContainer collects them:
+     * interfaces declared by the class and all their super interfaces
+     */
+    private String getInterfaceNames(TypeElement serviceType) {
+        Set<String> interfaceNames = new TreeSet<>();
+        collectInterfaceNames(serviceType, interfaceNames);
+
+        StringBuilder result = new StringBuilder();
+        for (String interfaceName : interfaceNames)
+            result.append((result.length() == 0) ? "" : ",").append(interfaceName);
+        return result.toString();
+    }
+
+    private void collectInterfaceNames(TypeElement type, Set<String> interfaceNames) {
+        for (TypeMirror interfaceType : type.getInterfaces()) {
+            if (interfaceType.getKind() != TypeKind.DECLARED)
+                continue;
+
+            final TypeElement interfaceElement = (TypeElement) ((DeclaredType) interfaceType).asElement();
+            interfaceNames.add(this.processingEnv.getElementUtils().getBinaryName(interfaceElement).toString());
+            collectInterfaceNames(interfaceElement, interfaceNames);
+        }
+    }
+
+    private static String getFactorySimpleName(TypeElement serviceType) {
+        String result = serviceType.getSimpleName().toString();
+        for (Element element = serviceType.getEnclosingElement(); element instanceof TypeElement; element = element.getEnclosingElement())
+            result = element.getSimpleName() + "_" + result;
+        return result + FACTORY_CLASS_SUFFIX;
+    }
+
+    /**
+     * @return Type name in the same form as Class.getName() returns
+     */
+    private String getBinaryTypeName(TypeMirror type) {
+        if (type.getKind() == TypeKind.DECLARED)
+            return this.processingEnv.getElementUtils().getBinaryName((TypeElement) ((DeclaredType) type).asElement()).toString();
+
+        if (type.getKind() == TypeKind.ARRAY) {
+            final TypeMirror componentType = ((ArrayType) type).getComponentType();
+            if (componentType.getKind().isPrimitive())
+                return "[" + getPrimitiveDescriptor(componentType.getKind());
+            final String componentName = getBinaryTypeName(componentType);
+            return componentName.startsWith("[") ? "[" + componentName : "[L" + componentName + ";";
+        }
+
+        // primitive types
+        return type.toString();
+    }
+
+    private static char getPrimitiveDescriptor(TypeKind kind) {
+        switch (kind) {
+            case BOOLEAN: return 'Z';
+            case BYTE: return 'B';
+            case CHAR: return 'C';
+            case SHORT: return 'S';
+            case INT: return 'I';
+            case LONG: return 'J';
+            case FLOAT: return 'F';
+            case DOUBLE: return 'D';
+            default: throw new IllegalArgumentException(kind.toString());
+        }
+    }
+
+    private static boolean hasAnnotation(VariableElement parameter, String annotationName) {
+        for (AnnotationMirror annotation : parameter.getAnnotationMirrors()) {
+            final TypeElement annotationType = (TypeElement) annotation.getAnnotationType().asElement();
+            if (annotationType.getQualifiedName().contentEquals(annotationName))
+                return true;
+        }
+        return false;
+    }
+
+    private void warning(TypeElement serviceType, String reason) {
+        this.processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING
+                , "Service factory is not generated, reflection will be used: " + reason, serviceType);
+    }
+}
@@ -0,0 +1,258 @@
+import com.arz_x.common.helpers.Contract;
+import com.arz_x.common.service_container.IGeneratedServiceFactory;
+import com.arz_x.common.service_container.InstantiateConstructor;
+import com.arz_x.common.service_container.ServiceContainer;
+import com.arz_x.processor.ServiceFactoryProcessor;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.lang.reflect.Proxy;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Created by Rihter on 19.10.2026.
+ * Unit tests for ServiceFactoryProcessor run by the JDK compiler over fixture services
+ */
+public class ServiceFactoryProcessorTest {
+    private static final String ANNOTATIONS_PACKAGE = "com.arz_x.common.service_container.";
+
+    private static final File TEMPORARY_FOLDER = new File("temp");
+    private static final File SOURCES_FOLDER = new File(TEMPORARY_FOLDER, "sources");
+    private static final File GENERATED_FOLDER = new File(TEMPORARY_FOLDER, "generated");
+    private static final File CLASSES_FOLDER = new File(TEMPORARY_FOLDER, "classes");
+
+    private List<Diagnostic<? extends JavaFileObject>> diagnostics;
+
+    @Before
+    public void setUp() throws Exception {
+        for (File folder : new File[] {SOURCES_FOLDER, GENERATED_FOLDER, CLASSES_FOLDER}) {
+            folder.mkdirs();
+            Assert.assertTrue(folder.isDirectory());
+        }
+        this.diagnostics = compileFixtures();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        deleteRecursively(TEMPORARY_FOLDER);
+    }
+
+    @Test
+    public void shouldGenerateFactoriesAndServiceIndex() throws Exception {
+        //region Test
+        Assert.assertTrue(new File(GENERATED_FOLDER, "fixtures/Greeter_ServiceFactory.java").isFile());
+        Assert.assertTrue(new File(GENERATED_FOLDER, "fixtures/Outer_Nested_ServiceFactory.java").isFile());
+
+        final List<String> factoriesIndex = Files.readAllLines(new File(CLASSES_FOLDER
+                , "META-INF/services/" + IGeneratedServiceFactory.class.getName()).toPath(), StandardCharsets.UTF_8);
+        Assert.assertEquals(Arrays.asList("fixtures.Greeter_ServiceFactory", "fixtures.Outer_Nested_ServiceFactory"), factoriesIndex);
+
+        final Properties serviceIndex = readServiceIndex();
+        Assert.assertEquals("fixtures.IBase,fixtures.IGreeter", serviceIndex.getProperty("fixtures.Greeter"));
+        Assert.assertEquals("", serviceIndex.getProperty("fixtures.Outer$Nested"));
+        //endregion
+    }
+
+    @Test
+    public void shouldSkipClassesWhichCanNotBeCreatedFromGeneratedCode() throws Exception {
+        //region Test
+        for (String skippedFactory : new String[] {"HiddenService_ServiceFactory", "InnerHolder_Inner_ServiceFactory"
+                , "AbstractService_ServiceFactory", "AmbiguousService_ServiceFactory"})
+            Assert.assertFalse(new File(GENERATED_FOLDER, "fixtures/" + skippedFactory + ".java").exists());
+
+        List<String> warnedServices = new ArrayList<>();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : this.diagnostics) {
+            if (diagnostic.getKind() == Diagnostic.Kind.WARNING)
+                warnedServices.add(diagnostic.getMessage(null));
+        }
+        Assert.assertEquals(4, warnedServices.size());
+        Assert.assertTrue(warnedServices.toString().contains("class or one of its outer classes is not public"));
+        Assert.assertTrue(warnedServices.toString().contains("inner class is not static"));
+        Assert.assertTrue(warnedServices.toString().contains("class is abstract"));
+        Assert.assertTrue(warnedServices.toString().contains("several constructors are marked with InstantiateConstructor"));
+
+        // skipped services are still mapped to their interfaces, reflection creates them
+        Assert.assertEquals("fixtures.IBase,fixtures.IGreeter", readServiceIndex().getProperty("fixtures.AmbiguousService"));
+        //endregion
+    }
+
+    @Test
+    public void shouldDescribeLazyAndOptionalDependencies() throws Exception {
+        try (URLClassLoader classLoader = createFixturesClassLoader()) {
+            //region Initialization
+            final IGeneratedServiceFactory nestedFactory = (IGeneratedServiceFactory) classLoader
+                    .loadClass("fixtures.Outer_Nested_ServiceFactory").newInstance();
+            final IGeneratedServiceFactory greeterFactory = (IGeneratedServiceFactory) classLoader
+                    .loadClass("fixtures.Greeter_ServiceFactory").newInstance();
+            //endregion
+
+            //region Test
+            Assert.assertEquals("fixtures.Outer$Nested", nestedFactory.getServiceClassName());
+            Assert.assertSame(classLoader.loadClass("fixtures.Outer$Nested"), nestedFactory.getServiceClass());
+            Assert.assertArrayEquals(new String[] {"fixtures.IGreeter", "java.lang.Runnable"}, nestedFactory.getDependencyTypeNames());
+            Assert.assertArrayEquals(new boolean[] {false, true}, nestedFactory.getOptionalDependencies());
+            Assert.assertArrayEquals(new boolean[] {true, false}, nestedFactory.getLazyDependencies());
+
+            Assert.assertEquals(0, greeterFactory.getDependencyTypeNames().length);
+            Assert.assertNull(greeterFactory.getLazyDependencies());
+            //endregion
+        }
+    }
+
+    @Test
+    public void shouldCreateServicesThroughGeneratedFactoriesOfContainerClassLoader() throws Exception {
+        try (URLClassLoader classLoader = createFixturesClassLoader()) {
+            //region Initialization
+            ServiceContainer.Settings settings = new ServiceContainer.Settings();
+            settings.classLoader = classLoader;
+            settings.serviceClasses = new String[] {
+                    "fixtures.Greeter",
+                    "fixtures.Outer$Nested",
+            };
+
+            ServiceContainer serviceContainer = new ServiceContainer(settings);
+            //endregion
+
+            //region Test
+            final Object nested = serviceContainer.getService("fixtures.Outer$Nested");
+            Assert.assertEquals("fixtures.Outer_Nested_ServiceFactory", getCreatorClassName(classLoader, "fixtures.Outer$Nested"));
+
+            final Object greeter = nested.getClass().getField("greeter").get(nested);
+            Assert.assertTrue(Proxy.isProxyClass(greeter.getClass()));
+            Assert.assertNull(getCreatorClassName(classLoader, "fixtures.Greeter"));
+
+            Assert.assertEquals("hello", greeter.getClass().getMethod("greet").invoke(greeter));
+            Assert.assertEquals("fixtures.Greeter_ServiceFactory", getCreatorClassName(classLoader, "fixtures.Greeter"));
+            //endregion
+        }
+    }
+
+    private static List<Diagnostic<? extends JavaFileObject>> compileFixtures() throws Exception {
+        Map<String, String> sources = new LinkedHashMap<>();
+        sources.put("IBase", "public interface IBase {\n}\n");
+        sources.put("IGreeter", "public interface IGreeter extends IBase {\n"
+                + "    String greet();\n"
+                + "}\n");
+        sources.put("Greeter", "public class Greeter implements IGreeter {\n"
+                + "    public static volatile String creatorClassName;\n"
+                + "    @" + ANNOTATIONS_PACKAGE + "InstantiateConstructor\n"
+                + "    public Greeter() {\n"
+                + "        creatorClassName = new Throwable().getStackTrace()[1].getClassName();\n"
+                + "    }\n"
+                + "    public String greet() {\n"
+                + "        return \"hello\";\n"
+                + "    }\n"
+                + "}\n");
+        sources.put("Outer", "public class Outer {\n"
+                + "    public static class Nested {\n"
+                + "        public static volatile String creatorClassName;\n"
+                + "        public final IGreeter greeter;\n"
+                + "        @" + ANNOTATIONS_PACKAGE + "InstantiateConstructor\n"
+                + "        public Nested(@" + ANNOTATIONS_PACKAGE + "LazyLogic IGreeter greeter\n"
+                + "                , @" + ANNOTATIONS_PACKAGE + "OptionalLogic Runnable missing) {\n"
+                + "            creatorClassName = new Throwable().getStackTrace()[1].getClassName();\n"
+                + "            this.greeter = greeter;\n"
+                + "        }\n"
+                + "    }\n"
+                + "}\n");
+        sources.put("HiddenService", "class HiddenService {\n"
+                + "    @" + ANNOTATIONS_PACKAGE + "InstantiateConstructor\n"
+                + "    public HiddenService() {\n"
+                + "    }\n"
+                + "}\n");
+        sources.put("InnerHolder", "public class InnerHolder {\n"
+                + "    public class Inner {\n"
+                + "        @" + ANNOTATIONS_PACKAGE + "InstantiateConstructor\n"
+                + "        public Inner() {\n"
+                + "        }\n"
+                + "    }\n"
+                + "}\n");
+        sources.put("AbstractService", "public abstract class AbstractService {\n"
+                + "    @" + ANNOTATIONS_PACKAGE + "InstantiateConstructor\n"
+                + "    public AbstractService() {\n"
+                + "    }\n"
+                + "}\n");
+        sources.put("AmbiguousService", "public class AmbiguousService implements IGreeter {\n"
+                + "    @" + ANNOTATIONS_PACKAGE + "InstantiateConstructor\n"
+                + "    public AmbiguousService() {\n"
+                + "    }\n"
+                + "    @" + ANNOTATIONS_PACKAGE + "InstantiateConstructor\n"
+                + "    public AmbiguousService(IBase base) {\n"
+                + "    }\n"
+                + "    public String greet() {\n"
+                + "        return \"ambiguous\";\n"
+                + "    }\n"
+                + "}\n");
+
+        final File packageFolder = new File(SOURCES_FOLDER, "fixtures");
+        Contract.requireTrue(packageFolder.mkdirs());
+        List<File> sourceFiles = new ArrayList<>();
+        for (Map.Entry<String, String> source : sources.entrySet()) {
+            final File sourceFile = new File(packageFolder, source.getKey() + ".java");
+            Files.write(sourceFile.toPath(), ("package fixtures;\n\n" + source.getValue()).getBytes(StandardCharsets.UTF_8));
+            sourceFiles.add(sourceFile);
+        }
+
+        // fixtures refer to the annotations only, so the framework classes are enough
+        final String frameworkPath = new File(InstantiateConstructor.class.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath();
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)) {
+            final JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics
+                    , Arrays.asList("-d", CLASSES_FOLDER.getPath(), "-s", GENERATED_FOLDER.getPath(), "-classpath", frameworkPath)
+                    , null
+                    , fileManager.getJavaFileObjectsFromFiles(sourceFiles));
+            task.setProcessors(Collections.singletonList(new ServiceFactoryProcessor()));
+            Assert.assertTrue(diagnostics.getDiagnostics().toString(), task.call());
+        }
+        return diagnostics.getDiagnostics();
+    }
+
+    private static URLClassLoader createFixturesClassLoader() throws Exception {
+        return new URLClassLoader(new URL[] { CLASSES_FOLDER.toURI().toURL() }, ServiceFactoryProcessorTest.class.getClassLoader());
+    }
+
+    private static String getCreatorClassName(ClassLoader classLoader, String serviceClassName) throws Exception {
+        return (String) classLoader.loadClass(serviceClassName).getField("creatorClassName").get(null);
+    }
+
+    private static Properties readServiceIndex() throws Exception {
+        Properties serviceIndex = new Properties();
+        try (Reader reader = new InputStreamReader(new FileInputStream(new File(CLASSES_FOLDER
+                , "META-INF/arz-x/service-index.properties")), StandardCharsets.UTF_8)) {
+            serviceIndex.load(reader);
+        }
+        return serviceIndex;
+    }
+
+    private static void deleteRecursively(File file) {
+        final File[] subFiles = file.listFiles();
+        if (subFiles != null) {
+            for (File subFile : subFiles)
+                deleteRecursively(subFile);
+        }
+        Contract.requireTrue(file.delete());
+    }
+}